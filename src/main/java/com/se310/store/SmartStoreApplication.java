@@ -14,6 +14,7 @@ import com.se310.store.service.StoreService;
 import com.se310.store.servlet.SwaggerServlet;
 import org.apache.catalina.Context;
 import org.apache.catalina.LifecycleException;
+import org.apache.catalina.connector.Connector;
 import org.apache.catalina.startup.Tomcat;
 import org.apache.tomcat.util.descriptor.web.FilterDef;
 import org.apache.tomcat.util.descriptor.web.FilterMap;
@@ -22,6 +23,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Main class responsible for starting and managing the Smart Store Application.
@@ -39,6 +42,8 @@ public class SmartStoreApplication {
     private static final int PORT = ConfigLoader.getServerPort();
 
     private Tomcat tomcat;
+    // Only created when requests run on virtual threads; Tomcat does not shut down executors it was given
+    private ExecutorService requestExecutor;
 
     public static void main(String[] args) {
         SmartStoreApplication app = new SmartStoreApplication();
@@ -98,7 +103,21 @@ public class SmartStoreApplication {
         logger.info("Configuring Tomcat server...");
         tomcat = new Tomcat();
         tomcat.setPort(PORT);
-        tomcat.getConnector(); // Initialize default connector
+        Connector connector = tomcat.getConnector(); // Initialize default connector
+
+        // Compress text responses above the size threshold; precompressed payloads are passed through
+        connector.setProperty("compression", ConfigLoader.getCompression());
+        connector.setProperty("compressionMinSize", String.valueOf(ConfigLoader.getCompressionMinSize()));
+        connector.setProperty("compressibleMimeType", ConfigLoader.getCompressionMimeTypes());
+        logger.info("Response compression: {} (min size {} bytes)", ConfigLoader.getCompression(),
+                ConfigLoader.getCompressionMinSize());
+
+        // Requests mostly wait on the database, so a virtual thread per request scales past the thread pool
+        if (ConfigLoader.isVirtualThreadsEnabled()) {
+            requestExecutor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("http-virtual-", 0).factory());
+            connector.getProtocolHandler().setExecutor(requestExecutor);
+            logger.info("Requests run on virtual threads");
+        }
 
         // Create context
         String contextPath = "";
@@ -119,9 +138,9 @@ public class SmartStoreApplication {
         Tomcat.addServlet(context, "h2Console", h2Servlet);
         context.addServletMappingDecoded("/h2-console/*", "h2Console");
 
-        // Register Swagger UI servlet
+        // Register Swagger UI servlet, initialized at startup so openapi.yaml is compressed before the first request
         SwaggerServlet swaggerServlet = new SwaggerServlet();
-        Tomcat.addServlet(context, "swagger", swaggerServlet);
+        Tomcat.addServlet(context, "swagger", swaggerServlet).setLoadOnStartup(1);
         context.addServletMappingDecoded("/swagger-ui/*", "swagger");
         context.addServletMappingDecoded("/api-docs", "swagger");
 
@@ -232,6 +251,17 @@ public class SmartStoreApplication {
         if (tomcat != null) {
             tomcat.stop();
         }
+        shutdownRequestExecutor();
+    }
+
+    /**
+     * Stop the virtual thread executor, if one was created, once Tomcat no longer hands it requests
+     */
+    private void shutdownRequestExecutor() {
+        if (requestExecutor != null) {
+            requestExecutor.shutdown();
+            requestExecutor = null;
+        }
     }
 
     /**
@@ -271,6 +301,10 @@ public class SmartStoreApplication {
                 tomcat.stop();
                 tomcat.destroy();
             }
+            shutdownRequestExecutor();
+
+            // Release pooled database connections
+            DataManager.getInstance().close();
 
             logger.info("Application shut down successfully");
         } catch (Exception e) {
@@ -16,6 +16,9 @@ import java.util.Properties;
  * - Security: Credentials not hardcoded in source code
  * - Maintainability: Single source of truth for configuration
  *
+ * A JVM system property with the same key as a property in the file overrides it, for example
+ * -Ddb.url=jdbc:h2:mem:test, so tests and deployments can change a setting without another copy of the file.
+ *
  * @author  Sergey L. Sundukovskiy
  * @version 1.0
  * @since   2025-11-13
@@ -35,6 +38,15 @@ public class ConfigLoader {
             }
             properties.load(input);
             System.out.println("ConfigLoader: Successfully loaded " + CONFIG_FILE);
+
+            //Check to see if any property is overridden on the command line
+            for (String key : properties.stringPropertyNames()) {
+                String override = System.getProperty(key);
+                if (override != null) {
+                    properties.setProperty(key, override);
+                    System.out.println("ConfigLoader: " + key + " overridden by system property");
+                }
+            }
         } catch (IOException ex) {
             System.err.println("Error loading configuration file: " + ex.getMessage());
             throw new RuntimeException("Failed to load configuration", ex);
@@ -67,6 +79,26 @@ public class ConfigLoader {
         return properties.getProperty(key, defaultValue);
     }
 
+    /**
+     * Get integer property value with default fallback
+     *
+     * @param key The property key
+     * @param defaultValue The default value if key not found or not a valid integer
+     * @return The property value, or defaultValue if not found or invalid
+     */
+    public static int getIntProperty(String key, int defaultValue) {
+        String value = getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid " + key + " value: " + value + ", using default " + defaultValue);
+            return defaultValue;
+        }
+    }
+
     // ==================== SERVER CONFIGURATION ====================
 
     public static int getServerPort() {
@@ -79,10 +111,43 @@ public class ConfigLoader {
         }
     }
 
+    public static int getJsonResponseBufferBytes() {
+        return getIntProperty("server.json.buffer.bytes", 8192);
+    }
+
+    public static boolean isVirtualThreadsEnabled() {
+        return Boolean.parseBoolean(getProperty("server.threads.virtual", "false").trim());
+    }
+
+    public static String getCompression() {
+        return getProperty("server.compression", "on");
+    }
+
+    public static int getCompressionMinSize() {
+        return getIntProperty("server.compression.min.size", 1024);
+    }
+
+    public static String getCompressionMimeTypes() {
+        return getProperty("server.compression.mime.types",
+                "application/json,application/x-yaml,text/html,text/plain,text/css,text/javascript,application/javascript");
+    }
+
+    public static int getCompressionLevel() {
+        return getIntProperty("server.compression.level", 9);
+    }
+
     public static String getApiBaseUrl() {
         return getProperty("api.base.url", "http://localhost:8080/api/v1");
     }
 
+    public static int getApiPageDefaultLimit() {
+        return getIntProperty("api.page.default.limit", 100);
+    }
+
+    public static int getApiPageMaxLimit() {
+        return getIntProperty("api.page.max.limit", 1000);
+    }
+
     // ==================== SECURITY CONFIGURATION ====================
 
     public static String getEncryptionKey() {
@@ -107,6 +172,96 @@ public class ConfigLoader {
         return getProperty("db.password", "");
     }
 
+    public static int getDbPoolMinSize() {
+        return getIntProperty("db.pool.min.size", 2);
+    }
+
+    public static int getDbPoolMaxSize() {
+        return getIntProperty("db.pool.max.size", 20);
+    }
+
+    public static long getDbPoolBorrowTimeoutMs() {
+        return getIntProperty("db.pool.borrow.timeout.ms", 5000);
+    }
+
+    public static long getDbPoolIdleTimeoutMs() {
+        return getIntProperty("db.pool.idle.timeout.ms", 300000);
+    }
+
+    public static long getDbPoolValidationIdleMs() {
+        return getIntProperty("db.pool.validation.idle.ms", 30000);
+    }
+
+    public static int getDbStatementCacheSize() {
+        return getIntProperty("db.pool.statement.cache.size", 64);
+    }
+
+    public static int getDbBatchSize() {
+        return Math.max(1, getIntProperty("db.batch.size", 500));
+    }
+
+    public static int getDbFetchSize() {
+        return Math.max(1, getIntProperty("db.fetch.size", 1000));
+    }
+
+    public static boolean isWriteBehindEnabled() {
+        return Boolean.parseBoolean(getProperty("db.writebehind.enabled", "false").trim());
+    }
+
+    public static int getWriteBehindCapacity() {
+        return Math.max(1, getIntProperty("db.writebehind.capacity", 10000));
+    }
+
+    public static long getWriteBehindFlushIntervalMs() {
+        return Math.max(1, getIntProperty("db.writebehind.flush.interval.ms", 200));
+    }
+
+    public static int getGroupCommitMaxBatch() {
+        return Math.max(1, getIntProperty("db.groupcommit.max.batch", 256));
+    }
+
+    public static long getGroupCommitMaxWaitMs() {
+        return Math.max(0, getIntProperty("db.groupcommit.max.wait.ms", 2));
+    }
+
+    public static long getGroupCommitTimeoutMs() {
+        return Math.max(1, getIntProperty("db.groupcommit.timeout.ms", 10000));
+    }
+
+    public static int getDbMigrationChunkSize() {
+        return Math.max(1, getIntProperty("db.migration.chunk.size", 1000));
+    }
+
+    // ==================== BASKET RESERVATION CONFIGURATION ====================
+
+    public static long getBasketReservationTtlMs() {
+        return Math.max(1, getIntProperty("basket.reservation.ttl.ms", 900000));
+    }
+
+    public static long getBasketReservationTickMs() {
+        return Math.max(1, getIntProperty("basket.reservation.tick.ms", 1000));
+    }
+
+    public static int getBasketReservationWheelSize() {
+        return Math.max(1, getIntProperty("basket.reservation.wheel.size", 512));
+    }
+
+    // ==================== CUSTOMER LOCATION CONFIGURATION ====================
+
+    public static long getCustomerLocationSnapshotMs() {
+        return Math.max(1, getIntProperty("customer.location.snapshot.ms", 5000));
+    }
+
+    public static int getCustomerLocationTableCapacity() {
+        return Math.max(16, getIntProperty("customer.location.table.capacity", 1024));
+    }
+
+    // ==================== SCRIPT CONFIGURATION ====================
+
+    public static long getScriptProgressIntervalLines() {
+        return Math.max(1, getIntProperty("script.progress.interval.lines", 100000));
+    }
+
     // ==================== ADMIN USER CONFIGURATION ====================
 
     public static String getAdminEmail() {
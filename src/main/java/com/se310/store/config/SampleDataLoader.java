@@ -53,16 +53,34 @@ public class SampleDataLoader {
         logger.info("=".repeat(80));
 
         try {
-            // Load in dependency order
-            loadUsers();
-            loadStores();
-            loadAisles();
-            loadShelves();
-            loadProducts();
-            loadInventory();
-            loadCustomers();
-            loadBaskets();
-            loadDevices();
+            // Products and Inventory are written to the database in JDBC batches
+            storeService.beginBulkLoad();
+            boolean loaded = false;
+            try {
+                // Load in dependency order
+                loadUsers();
+                loadStores();
+                loadAisles();
+                loadShelves();
+                loadProducts();
+                loadInventory();
+                loadCustomers();
+                loadBaskets();
+                loadDevices();
+                loaded = true;
+            } finally {
+                // Leave bulk load mode even after a failed step, so the rows buffered so far are written
+                // and later provisioning is not buffered
+                try {
+                    storeService.endBulkLoad();
+                } catch (StoreException e) {
+                    if (loaded) {
+                        throw e;
+                    }
+                    // The failed step is the error reported
+                    logger.error("Failed to flush bulk loaded data: {}", e.getReason());
+                }
+            }
 
             logger.info("=".repeat(80));
             logger.info("Sample data loaded successfully!");
@@ -1,16 +1,22 @@
 package com.se310.store.controller;
 
+import com.se310.store.config.ConfigLoader;
+import com.se310.store.dto.FieldProjection;
 import com.se310.store.dto.StoreMapper;
 import com.se310.store.dto.StoreMapper.StoreDTO;
 import com.se310.store.model.Store;
 import com.se310.store.model.StoreException;
+import com.se310.store.service.Page;
 import com.se310.store.service.StoreService;
 import com.se310.store.servlet.BaseServlet;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
 import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import java.util.Collection;
+import java.util.List;
 import java.util.stream.Collectors;
 
 /**
@@ -30,6 +36,9 @@ public class StoreController extends BaseServlet {
 
     //TODO: Implement Controller for Store operations, part of the MVC Pattern
 
+    private static final int DEFAULT_LIMIT = ConfigLoader.getApiPageDefaultLimit();
+    private static final int MAX_LIMIT = ConfigLoader.getApiPageMaxLimit();
+
     private final StoreService storeService;
 
     public StoreController(StoreService storeService) {
@@ -38,11 +47,44 @@ public class StoreController extends BaseServlet {
 
     /**
      * Handle GET requests - Returns StoreDTO objects
-     * - GET /api/v1/stores (no parameters) - Get all stores
-     * - GET /api/v1/stores/{storeId} - Get store by ID
+     * - GET /api/v1/stores?limit=xxx&after=xxx - Get a page of stores in id order; the cursor of the
+     *   next page is returned in the X-Next-Cursor and Link headers
+     * - GET /api/v1/stores/{storeId} - Get store by ID, with an ETag; If-None-Match answers 304 when unchanged
+     * Both accept fields=id,address,... to return only the listed fields
      */
     @Override
     protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String storeId = extractResourceId(request);
+        try {
+            FieldProjection projection = FieldProjection.parse(request.getParameter("fields"), StoreDTO.class);
+
+            if (storeId != null) {
+                Store store = storeService.showStore(storeId, null);
+                if (notModified(request, response, store)) {
+                    return;
+                }
+                sendJsonResponse(request, response, projection.apply(StoreMapper.toDTO(store)),
+                        HttpServletResponse.SC_OK);
+                return;
+            }
+
+            int limit = parseLimit(request.getParameter("limit"));
+            Page<Store> page = storeService.getStoresPage(Page.decodeCursor(request.getParameter("after")), limit);
+            List<Object> stores = page.getItems().stream()
+                    .map(StoreMapper::toDTO)
+                    .map(projection::apply)
+                    .collect(Collectors.toList());
+
+            if (page.getNextCursor() != null) {
+                response.setHeader("X-Next-Cursor", page.getNextCursor());
+                response.setHeader("Link", "<" + nextPageUri(request, limit, page.getNextCursor()) + ">; rel=\"next\"");
+            }
+            sendJsonResponse(request, response, stores, HttpServletResponse.SC_OK);
+        } catch (IllegalArgumentException e) {
+            sendErrorResponse(request, response, HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+        } catch (StoreException e) {
+            sendErrorResponse(request, response, HttpServletResponse.SC_NOT_FOUND, e.getReason());
+        }
     }
 
     /**
@@ -68,4 +110,37 @@ public class StoreController extends BaseServlet {
     @Override
     protected void doDelete(HttpServletRequest request, HttpServletResponse response) throws IOException {
     }
+
+    /**
+     * Parse the page size, capped at the configured maximum
+     */
+    private int parseLimit(String limit) {
+        if (limit == null || limit.isBlank()) {
+            return DEFAULT_LIMIT;
+        }
+        int value;
+        try {
+            value = Integer.parseInt(limit.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid limit: " + limit);
+        }
+        if (value < 1) {
+            throw new IllegalArgumentException("Invalid limit: " + limit);
+        }
+        return Math.min(value, MAX_LIMIT);
+    }
+
+    /**
+     * Build the request URI of the next page, keeping the projection of this one
+     */
+    private String nextPageUri(HttpServletRequest request, int limit, String cursor) {
+        StringBuilder uri = new StringBuilder(request.getRequestURI())
+                .append("?limit=").append(limit)
+                .append("&after=").append(cursor);
+        String fields = request.getParameter("fields");
+        if (fields != null) {
+            uri.append("&fields=").append(URLEncoder.encode(fields, StandardCharsets.UTF_8));
+        }
+        return uri.toString();
+    }
 }
\ No newline at end of file
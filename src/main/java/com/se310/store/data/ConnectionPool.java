@@ -0,0 +1,488 @@
+package com.se310.store.data;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * ConnectionPool - Bounded pool of JDBC connections used by DataManager.
+ *
+ * Connections are handed out as lightweight proxies; calling close() on a borrowed
+ * connection returns the underlying physical connection to the pool instead of closing it.
+ *
+ * Pool behaviour:
+ * - At most maxSize physical connections exist; borrowers wait up to borrowTimeout for one
+ * - At least minSize connections are kept open, extra idle connections are evicted after idleTimeout
+ * - A connection is validated only if it has been sitting idle longer than validationIdle
+ * - Each physical connection keeps an LRU cache of prepared statements keyed by SQL text
+ *
+ * @author  Sergey L. Sundukovskiy
+ * @version 1.0
+ * @since   2025-11-20
+ */
+public class ConnectionPool {
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int minSize;
+    private final int maxSize;
+    private final long borrowTimeoutMillis;
+    private final long idleTimeoutMillis;
+    private final long validationIdleMillis;
+    private final int statementCacheSize;
+
+    // Permits bound the number of leased connections, idle connections are reused LIFO
+    private final Semaphore permits;
+    private final Deque<PooledConnection> idleConnections = new ArrayDeque<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ScheduledExecutorService evictor;
+
+    // Pool metrics
+    private final AtomicInteger activeCount = new AtomicInteger();
+    private final AtomicInteger totalCount = new AtomicInteger();
+    private final LongAdder borrowCount = new LongAdder();
+    private final LongAdder borrowTimeouts = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final LongAdder statementCacheHits = new LongAdder();
+    private final LongAdder statementCacheMisses = new LongAdder();
+    private final LongAdder statementCacheEvictions = new LongAdder();
+
+    private volatile boolean closed;
+
+    /**
+     * Constructor for the ConnectionPool class. Opens minSize connections eagerly
+     * @param url
+     * @param user
+     * @param password
+     * @param minSize
+     * @param maxSize
+     * @param borrowTimeoutMillis
+     * @param idleTimeoutMillis
+     * @param validationIdleMillis
+     * @param statementCacheSize prepared statements cached per connection, 0 disables caching
+     * @throws SQLException
+     */
+    public ConnectionPool(String url, String user, String password, int minSize, int maxSize,
+                          long borrowTimeoutMillis, long idleTimeoutMillis, long validationIdleMillis,
+                          int statementCacheSize) throws SQLException {
+
+        if (maxSize < 1 || minSize < 0 || minSize > maxSize) {
+            throw new IllegalArgumentException("Invalid pool size: min=" + minSize + ", max=" + maxSize);
+        }
+
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.validationIdleMillis = validationIdleMillis;
+        this.statementCacheSize = statementCacheSize;
+        this.permits = new Semaphore(maxSize, true);
+
+        //Pre-fill the pool up to the minimum size
+        for (int i = 0; i < minSize; i++) {
+            idleConnections.push(open());
+        }
+
+        this.evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "connection-pool-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1000L, idleTimeoutMillis / 2);
+        evictor.scheduleWithFixedDelay(this::evictIdleConnections, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrow a connection from the pool, waiting up to the borrow timeout if all connections are in use.
+     * The returned connection must be closed by the caller to return it to the pool
+     * @return
+     * @throws SQLException
+     */
+    public Connection borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                borrowTimeouts.increment();
+                throw new SQLException("Timed out after " + borrowTimeoutMillis
+                        + " ms waiting for a database connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+        recordWait(System.nanoTime() - start);
+
+        try {
+            PooledConnection pooled = takeIdleConnection();
+            if (pooled == null) {
+                pooled = open();
+            }
+            activeCount.incrementAndGet();
+            borrowCount.increment();
+            return pooled.lease();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Get a snapshot of the pool metrics
+     * @return
+     */
+    public PoolStats getStats() {
+        long borrows = borrowCount.sum();
+        int idle;
+        lock.lock();
+        try {
+            idle = idleConnections.size();
+        } finally {
+            lock.unlock();
+        }
+        return new PoolStats(activeCount.get(), idle, totalCount.get(), maxSize, permits.getQueueLength(),
+                borrows, borrowTimeouts.sum(),
+                borrows == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(totalWaitNanos.sum() / borrows),
+                TimeUnit.NANOSECONDS.toMicros(maxWaitNanos.get()),
+                statementCacheHits.sum(), statementCacheMisses.sum(), statementCacheEvictions.sum());
+    }
+
+    /**
+     * Close the pool and all idle connections. Leased connections are closed when they are returned
+     */
+    public void close() {
+        closed = true;
+        evictor.shutdownNow();
+
+        List<PooledConnection> toClose;
+        lock.lock();
+        try {
+            toClose = new ArrayList<>(idleConnections);
+            idleConnections.clear();
+        } finally {
+            lock.unlock();
+        }
+        toClose.forEach(this::discard);
+    }
+
+    /**
+     * Take the most recently used idle connection, validating it only if it has been idle for a while
+     */
+    private PooledConnection takeIdleConnection() {
+        while (true) {
+            PooledConnection pooled;
+            lock.lock();
+            try {
+                pooled = idleConnections.pollFirst();
+            } finally {
+                lock.unlock();
+            }
+
+            if (pooled == null) {
+                return null;
+            }
+            if (pooled.idleMillis() < validationIdleMillis || pooled.isValid()) {
+                return pooled;
+            }
+            discard(pooled);
+        }
+    }
+
+    /**
+     * Return a leased connection back to the pool
+     */
+    private void release(PooledConnection pooled) {
+        activeCount.decrementAndGet();
+        try {
+            if (closed || !pooled.reset()) {
+                discard(pooled);
+                return;
+            }
+            lock.lock();
+            try {
+                idleConnections.offerFirst(pooled);
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Close idle connections that have been unused for longer than idle timeout, keeping at least minSize open
+     */
+    private void evictIdleConnections() {
+        List<PooledConnection> evicted = new ArrayList<>();
+        lock.lock();
+        try {
+            int removable = totalCount.get() - minSize;
+            //Least recently used connections are at the tail of the deque
+            Iterator<PooledConnection> iterator = idleConnections.descendingIterator();
+            while (removable > 0 && iterator.hasNext()) {
+                PooledConnection pooled = iterator.next();
+                if (pooled.idleMillis() >= idleTimeoutMillis) {
+                    iterator.remove();
+                    evicted.add(pooled);
+                    removable--;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        evicted.forEach(this::discard);
+    }
+
+    private PooledConnection open() throws SQLException {
+        PooledConnection pooled = new PooledConnection(DriverManager.getConnection(url, user, password));
+        totalCount.incrementAndGet();
+        return pooled;
+    }
+
+    private void discard(PooledConnection pooled) {
+        totalCount.decrementAndGet();
+        try {
+            if (pooled.statementCache != null) {
+                pooled.statementCache.closeAll();
+            }
+            pooled.physical.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing pooled connection: " + e.getMessage());
+        }
+    }
+
+    private void recordWait(long waitNanos) {
+        totalWaitNanos.add(waitNanos);
+        maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+    }
+
+    /**
+     * Physical connection owned by the pool together with its bookkeeping
+     */
+    private final class PooledConnection {
+        private final Connection physical;
+        private final StatementCache statementCache;
+        private volatile long lastUsed = System.currentTimeMillis();
+
+        private PooledConnection(Connection physical) {
+            this.physical = physical;
+            this.statementCache = statementCacheSize > 0
+                    ? new StatementCache(physical, statementCacheSize, statementCacheHits,
+                            statementCacheMisses, statementCacheEvictions)
+                    : null;
+        }
+
+        private long idleMillis() {
+            return System.currentTimeMillis() - lastUsed;
+        }
+
+        private boolean isValid() {
+            try {
+                return physical.isValid(1);
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        /**
+         * Restore default connection state before the connection goes back to the pool
+         */
+        private boolean reset() {
+            try {
+                if (physical.isClosed()) {
+                    return false;
+                }
+                if (statementCache != null) {
+                    statementCache.releaseAll();
+                }
+                if (!physical.getAutoCommit()) {
+                    physical.rollback();
+                    physical.setAutoCommit(true);
+                }
+                lastUsed = System.currentTimeMillis();
+                return true;
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        private Connection lease() {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, new LeaseHandler(this));
+        }
+    }
+
+    /**
+     * Proxy handler for a leased connection; close() hands the physical connection back to the pool
+     */
+    private final class LeaseHandler implements InvocationHandler {
+        private final PooledConnection pooled;
+        private boolean returned;
+
+        private LeaseHandler(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!returned) {
+                        returned = true;
+                        release(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || pooled.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + pooled.physical + "]";
+                default:
+                    break;
+            }
+
+            if (returned) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+            //Plain prepareStatement(sql) calls are served from the per-connection statement cache
+            if (pooled.statementCache != null && method.getName().equals("prepareStatement")
+                    && args != null && args.length == 1) {
+                return pooled.statementCache.prepare((String) args[0]);
+            }
+            try {
+                return method.invoke(pooled.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * Point-in-time snapshot of the pool metrics
+     */
+    public static final class PoolStats {
+        private final int active;
+        private final int idle;
+        private final int total;
+        private final int maxSize;
+        private final int waiting;
+        private final long borrowCount;
+        private final long borrowTimeouts;
+        private final long averageWaitMicros;
+        private final long maxWaitMicros;
+        private final long statementCacheHits;
+        private final long statementCacheMisses;
+        private final long statementCacheEvictions;
+
+        private PoolStats(int active, int idle, int total, int maxSize, int waiting, long borrowCount,
+                          long borrowTimeouts, long averageWaitMicros, long maxWaitMicros,
+                          long statementCacheHits, long statementCacheMisses, long statementCacheEvictions) {
+            this.active = active;
+            this.idle = idle;
+            this.total = total;
+            this.maxSize = maxSize;
+            this.waiting = waiting;
+            this.borrowCount = borrowCount;
+            this.borrowTimeouts = borrowTimeouts;
+            this.averageWaitMicros = averageWaitMicros;
+            this.maxWaitMicros = maxWaitMicros;
+            this.statementCacheHits = statementCacheHits;
+            this.statementCacheMisses = statementCacheMisses;
+            this.statementCacheEvictions = statementCacheEvictions;
+        }
+
+        public int getActive() {
+            return active;
+        }
+
+        public int getIdle() {
+            return idle;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public int getWaiting() {
+            return waiting;
+        }
+
+        public long getBorrowCount() {
+            return borrowCount;
+        }
+
+        public long getBorrowTimeouts() {
+            return borrowTimeouts;
+        }
+
+        public long getAverageWaitMicros() {
+            return averageWaitMicros;
+        }
+
+        public long getMaxWaitMicros() {
+            return maxWaitMicros;
+        }
+
+        public long getStatementCacheHits() {
+            return statementCacheHits;
+        }
+
+        public long getStatementCacheMisses() {
+            return statementCacheMisses;
+        }
+
+        public long getStatementCacheEvictions() {
+            return statementCacheEvictions;
+        }
+
+        @Override
+        public String toString() {
+            return "PoolStats{" +
+                    "active=" + active +
+                    ", idle=" + idle +
+                    ", total=" + total +
+                    ", maxSize=" + maxSize +
+                    ", waiting=" + waiting +
+                    ", borrowCount=" + borrowCount +
+                    ", borrowTimeouts=" + borrowTimeouts +
+                    ", averageWaitMicros=" + averageWaitMicros +
+                    ", maxWaitMicros=" + maxWaitMicros +
+                    ", statementCacheHits=" + statementCacheHits +
+                    ", statementCacheMisses=" + statementCacheMisses +
+                    ", statementCacheEvictions=" + statementCacheEvictions +
+                    '}';
+        }
+    }
+}
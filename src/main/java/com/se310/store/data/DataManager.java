@@ -1,15 +1,17 @@
 package com.se310.store.data;
 
 import com.se310.store.config.ConfigLoader;
-import com.se310.store.model.Store;
-import com.se310.store.model.User;
-import com.se310.store.model.UserRole;
+import com.se310.store.model.*;
 import com.se310.store.security.PasswordEncryption;
 
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 
 /**
  * DataManager - Singleton class for managing H2 database connections.
@@ -27,41 +29,82 @@ import java.util.Optional;
  */
 public class DataManager {
 
-    //TODO: Implement Singleton pattern with double-checked locking
-
     private static volatile DataManager instance;
-    private Connection connection;
+    // Creating the instance opens connections; a lock rather than synchronized keeps virtual threads unpinned
+    private static final ReentrantLock instanceLock = new ReentrantLock();
+    private ConnectionPool connectionPool;
+    // Only created when write-behind persistence is enabled
+    private WriteBehindQueue writeBehindQueue;
+    // Checked out orders, committed in shared transactions
+    private GroupCommitQueue<Order> orderCommitQueue;
 
     // H2 database configuration - loaded from application.properties
     private static final String DB_DRIVER = ConfigLoader.getDbDriver();
     private static final String DB_URL = ConfigLoader.getDbUrl();
     private static final String DB_USER = ConfigLoader.getDbUser();
     private static final String DB_PASSWORD = ConfigLoader.getDbPassword();
+    private static final int BATCH_SIZE = ConfigLoader.getDbBatchSize();
+    private static final int FETCH_SIZE = ConfigLoader.getDbFetchSize();
+
+    // Upsert statements shared by the single-row and batch variants
+    private static final String MERGE_PRODUCT_SQL = "MERGE INTO products (id, name, description, size, category, price, temperature) KEY (id) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String MERGE_CUSTOMER_SQL = "MERGE INTO customers (id, first_name, last_name, customer_type, email, account_address, store_id, aisle_number, last_seen) KEY (id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String MERGE_INVENTORY_SQL = "MERGE INTO inventory (id, store_id, aisle_number, shelf_id, capacity, count, product_id, inventory_type) KEY (id) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
 
     // Private constructor to prevent instantiation
     private DataManager() {
         initializeDatabase();
     }
 
-    //TODO: Thread-safe singleton implementation with double-checked locking
+    /**
+     * Thread-safe singleton implementation with double-checked locking.
+     * All callers share a single connection pool.
+     */
     public static DataManager getInstance() {
-        return new DataManager();
+        DataManager result = instance;
+        if (result == null) {
+            instanceLock.lock();
+            try {
+                result = instance;
+                if (result == null) {
+                    instance = result = new DataManager();
+                }
+            } finally {
+                instanceLock.unlock();
+            }
+        }
+        return result;
     }
 
     /**
-     * Initialize H2 database connection and create tables if they don't exist
+     * Initialize H2 connection pool and create tables if they don't exist
      */
     private void initializeDatabase() {
         try {
             // Load H2 driver
             Class.forName(DB_DRIVER);
 
-            // Establish connection
-            connection = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
+            // Create connection pool
+            connectionPool = new ConnectionPool(DB_URL, DB_USER, DB_PASSWORD,
+                    ConfigLoader.getDbPoolMinSize(), ConfigLoader.getDbPoolMaxSize(),
+                    ConfigLoader.getDbPoolBorrowTimeoutMs(), ConfigLoader.getDbPoolIdleTimeoutMs(),
+                    ConfigLoader.getDbPoolValidationIdleMs(), ConfigLoader.getDbStatementCacheSize());
 
             // Create tables
             createTables();
 
+            // Optional asynchronous persistence of entity upserts
+            if (ConfigLoader.isWriteBehindEnabled()) {
+                writeBehindQueue = new WriteBehindQueue(this::getConnection,
+                        ConfigLoader.getWriteBehindCapacity(), BATCH_SIZE,
+                        ConfigLoader.getWriteBehindFlushIntervalMs(), ConfigLoader.getDbPoolBorrowTimeoutMs());
+                System.out.println("DataManager: Write-behind persistence enabled");
+            }
+
+            orderCommitQueue = new GroupCommitQueue<>("order-group-commit", this::getConnection, this::writeOrders,
+                    ConfigLoader.getGroupCommitMaxBatch(), ConfigLoader.getGroupCommitMaxWaitMs(),
+                    ConfigLoader.getGroupCommitTimeoutMs());
+
             System.out.println("DataManager: H2 Database initialized successfully");
         } catch (ClassNotFoundException e) {
             throw new RuntimeException("H2 Driver not found", e);
@@ -71,87 +114,18 @@ public class DataManager {
     }
 
     /**
-     * Create database tables if they don't exist
+     * Create or upgrade the database schema by applying pending migrations
      */
     private void createTables() throws SQLException {
-        try (Statement stmt = connection.createStatement()) {
-            // Users table
-            stmt.execute("CREATE TABLE IF NOT EXISTS users (" +
-                "email VARCHAR(255) PRIMARY KEY," +
-                "password VARCHAR(255) NOT NULL," +
-                "name VARCHAR(255) NOT NULL," +
-                "role VARCHAR(50) DEFAULT 'USER'" +
-                ")");
-
-            // Stores table
-            stmt.execute("CREATE TABLE IF NOT EXISTS stores (" +
-                "id VARCHAR(255) PRIMARY KEY," +
-                "address VARCHAR(500)," +
-                "description VARCHAR(1000)" +
-                ")");
-
-            // Products table
-            stmt.execute("CREATE TABLE IF NOT EXISTS products (" +
-                "id VARCHAR(255) PRIMARY KEY," +
-                "name VARCHAR(255) NOT NULL," +
-                "description VARCHAR(1000)," +
-                "size VARCHAR(100)," +
-                "category VARCHAR(100)," +
-                "price DOUBLE," +
-                "temperature VARCHAR(50)" +
-                ")");
-
-            // Customers table
-            stmt.execute("CREATE TABLE IF NOT EXISTS customers (" +
-                "id VARCHAR(255) PRIMARY KEY," +
-                "first_name VARCHAR(255)," +
-                "last_name VARCHAR(255)," +
-                "customer_type VARCHAR(50)," +
-                "email VARCHAR(255)," +
-                "account_address VARCHAR(500)," +
-                "store_id VARCHAR(255)," +
-                "aisle_number VARCHAR(50)," +
-                "last_seen TIMESTAMP" +
-                ")");
-
-            // Baskets table
-            stmt.execute("CREATE TABLE IF NOT EXISTS baskets (" +
-                "id VARCHAR(255) PRIMARY KEY," +
-                "customer_id VARCHAR(255)," +
-                "store_id VARCHAR(255)" +
-                ")");
-
-            // Basket items table
-            stmt.execute("CREATE TABLE IF NOT EXISTS basket_items (" +
-                "basket_id VARCHAR(255)," +
-                "product_id VARCHAR(255)," +
-                "count INT," +
-                "PRIMARY KEY (basket_id, product_id)" +
-                ")");
-
-            // Inventory table
-            stmt.execute("CREATE TABLE IF NOT EXISTS inventory (" +
-                "id VARCHAR(255) PRIMARY KEY," +
-                "store_id VARCHAR(255)," +
-                "aisle_number VARCHAR(50)," +
-                "shelf_id VARCHAR(50)," +
-                "capacity INT," +
-                "count INT," +
-                "product_id VARCHAR(255)," +
-                "inventory_type VARCHAR(50)" +
-                ")");
-
-            // Devices table
-            stmt.execute("CREATE TABLE IF NOT EXISTS devices (" +
-                "id VARCHAR(255) PRIMARY KEY," +
-                "name VARCHAR(255)," +
-                "device_type VARCHAR(100)," +
-                "store_id VARCHAR(255)," +
-                "aisle_number VARCHAR(50)" +
-                ")");
+        try (Connection conn = getConnection()) {
+            SchemaMigrator migrator = new SchemaMigrator(SchemaMigrator.defaultMigrations(),
+                    ConfigLoader.getDbMigrationChunkSize());
+            int applied = migrator.migrate(conn);
+            System.out.println("DataManager: Schema at version " + migrator.currentVersion(conn)
+                    + " (" + applied + " migrations applied)");
 
             // Insert default users if not exists
-            insertDefaultUsers();
+            insertDefaultUsers(conn);
         }
     }
 
@@ -159,16 +133,16 @@ public class DataManager {
      * Insert default test users from application.properties.
      * Passwords are encrypted before storage for security.
      */
-    private void insertDefaultUsers() throws SQLException {
+    private void insertDefaultUsers(Connection conn) throws SQLException {
         String checkSql = "SELECT COUNT(*) FROM users WHERE email = ?";
         String insertSql = "INSERT INTO users (email, password, name, role) VALUES (?, ?, ?, ?)";
 
         // Check and insert admin user - credentials loaded from properties, password encrypted
-        try (PreparedStatement checkStmt = getConnection().prepareStatement(checkSql)) {
+        try (PreparedStatement checkStmt = conn.prepareStatement(checkSql)) {
             checkStmt.setString(1, ConfigLoader.getAdminEmail());
             ResultSet rs = checkStmt.executeQuery();
             if (rs.next() && rs.getInt(1) == 0) {
-                try (PreparedStatement insertStmt = getConnection().prepareStatement(insertSql)) {
+                try (PreparedStatement insertStmt = conn.prepareStatement(insertSql)) {
                     insertStmt.setString(1, ConfigLoader.getAdminEmail());
                     insertStmt.setString(2, PasswordEncryption.encrypt(ConfigLoader.getAdminPassword()));
                     insertStmt.setString(3, ConfigLoader.getAdminName());
@@ -179,11 +153,11 @@ public class DataManager {
         }
 
         // Check and insert regular user - credentials loaded from properties, password encrypted
-        try (PreparedStatement checkStmt = getConnection().prepareStatement(checkSql)) {
+        try (PreparedStatement checkStmt = conn.prepareStatement(checkSql)) {
             checkStmt.setString(1, ConfigLoader.getUserEmail());
             ResultSet rs = checkStmt.executeQuery();
             if (rs.next() && rs.getInt(1) == 0) {
-                try (PreparedStatement insertStmt = getConnection().prepareStatement(insertSql)) {
+                try (PreparedStatement insertStmt = conn.prepareStatement(insertSql)) {
                     insertStmt.setString(1, ConfigLoader.getUserEmail());
                     insertStmt.setString(2, PasswordEncryption.encrypt(ConfigLoader.getUserPassword()));
                     insertStmt.setString(3, ConfigLoader.getUserName());
@@ -195,56 +169,69 @@ public class DataManager {
     }
 
     /**
-     * Get database connection
+     * Borrow a database connection from the pool.
+     * Callers must close the returned connection to hand it back to the pool.
      */
     public Connection getConnection() {
         try {
-            // Check if connection is still valid and test it
-            if (connection == null || connection.isClosed() || !connection.isValid(1)) {
-                connection = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
-            }
-            return connection;
+            return connectionPool.borrow();
         } catch (SQLException e) {
-            // If we get an error, try to reconnect
-            try {
-                connection = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
-                return connection;
-            } catch (SQLException ex) {
-                throw new RuntimeException("Failed to get database connection", ex);
-            }
+            throw new RuntimeException("Failed to get database connection", e);
         }
     }
 
     /**
-     * Close database connection
+     * Get connection pool metrics (active, idle, wait time, statement cache hits/misses)
+     */
+    public ConnectionPool.PoolStats getPoolStats() {
+        return connectionPool.getStats();
+    }
+
+    /**
+     * Get write-behind queue metrics (pending writes, durability lag), or null when write-behind is disabled
+     */
+    public WriteBehindQueue.Stats getWriteBehindStats() {
+        return writeBehindQueue != null ? writeBehindQueue.getStats() : null;
+    }
+
+    /**
+     * Commit pending orders and write-behind writes and close the connection pool
      */
     public void close() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-                System.out.println("DataManager: Database connection closed");
-            }
-        } catch (SQLException e) {
-            System.err.println("Error closing database connection: " + e.getMessage());
+        if (orderCommitQueue != null) {
+            orderCommitQueue.close();
         }
+        if (writeBehindQueue != null) {
+            writeBehindQueue.close();
+        }
+        connectionPool.close();
+        System.out.println("DataManager: Database connection pool closed");
     }
 
     /**
-     * Execute a query and return ResultSet
+     * Execute a query and return ResultSet.
+     * Closing the returned ResultSet also closes its statement and returns the connection to the pool.
      */
     public ResultSet executeQuery(String sql, Object... params) throws SQLException {
-        PreparedStatement stmt = getConnection().prepareStatement(sql);
-        for (int i = 0; i < params.length; i++) {
-            stmt.setObject(i + 1, params[i]);
+        Connection conn = getConnection();
+        try {
+            PreparedStatement stmt = conn.prepareStatement(sql);
+            for (int i = 0; i < params.length; i++) {
+                stmt.setObject(i + 1, params[i]);
+            }
+            return closeWithResultSet(stmt.executeQuery(), stmt, conn);
+        } catch (SQLException | RuntimeException e) {
+            conn.close();
+            throw e;
         }
-        return stmt.executeQuery();
     }
 
     /**
      * Execute an update/insert/delete statement
      */
     public int executeUpdate(String sql, Object... params) throws SQLException {
-        try (PreparedStatement stmt = getConnection().prepareStatement(sql)) {
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             for (int i = 0; i < params.length; i++) {
                 stmt.setObject(i + 1, params[i]);
             }
@@ -252,25 +239,152 @@ public class DataManager {
         }
     }
 
+    /**
+     * Execute a keyed upsert. In write-behind mode the write is queued and coalesced with
+     * other pending writes for the same key, otherwise it is executed immediately.
+     */
+    private void executeWrite(String key, String sql, Object... params) throws SQLException {
+        if (writeBehindQueue != null) {
+            writeBehindQueue.submit(key, sql, params);
+        } else {
+            executeUpdate(sql, params);
+        }
+    }
+
+    /**
+     * Execute a keyed delete immediately, after any queued write for the same key has reached the database
+     */
+    private boolean executeDelete(String key, String sql, Object... params) throws SQLException {
+        if (writeBehindQueue != null) {
+            writeBehindQueue.awaitWritten(key);
+        }
+        return executeUpdate(sql, params) > 0;
+    }
+
+    /**
+     * Execute the same statement for every item using JDBC batching.
+     * Rows are sent in chunks of db.batch.size, each chunk committed in its own transaction.
+     */
+    private <T> void executeBatch(String sql, List<T> items, BatchBinder<T> binder) throws SQLException {
+        if (items.isEmpty()) {
+            return;
+        }
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                int pending = 0;
+                for (T item : items) {
+                    binder.bind(stmt, item);
+                    stmt.addBatch();
+                    if (++pending == BATCH_SIZE) {
+                        stmt.executeBatch();
+                        conn.commit();
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    stmt.executeBatch();
+                    conn.commit();
+                }
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Binds the parameters of a single batch row
+     */
+    @FunctionalInterface
+    private interface BatchBinder<T> {
+        void bind(PreparedStatement stmt, T item) throws SQLException;
+    }
+
+    /**
+     * Stream all rows of a query on its own pooled connection using the configured fetch size,
+     * so large tables are never materialized in memory
+     * @return number of rows read
+     */
+    private int streamQuery(String sql, RowHandler handler) throws SQLException {
+        //Three-argument prepareStatement bypasses the statement cache so the fetch size does not leak
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                     ResultSet.CONCUR_READ_ONLY)) {
+            stmt.setFetchSize(FETCH_SIZE);
+            int rows = 0;
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    handler.handle(rs);
+                    rows++;
+                }
+            }
+            return rows;
+        }
+    }
+
+    /**
+     * Handles a single row of a streamed query
+     */
+    @FunctionalInterface
+    private interface RowHandler {
+        void handle(ResultSet rs) throws SQLException;
+    }
+
     /**
      * Clear all data from all tables (for testing)
      */
     public void clearAllTables() throws SQLException {
-        try (Statement stmt = getConnection().createStatement()) {
+        try (Connection conn = getConnection();
+             Statement stmt = conn.createStatement()) {
             // Delete in order to respect foreign key constraints
+            stmt.execute("DELETE FROM order_lines");
+            stmt.execute("DELETE FROM orders");
             stmt.execute("DELETE FROM basket_items");
             stmt.execute("DELETE FROM baskets");
             stmt.execute("DELETE FROM devices");
             stmt.execute("DELETE FROM inventory");
+            stmt.execute("DELETE FROM shelves");
+            stmt.execute("DELETE FROM aisles");
             stmt.execute("DELETE FROM customers");
             stmt.execute("DELETE FROM products");
             stmt.execute("DELETE FROM stores");
             stmt.execute("DELETE FROM users");
             // Re-insert default users
-            insertDefaultUsers();
+            insertDefaultUsers(conn);
         }
     }
 
+    /**
+     * Wrap a ResultSet so that closing it also closes the statement and connection it came from
+     */
+    private ResultSet closeWithResultSet(ResultSet rs, AutoCloseable... resources) {
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+                new Class<?>[]{ResultSet.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("close")) {
+                        try {
+                            rs.close();
+                        } finally {
+                            for (AutoCloseable resource : resources) {
+                                try {
+                                    resource.close();
+                                } catch (Exception e) {
+                                    System.err.println("Error closing resource: " + e.getMessage());
+                                }
+                            }
+                        }
+                        return null;
+                    }
+                    try {
+                        return method.invoke(rs, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
     // ==================== USER OPERATIONS ====================
 
     /**
@@ -285,15 +399,9 @@ public class DataManager {
      * Save or update a user
      */
     public void saveUser(String email, String password, String name, String role) throws SQLException {
-        // Try update first
-        String updateSql = "UPDATE users SET password = ?, name = ?, role = ? WHERE email = ?";
-        int rowsAffected = executeUpdate(updateSql, password, name, role, email);
-
-        // If no rows updated, insert new user
-        if (rowsAffected == 0) {
-            String insertSql = "INSERT INTO users (email, password, name, role) VALUES (?, ?, ?, ?)";
-            executeUpdate(insertSql, email, password, name, role);
-        }
+        // Single round trip upsert keyed by email
+        String sql = "MERGE INTO users (email, password, name, role) KEY (email) VALUES (?, ?, ?, ?)";
+        executeUpdate(sql, email, password, name, role);
     }
 
     /**
@@ -322,8 +430,7 @@ public class DataManager {
      */
     public ResultSet findAllUsers() throws SQLException {
         String sql = "SELECT email, password, name, role FROM users";
-        PreparedStatement stmt = getConnection().prepareStatement(sql);
-        return stmt.executeQuery();
+        return executeQuery(sql);
     }
 
     // ==================== USER OPERATIONS (DOMAIN OBJECT BASED) ====================
@@ -334,7 +441,8 @@ public class DataManager {
      */
     public Optional<User> getUserByEmail(String email) {
         String sql = "SELECT email, password, name, role FROM users WHERE email = ?";
-        try (PreparedStatement stmt = getConnection().prepareStatement(sql)) {
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, email);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
@@ -353,7 +461,8 @@ public class DataManager {
     public List<User> getAllUsers() {
         List<User> users = new ArrayList<>();
         String sql = "SELECT email, password, name, role FROM users";
-        try (PreparedStatement stmt = getConnection().prepareStatement(sql);
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
             while (rs.next()) {
                 users.add(mapResultSetToUser(rs));
@@ -427,15 +536,9 @@ public class DataManager {
      * Save or update a store
      */
     public void saveStore(String id, String address, String description) throws SQLException {
-        // Try update first
-        String updateSql = "UPDATE stores SET address = ?, description = ? WHERE id = ?";
-        int rowsAffected = executeUpdate(updateSql, address, description, id);
-
-        // If no rows updated, insert new store
-        if (rowsAffected == 0) {
-            String insertSql = "INSERT INTO stores (id, address, description) VALUES (?, ?, ?)";
-            executeUpdate(insertSql, id, address, description);
-        }
+        // Single round trip upsert keyed by id
+        String sql = "MERGE INTO stores (id, address, description) KEY (id) VALUES (?, ?, ?)";
+        executeWrite("stores:" + id, sql, id, address, description);
     }
 
     /**
@@ -455,8 +558,37 @@ public class DataManager {
      * Delete store by ID
      */
     public boolean deleteStore(String storeId) throws SQLException {
-        String sql = "DELETE FROM stores WHERE id = ?";
-        return executeUpdate(sql, storeId) > 0;
+        // Queued saves of the store or its layout must land first, or they would re-insert deleted rows
+        if (writeBehindQueue != null) {
+            writeBehindQueue.awaitWritten("stores:" + storeId);
+            writeBehindQueue.awaitWrittenWithPrefix("aisles:" + storeId + ":");
+            writeBehindQueue.awaitWrittenWithPrefix("shelves:" + storeId + ":");
+        }
+        // Remove the layout of the store together with the store in one transaction
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                for (String sql : new String[] {"DELETE FROM shelves WHERE store_id = ?",
+                        "DELETE FROM aisles WHERE store_id = ?"}) {
+                    try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                        stmt.setString(1, storeId);
+                        stmt.executeUpdate();
+                    }
+                }
+                boolean deleted;
+                try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM stores WHERE id = ?")) {
+                    stmt.setString(1, storeId);
+                    deleted = stmt.executeUpdate() > 0;
+                }
+                conn.commit();
+                return deleted;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
     }
 
     /**
@@ -464,8 +596,7 @@ public class DataManager {
      */
     public ResultSet findAllStores() throws SQLException {
         String sql = "SELECT id, address, description FROM stores";
-        PreparedStatement stmt = getConnection().prepareStatement(sql);
-        return stmt.executeQuery();
+        return executeQuery(sql);
     }
 
     // ==================== STORE OPERATIONS (DOMAIN OBJECT BASED) ====================
@@ -476,7 +607,8 @@ public class DataManager {
      */
     public Optional<Store> getStoreById(String storeId) {
         String sql = "SELECT id, address, description FROM stores WHERE id = ?";
-        try (PreparedStatement stmt = getConnection().prepareStatement(sql)) {
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, storeId);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
@@ -495,7 +627,8 @@ public class DataManager {
     public List<Store> getAllStores() {
         List<Store> stores = new ArrayList<>();
         String sql = "SELECT id, address, description FROM stores";
-        try (PreparedStatement stmt = getConnection().prepareStatement(sql);
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
             while (rs.next()) {
                 stores.add(mapResultSetToStore(rs));
@@ -506,6 +639,15 @@ public class DataManager {
         return stores;
     }
 
+    /**
+     * Stream all stores as domain objects without materializing the whole table
+     * @return number of stores read
+     */
+    public int streamStores(Consumer<Store> consumer) throws SQLException {
+        String sql = "SELECT id, address, description FROM stores";
+        return streamQuery(sql, rs -> consumer.accept(mapResultSetToStore(rs)));
+    }
+
     /**
      * Save store - Accepts domain object
      */
@@ -554,6 +696,88 @@ public class DataManager {
         );
     }
 
+    // ==================== AISLE AND SHELF OPERATIONS ====================
+
+    public void saveAisle(String storeId, String aisleNumber, String name, String description,
+                          String aisleLocation) throws SQLException {
+        String sql = "MERGE INTO aisles (store_id, aisle_number, name, description, aisle_location) KEY (store_id, aisle_number) VALUES (?, ?, ?, ?, ?)";
+        executeWrite("aisles:" + storeId + ":" + aisleNumber, sql, storeId, aisleNumber, name, description, aisleLocation);
+    }
+
+    public void saveShelf(String storeId, String aisleNumber, String shelfId, String name, String shelfLevel,
+                          String description, String temperature) throws SQLException {
+        String sql = "MERGE INTO shelves (store_id, aisle_number, shelf_id, name, shelf_level, description, temperature) KEY (store_id, aisle_number, shelf_id) VALUES (?, ?, ?, ?, ?, ?, ?)";
+        executeWrite("shelves:" + storeId + ":" + aisleNumber + ":" + shelfId, sql,
+                storeId, aisleNumber, shelfId, name, shelfLevel, description, temperature);
+    }
+
+    public ResultSet findAislesByStoreId(String storeId) throws SQLException {
+        String sql = "SELECT store_id, aisle_number, name, description, aisle_location FROM aisles WHERE store_id = ?";
+        return executeQuery(sql, storeId);
+    }
+
+    public ResultSet findShelvesByAisle(String storeId, String aisleNumber) throws SQLException {
+        String sql = "SELECT store_id, aisle_number, shelf_id, name, shelf_level, description, temperature FROM shelves WHERE store_id = ? AND aisle_number = ?";
+        return executeQuery(sql, storeId, aisleNumber);
+    }
+
+    /**
+     * Stream the whole store layout in one ordered read. Each Aisle is handed over once, with all of
+     * its Shelves already attached, so the caller only has to link it to its Store
+     * @return number of aisles read
+     */
+    public int streamAisles(AisleRowHandler handler) throws SQLException {
+        String sql = "SELECT a.store_id, a.aisle_number, a.name, a.description, a.aisle_location, " +
+                "s.shelf_id, s.name AS shelf_name, s.shelf_level, s.description AS shelf_description, s.temperature " +
+                "FROM aisles a LEFT JOIN shelves s ON s.store_id = a.store_id AND s.aisle_number = a.aisle_number " +
+                "ORDER BY a.store_id, a.aisle_number";
+
+        // Aisle being assembled and the Store it belongs to
+        Aisle[] current = new Aisle[1];
+        String[] currentStoreId = new String[1];
+        int[] aisles = new int[1];
+
+        streamQuery(sql, rs -> {
+            String storeId = rs.getString("store_id");
+            String aisleNumber = rs.getString("aisle_number");
+            if (current[0] == null || !storeId.equals(currentStoreId[0])
+                    || !aisleNumber.equals(current[0].getNumber())) {
+                if (current[0] != null) {
+                    handler.accept(currentStoreId[0], current[0]);
+                }
+                String location = rs.getString("aisle_location");
+                current[0] = new Aisle(aisleNumber, rs.getString("name"), rs.getString("description"),
+                        location != null ? AisleLocation.valueOf(location) : null);
+                currentStoreId[0] = storeId;
+                aisles[0]++;
+            }
+            String shelfId = rs.getString("shelf_id");
+            if (shelfId != null) {
+                String level = rs.getString("shelf_level");
+                String temperature = rs.getString("temperature");
+                try {
+                    current[0].addShelf(new Shelf(shelfId, rs.getString("shelf_name"),
+                            level != null ? ShelfLevel.valueOf(level) : null, rs.getString("shelf_description"),
+                            temperature != null ? Temperature.valueOf(temperature) : null));
+                } catch (StoreException e) {
+                    System.err.println("Skipping shelf " + shelfId + ": " + e.getReason());
+                }
+            }
+        });
+        if (current[0] != null) {
+            handler.accept(currentStoreId[0], current[0]);
+        }
+        return aisles[0];
+    }
+
+    /**
+     * Receives a streamed Aisle, with its Shelves, together with the id of the Store it belongs to
+     */
+    @FunctionalInterface
+    public interface AisleRowHandler {
+        void accept(String storeId, Aisle aisle);
+    }
+
     // ==================== PRODUCT OPERATIONS ====================
 
     public ResultSet findProductById(String productId) throws SQLException {
@@ -562,12 +786,60 @@ public class DataManager {
     }
 
     public void saveProduct(String id, String name, String description, String size, String category, double price, String temperature) throws SQLException {
-        String updateSql = "UPDATE products SET name = ?, description = ?, size = ?, category = ?, price = ?, temperature = ? WHERE id = ?";
-        int rowsAffected = executeUpdate(updateSql, name, description, size, category, price, temperature, id);
-        if (rowsAffected == 0) {
-            String insertSql = "INSERT INTO products (id, name, description, size, category, price, temperature) VALUES (?, ?, ?, ?, ?, ?, ?)";
-            executeUpdate(insertSql, id, name, description, size, category, price, temperature);
+        executeWrite("products:" + id, MERGE_PRODUCT_SQL, id, name, description, size, category, price, temperature);
+    }
+
+    /**
+     * Save or update products using JDBC batching.
+     * In write-behind mode the rows are queued instead, so they coalesce with pending writes of the same products
+     */
+    public void saveProductsBatch(List<Product> products) throws SQLException {
+        if (writeBehindQueue != null) {
+            for (Product product : products) {
+                executeWrite("products:" + product.getId(), MERGE_PRODUCT_SQL, productParams(product));
+            }
+            return;
         }
+        executeBatch(MERGE_PRODUCT_SQL, products, (stmt, product) -> {
+            Object[] params = productParams(product);
+            for (int i = 0; i < params.length; i++) {
+                stmt.setObject(i + 1, params[i]);
+            }
+        });
+    }
+
+    private Object[] productParams(Product product) {
+        return new Object[] {
+            product.getId(),
+            product.getName(),
+            product.getDescription(),
+            product.getSize(),
+            product.getCategory(),
+            product.getPrice(),
+            product.getTemperature() != null ? product.getTemperature().name() : null
+        };
+    }
+
+    /**
+     * Stream all products as domain objects
+     * @return number of products read
+     */
+    public int streamProducts(Consumer<Product> consumer) throws SQLException {
+        String sql = "SELECT id, name, description, size, category, price, temperature FROM products";
+        return streamQuery(sql, rs -> consumer.accept(mapResultSetToProduct(rs)));
+    }
+
+    private Product mapResultSetToProduct(ResultSet rs) throws SQLException {
+        String temperature = rs.getString("temperature");
+        return new Product(
+            rs.getString("id"),
+            rs.getString("name"),
+            rs.getString("description"),
+            rs.getString("size"),
+            rs.getString("category"),
+            rs.getObject("price") != null ? rs.getDouble("price") : null,
+            temperature != null ? Temperature.valueOf(temperature) : null
+        );
     }
 
     public boolean productExists(String productId) throws SQLException {
@@ -579,13 +851,12 @@ public class DataManager {
 
     public boolean deleteProduct(String productId) throws SQLException {
         String sql = "DELETE FROM products WHERE id = ?";
-        return executeUpdate(sql, productId) > 0;
+        return executeDelete("products:" + productId, sql, productId);
     }
 
     public ResultSet findAllProducts() throws SQLException {
         String sql = "SELECT id, name, description, size, category, price, temperature FROM products";
-        PreparedStatement stmt = getConnection().prepareStatement(sql);
-        return stmt.executeQuery();
+        return executeQuery(sql);
     }
 
     // ==================== CUSTOMER OPERATIONS ====================
@@ -596,12 +867,73 @@ public class DataManager {
     }
 
     public void saveCustomer(String id, String firstName, String lastName, String customerType, String email, String address, String storeId, String aisleNumber, Timestamp lastSeen) throws SQLException {
-        String updateSql = "UPDATE customers SET first_name = ?, last_name = ?, customer_type = ?, email = ?, account_address = ?, store_id = ?, aisle_number = ?, last_seen = ? WHERE id = ?";
-        int rowsAffected = executeUpdate(updateSql, firstName, lastName, customerType, email, address, storeId, aisleNumber, lastSeen, id);
-        if (rowsAffected == 0) {
-            String insertSql = "INSERT INTO customers (id, first_name, last_name, customer_type, email, account_address, store_id, aisle_number, last_seen) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
-            executeUpdate(insertSql, id, firstName, lastName, customerType, email, address, storeId, aisleNumber, lastSeen);
+        executeWrite("customers:" + id, MERGE_CUSTOMER_SQL, id, firstName, lastName, customerType, email, address, storeId, aisleNumber, lastSeen);
+    }
+
+    /**
+     * Save or update customers together with their current location using JDBC batching.
+     * In write-behind mode the rows are queued instead, so they coalesce with pending writes of the same customers
+     */
+    public void saveCustomersBatch(List<Customer> customers) throws SQLException {
+        if (writeBehindQueue != null) {
+            for (Customer customer : customers) {
+                Object[] params = customerParams(customer);
+                executeWrite("customers:" + customer.getId(), MERGE_CUSTOMER_SQL, params);
+            }
+            return;
         }
+        executeBatch(MERGE_CUSTOMER_SQL, customers, (stmt, customer) -> {
+            Object[] params = customerParams(customer);
+            for (int i = 0; i < params.length; i++) {
+                stmt.setObject(i + 1, params[i]);
+            }
+        });
+    }
+
+    private Object[] customerParams(Customer customer) {
+        StoreLocation location = customer.getStoreLocation();
+        java.util.Date lastSeen = customer.getLastSeen();
+        return new Object[] {
+            customer.getId(),
+            customer.getFirstName(),
+            customer.getLastName(),
+            customer.getType() != null ? customer.getType().name() : null,
+            customer.getEmail(),
+            customer.getAccountAddress(),
+            location != null ? location.getStoreId() : null,
+            location != null ? location.getAisleId() : null,
+            lastSeen != null ? new Timestamp(lastSeen.getTime()) : null
+        };
+    }
+
+    /**
+     * Stream all customers as domain objects, including their last known location
+     * @return number of customers read
+     */
+    public int streamCustomers(Consumer<Customer> consumer) throws SQLException {
+        String sql = "SELECT id, first_name, last_name, customer_type, email, account_address, store_id, aisle_number, last_seen FROM customers";
+        return streamQuery(sql, rs -> consumer.accept(mapResultSetToCustomer(rs)));
+    }
+
+    private Customer mapResultSetToCustomer(ResultSet rs) throws SQLException {
+        String type = rs.getString("customer_type");
+        Customer customer = new Customer(
+            rs.getString("id"),
+            rs.getString("first_name"),
+            rs.getString("last_name"),
+            type != null ? CustomerType.valueOf(type) : null,
+            rs.getString("email"),
+            rs.getString("account_address")
+        );
+        String storeId = rs.getString("store_id");
+        if (storeId != null) {
+            customer.setStoreLocation(new StoreLocation(storeId, rs.getString("aisle_number")));
+        }
+        Timestamp lastSeen = rs.getTimestamp("last_seen");
+        if (lastSeen != null) {
+            customer.setLastSeen(new java.util.Date(lastSeen.getTime()));
+        }
+        return customer;
     }
 
     public boolean customerExists(String customerId) throws SQLException {
@@ -613,13 +945,12 @@ public class DataManager {
 
     public boolean deleteCustomer(String customerId) throws SQLException {
         String sql = "DELETE FROM customers WHERE id = ?";
-        return executeUpdate(sql, customerId) > 0;
+        return executeDelete("customers:" + customerId, sql, customerId);
     }
 
     public ResultSet findAllCustomers() throws SQLException {
         String sql = "SELECT id, first_name, last_name, customer_type, email, account_address, store_id, aisle_number, last_seen FROM customers";
-        PreparedStatement stmt = getConnection().prepareStatement(sql);
-        return stmt.executeQuery();
+        return executeQuery(sql);
     }
 
     public ResultSet findCustomersByStoreId(String storeId) throws SQLException {
@@ -635,12 +966,26 @@ public class DataManager {
     }
 
     public void saveBasket(String id, String customerId, String storeId) throws SQLException {
-        String updateSql = "UPDATE baskets SET customer_id = ?, store_id = ? WHERE id = ?";
-        int rowsAffected = executeUpdate(updateSql, customerId, storeId, id);
-        if (rowsAffected == 0) {
-            String insertSql = "INSERT INTO baskets (id, customer_id, store_id) VALUES (?, ?, ?)";
-            executeUpdate(insertSql, id, customerId, storeId);
-        }
+        String sql = "MERGE INTO baskets (id, customer_id, store_id) KEY (id) VALUES (?, ?, ?)";
+        executeWrite("baskets:" + id, sql, id, customerId, storeId);
+    }
+
+    /**
+     * Stream all baskets together with the ids of the customer and store they are assigned to
+     * @return number of baskets read
+     */
+    public int streamBaskets(BasketRowHandler handler) throws SQLException {
+        String sql = "SELECT id, customer_id, store_id FROM baskets";
+        return streamQuery(sql, rs -> handler.accept(new Basket(rs.getString("id")),
+                rs.getString("customer_id"), rs.getString("store_id")));
+    }
+
+    /**
+     * Receives a streamed basket row; customer and store associations are resolved by the caller
+     */
+    @FunctionalInterface
+    public interface BasketRowHandler {
+        void accept(Basket basket, String customerId, String storeId);
     }
 
     public boolean basketExists(String basketId) throws SQLException {
@@ -655,19 +1000,28 @@ public class DataManager {
         executeUpdate("DELETE FROM basket_items WHERE basket_id = ?", basketId);
         // Then delete basket
         String sql = "DELETE FROM baskets WHERE id = ?";
-        return executeUpdate(sql, basketId) > 0;
+        return executeDelete("baskets:" + basketId, sql, basketId);
     }
 
     public ResultSet findAllBaskets() throws SQLException {
         String sql = "SELECT id, customer_id, store_id FROM baskets";
-        PreparedStatement stmt = getConnection().prepareStatement(sql);
-        return stmt.executeQuery();
+        return executeQuery(sql);
+    }
+
+    public ResultSet findBasketsByCustomerId(String customerId) throws SQLException {
+        String sql = "SELECT id, customer_id, store_id FROM baskets WHERE customer_id = ?";
+        return executeQuery(sql, customerId);
     }
 
     public void addBasketItem(String basketId, String productId, int count) throws SQLException {
-        String sql = "INSERT INTO basket_items (basket_id, product_id, count) VALUES (?, ?, ?) " +
-                    "ON DUPLICATE KEY UPDATE count = count + ?";
-        executeUpdate(sql, basketId, productId, count, count);
+        // Standard MERGE so existing items are incremented in the same round trip
+        String sql = "MERGE INTO basket_items t " +
+                    "USING (VALUES (CAST(? AS VARCHAR(255)), CAST(? AS VARCHAR(255)), CAST(? AS INT))) " +
+                    "s (basket_id, product_id, count) " +
+                    "ON t.basket_id = s.basket_id AND t.product_id = s.product_id " +
+                    "WHEN MATCHED THEN UPDATE SET count = t.count + s.count " +
+                    "WHEN NOT MATCHED THEN INSERT (basket_id, product_id, count) VALUES (s.basket_id, s.product_id, s.count)";
+        executeUpdate(sql, basketId, productId, count);
     }
 
     public void updateBasketItemCount(String basketId, String productId, int count) throws SQLException {
@@ -690,6 +1044,76 @@ public class DataManager {
         executeUpdate(sql, basketId);
     }
 
+    // ==================== ORDER OPERATIONS ====================
+
+    /**
+     * Write an order, its lines and the counts of the Inventory it consumed, and wait until they are
+     * committed. Concurrent orders share transactions through group commit
+     */
+    public void saveOrder(Order order) throws SQLException {
+        //An older queued count must not land after the order and overwrite the consumed count
+        if (writeBehindQueue != null) {
+            for (Inventory inventory : order.getInventory()) {
+                writeBehindQueue.awaitWritten("inventory:" + inventory.getId());
+            }
+        }
+        orderCommitQueue.commit(order);
+    }
+
+    /**
+     * Write a group of orders with one JDBC batch for the orders, one for all of their lines and one for
+     * the counts of the Inventory they consumed
+     */
+    private void writeOrders(Connection conn, List<Order> orders) throws SQLException {
+        String orderSql = "INSERT INTO orders (id, basket_id, customer_id, store_id, created_at, total) VALUES (?, ?, ?, ?, ?, ?)";
+        String lineSql = "INSERT INTO order_lines (order_id, product_id, quantity, unit_price) VALUES (?, ?, ?, ?)";
+        String inventorySql = "UPDATE inventory SET count = ? WHERE id = ?";
+        try (PreparedStatement orderStmt = conn.prepareStatement(orderSql);
+             PreparedStatement lineStmt = conn.prepareStatement(lineSql);
+             PreparedStatement inventoryStmt = conn.prepareStatement(inventorySql)) {
+            for (Order order : orders) {
+                orderStmt.setString(1, order.getId());
+                orderStmt.setString(2, order.getBasketId());
+                orderStmt.setString(3, order.getCustomerId());
+                orderStmt.setString(4, order.getStoreId());
+                orderStmt.setTimestamp(5, new Timestamp(order.getCreatedAt().getTime()));
+                orderStmt.setBigDecimal(6, order.getTotal());
+                orderStmt.addBatch();
+                for (OrderLine line : order.getLines()) {
+                    lineStmt.setString(1, order.getId());
+                    lineStmt.setString(2, line.getProductId());
+                    lineStmt.setInt(3, line.getQuantity());
+                    lineStmt.setBigDecimal(4, line.getUnitPrice());
+                    lineStmt.addBatch();
+                }
+                //Current count, so that it also reflects any other change made since the units were reserved
+                for (Inventory inventory : order.getInventory()) {
+                    inventoryStmt.setInt(1, inventory.getCount());
+                    inventoryStmt.setString(2, inventory.getId());
+                    inventoryStmt.addBatch();
+                }
+            }
+            orderStmt.executeBatch();
+            lineStmt.executeBatch();
+            inventoryStmt.executeBatch();
+        }
+    }
+
+    public ResultSet findOrderById(String orderId) throws SQLException {
+        String sql = "SELECT id, basket_id, customer_id, store_id, created_at, total FROM orders WHERE id = ?";
+        return executeQuery(sql, orderId);
+    }
+
+    public ResultSet findOrdersByCustomerId(String customerId) throws SQLException {
+        String sql = "SELECT id, basket_id, customer_id, store_id, created_at, total FROM orders WHERE customer_id = ?";
+        return executeQuery(sql, customerId);
+    }
+
+    public ResultSet findOrderLines(String orderId) throws SQLException {
+        String sql = "SELECT order_id, product_id, quantity, unit_price FROM order_lines WHERE order_id = ?";
+        return executeQuery(sql, orderId);
+    }
+
     // ==================== INVENTORY OPERATIONS ====================
 
     public ResultSet findInventoryById(String inventoryId) throws SQLException {
@@ -698,12 +1122,70 @@ public class DataManager {
     }
 
     public void saveInventory(String id, String storeId, String aisleNumber, String shelfId, int capacity, int count, String productId, String inventoryType) throws SQLException {
-        String updateSql = "UPDATE inventory SET store_id = ?, aisle_number = ?, shelf_id = ?, capacity = ?, count = ?, product_id = ?, inventory_type = ? WHERE id = ?";
-        int rowsAffected = executeUpdate(updateSql, storeId, aisleNumber, shelfId, capacity, count, productId, inventoryType, id);
-        if (rowsAffected == 0) {
-            String insertSql = "INSERT INTO inventory (id, store_id, aisle_number, shelf_id, capacity, count, product_id, inventory_type) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
-            executeUpdate(insertSql, id, storeId, aisleNumber, shelfId, capacity, count, productId, inventoryType);
+        executeWrite("inventory:" + id, MERGE_INVENTORY_SQL, id, storeId, aisleNumber, shelfId, capacity, count, productId, inventoryType);
+    }
+
+    /**
+     * Save or update inventory using JDBC batching.
+     * In write-behind mode the rows are queued instead, so they coalesce with pending writes of the same inventory
+     */
+    public void saveInventoryBatch(List<Inventory> inventoryList) throws SQLException {
+        if (writeBehindQueue != null) {
+            for (Inventory inventory : inventoryList) {
+                executeWrite("inventory:" + inventory.getId(), MERGE_INVENTORY_SQL, inventoryParams(inventory));
+            }
+            return;
         }
+        executeBatch(MERGE_INVENTORY_SQL, inventoryList, (stmt, inventory) -> {
+            Object[] params = inventoryParams(inventory);
+            for (int i = 0; i < params.length; i++) {
+                stmt.setObject(i + 1, params[i]);
+            }
+        });
+    }
+
+    private Object[] inventoryParams(Inventory inventory) {
+        return new Object[] {
+            inventory.getId(),
+            inventory.getInventoryLocation().getStoreId(),
+            inventory.getInventoryLocation().getAisleId(),
+            inventory.getInventoryLocation().getShelfId(),
+            inventory.getCapacity(),
+            inventory.getCount(),
+            inventory.getProductId(),
+            inventory.getType() != null ? inventory.getType().name() : null
+        };
+    }
+
+    /**
+     * Stream all inventory records as domain objects
+     * @return number of inventory records read
+     */
+    public int streamInventory(Consumer<Inventory> consumer) throws SQLException {
+        String sql = "SELECT id, store_id, aisle_number, shelf_id, capacity, count, product_id, inventory_type FROM inventory";
+        return streamQuery(sql, rs -> consumer.accept(mapResultSetToInventory(rs)));
+    }
+
+    private Inventory mapResultSetToInventory(ResultSet rs) throws SQLException {
+        String type = rs.getString("inventory_type");
+        return new Inventory(
+            rs.getString("id"),
+            new InventoryLocation(rs.getString("store_id"), rs.getString("aisle_number"), rs.getString("shelf_id")),
+            rs.getInt("capacity"),
+            rs.getInt("count"),
+            rs.getString("product_id"),
+            type != null ? InventoryType.valueOf(type) : null
+        );
+    }
+
+    public ResultSet findInventoryByStoreId(String storeId) throws SQLException {
+        String sql = "SELECT id, store_id, aisle_number, shelf_id, capacity, count, product_id, inventory_type FROM inventory WHERE store_id = ?";
+        return executeQuery(sql, storeId);
+    }
+
+    public ResultSet findInventoryByProductId(String productId) throws SQLException {
+        String sql = "SELECT id, store_id, aisle_number, shelf_id, capacity, count, product_id, inventory_type FROM inventory WHERE product_id = ?";
+        return executeQuery(sql, productId);
     }
 
     public boolean inventoryExists(String inventoryId) throws SQLException {
@@ -715,13 +1197,12 @@ public class DataManager {
 
     public boolean deleteInventory(String inventoryId) throws SQLException {
         String sql = "DELETE FROM inventory WHERE id = ?";
-        return executeUpdate(sql, inventoryId) > 0;
+        return executeDelete("inventory:" + inventoryId, sql, inventoryId);
     }
 
     public ResultSet findAllInventory() throws SQLException {
         String sql = "SELECT id, store_id, aisle_number, shelf_id, capacity, count, product_id, inventory_type FROM inventory";
-        PreparedStatement stmt = getConnection().prepareStatement(sql);
-        return stmt.executeQuery();
+        return executeQuery(sql);
     }
 
     // ==================== DEVICE OPERATIONS ====================
@@ -732,12 +1213,28 @@ public class DataManager {
     }
 
     public void saveDevice(String id, String name, String deviceType, String storeId, String aisleNumber) throws SQLException {
-        String updateSql = "UPDATE devices SET name = ?, device_type = ?, store_id = ?, aisle_number = ? WHERE id = ?";
-        int rowsAffected = executeUpdate(updateSql, name, deviceType, storeId, aisleNumber, id);
-        if (rowsAffected == 0) {
-            String insertSql = "INSERT INTO devices (id, name, device_type, store_id, aisle_number) VALUES (?, ?, ?, ?, ?)";
-            executeUpdate(insertSql, id, name, deviceType, storeId, aisleNumber);
+        String sql = "MERGE INTO devices (id, name, device_type, store_id, aisle_number) KEY (id) VALUES (?, ?, ?, ?, ?)";
+        executeWrite("devices:" + id, sql, id, name, deviceType, storeId, aisleNumber);
+    }
+
+    /**
+     * Stream all devices as domain objects (Sensor or Appliance depending on the device type)
+     * @return number of devices read
+     */
+    public int streamDevices(Consumer<Device> consumer) throws SQLException {
+        String sql = "SELECT id, name, device_type, store_id, aisle_number FROM devices";
+        return streamQuery(sql, rs -> consumer.accept(mapResultSetToDevice(rs)));
+    }
+
+    private Device mapResultSetToDevice(ResultSet rs) throws SQLException {
+        String deviceType = rs.getString("device_type");
+        StoreLocation location = new StoreLocation(rs.getString("store_id"), rs.getString("aisle_number"));
+        for (ApplianceType appliance : ApplianceType.values()) {
+            if (appliance.name().equals(deviceType)) {
+                return new Appliance(rs.getString("id"), rs.getString("name"), location, deviceType);
+            }
         }
+        return new Sensor(rs.getString("id"), rs.getString("name"), location, deviceType);
     }
 
     public boolean deviceExists(String deviceId) throws SQLException {
@@ -749,12 +1246,11 @@ public class DataManager {
 
     public boolean deleteDevice(String deviceId) throws SQLException {
         String sql = "DELETE FROM devices WHERE id = ?";
-        return executeUpdate(sql, deviceId) > 0;
+        return executeDelete("devices:" + deviceId, sql, deviceId);
     }
 
     public ResultSet findAllDevices() throws SQLException {
         String sql = "SELECT id, name, device_type, store_id, aisle_number FROM devices";
-        PreparedStatement stmt = getConnection().prepareStatement(sql);
-        return stmt.executeQuery();
+        return executeQuery(sql);
     }
 }
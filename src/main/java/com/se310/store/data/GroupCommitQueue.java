@@ -0,0 +1,307 @@
+package com.se310.store.data;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * GroupCommitQueue - Durable writes that share database transactions.
+ *
+ * Callers block in commit() until their item has been committed. A background committer takes
+ * everything submitted since the previous commit, writes it with one BatchWriter call and a single
+ * COMMIT, and then wakes all callers of that group. Under load many callers share one commit;
+ * a lone caller waits at most maxWaitMillis for company.
+ *
+ * If a group fails, its items are retried one transaction each, so a single bad item fails only
+ * its own caller. A caller that gives up waiting takes its item back if the committer has not
+ * picked it up yet, so an item reported as failed is never written afterwards. If the committer
+ * already has it, the caller waits one more commit timeout for the outcome and then gives up with
+ * the outcome unknown, so no caller waits without bound.
+ *
+ * @param <T> type of item written
+ * @author  Sergey L. Sundukovskiy
+ * @version 1.0
+ * @since   2025-11-20
+ */
+public class GroupCommitQueue<T> {
+
+    private final Supplier<Connection> connectionSupplier;
+    private final BatchWriter<T> writer;
+    private final int maxBatch;
+    private final long maxWaitMillis;
+    private final long commitTimeoutMillis;
+
+    private final List<Pending<T>> pending = new ArrayList<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Thread committer;
+    private volatile boolean closed;
+
+    // Queue metrics
+    private final LongAdder committed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder transactions = new LongAdder();
+
+    /**
+     * Constructor for the GroupCommitQueue class. Starts the background committer thread
+     * @param name name of the committer thread
+     * @param connectionSupplier source of pooled connections
+     * @param writer writes a group of items on the given connection, without committing
+     * @param maxBatch maximum number of items per transaction
+     * @param maxWaitMillis maximum time the committer waits for a group to fill up
+     * @param commitTimeoutMillis maximum time a caller waits for its commit
+     */
+    public GroupCommitQueue(String name, Supplier<Connection> connectionSupplier, BatchWriter<T> writer,
+                            int maxBatch, long maxWaitMillis, long commitTimeoutMillis) {
+        this.connectionSupplier = connectionSupplier;
+        this.writer = writer;
+        this.maxBatch = maxBatch;
+        this.maxWaitMillis = maxWaitMillis;
+        this.commitTimeoutMillis = commitTimeoutMillis;
+
+        this.committer = new Thread(this::runCommitter, name);
+        this.committer.setDaemon(true);
+        this.committer.start();
+    }
+
+    /**
+     * Write the item and wait until it is committed
+     * @param item
+     * @throws SQLException if the write fails, the queue is closed or the commit times out
+     */
+    public void commit(T item) throws SQLException {
+        Pending<T> entry = new Pending<>(item);
+        lock.lock();
+        try {
+            if (closed) {
+                throw new SQLException("Group commit queue is closed");
+            }
+            pending.add(entry);
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            entry.result.get(commitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (withdraw(entry)) {
+                throw new SQLException("Interrupted while waiting for commit", e);
+            }
+            awaitInFlight(entry);
+        } catch (TimeoutException e) {
+            if (withdraw(entry)) {
+                throw new SQLException("Timed out waiting for commit", e);
+            }
+            awaitInFlight(entry);
+        } catch (ExecutionException e) {
+            throw failure(e.getCause());
+        }
+    }
+
+    /**
+     * Take an item back from the queue
+     * @return true if the item was still pending and will not be written, false if the committer has it
+     */
+    private boolean withdraw(Pending<T> entry) {
+        lock.lock();
+        try {
+            return pending.remove(entry);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Wait for the outcome of an item the committer is already writing, so the caller reports what
+     * actually happened to it. The wait is bounded by the commit timeout and ends on interrupt
+     */
+    private void awaitInFlight(Pending<T> entry) throws SQLException {
+        try {
+            entry.result.get(commitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for commit, outcome unknown", e);
+        } catch (TimeoutException e) {
+            throw new SQLException("Timed out waiting for commit, outcome unknown", e);
+        } catch (ExecutionException e) {
+            throw failure(e.getCause());
+        }
+    }
+
+    private static SQLException failure(Throwable cause) {
+        if (cause instanceof SQLException sqlException) {
+            return sqlException;
+        }
+        return new SQLException("Commit failed", cause);
+    }
+
+    /**
+     * Stop accepting items, commit everything pending and stop the committer thread
+     */
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            committer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public long getCommitted() {
+        return committed.sum();
+    }
+
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    /**
+     * Number of database transactions used so far; committed / transactions is the average group size
+     * @return
+     */
+    public long getTransactions() {
+        return transactions.sum();
+    }
+
+    /**
+     * Background committer loop: wait for items, let the group fill up briefly, then commit it
+     */
+    private void runCommitter() {
+        List<Pending<T>> group = List.of();
+        try {
+            while (true) {
+                lock.lock();
+                try {
+                    while (pending.isEmpty()) {
+                        if (closed) {
+                            return;
+                        }
+                        notEmpty.await();
+                    }
+                    //Give concurrent callers a moment to join the group
+                    long remaining = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+                    while (pending.size() < maxBatch && remaining > 0 && !closed) {
+                        remaining = notEmpty.awaitNanos(remaining);
+                    }
+                    int size = Math.min(maxBatch, pending.size());
+                    group = new ArrayList<>(pending.subList(0, size));
+                    pending.subList(0, size).clear();
+                } catch (InterruptedException e) {
+                    if (closed) {
+                        continue;
+                    }
+                    Thread.currentThread().interrupt();
+                    return;
+                } finally {
+                    lock.unlock();
+                }
+
+                commitGroup(group);
+            }
+        } finally {
+            abandon(group);
+        }
+    }
+
+    private void commitGroup(List<Pending<T>> group) {
+        try {
+            write(group);
+            group.forEach(entry -> entry.result.complete(null));
+            committed.add(group.size());
+        } catch (SQLException | RuntimeException e) {
+            if (group.size() == 1) {
+                fail(group.get(0), e);
+            } else {
+                //Isolate the failing items by retrying each in its own transaction
+                for (Pending<T> entry : group) {
+                    try {
+                        write(List.of(entry));
+                        entry.result.complete(null);
+                        committed.increment();
+                    } catch (SQLException | RuntimeException retryError) {
+                        fail(entry, retryError);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Once the committer has stopped, refuse new items and fail every item still waiting, including a group
+     * cut short by an error, so that no caller waits for a committer that is gone
+     */
+    private void abandon(List<Pending<T>> group) {
+        lock.lock();
+        try {
+            closed = true;
+            for (Pending<T> entry : group) {
+                entry.result.completeExceptionally(new SQLException("Commit aborted by the group commit queue"));
+            }
+            for (Pending<T> entry : pending) {
+                entry.result.completeExceptionally(new SQLException("Group commit queue stopped"));
+            }
+            pending.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void write(List<Pending<T>> group) throws SQLException {
+        List<T> items = new ArrayList<>(group.size());
+        group.forEach(entry -> items.add(entry.item));
+        try (Connection conn = connectionSupplier.get()) {
+            conn.setAutoCommit(false);
+            try {
+                writer.write(conn, items);
+                conn.commit();
+                transactions.increment();
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+
+    private void fail(Pending<T> entry, Exception e) {
+        failed.increment();
+        entry.result.completeExceptionally(e);
+    }
+
+    /**
+     * Writes a group of items on a connection that is committed by the caller
+     * @param <T>
+     */
+    @FunctionalInterface
+    public interface BatchWriter<T> {
+        void write(Connection conn, List<T> items) throws SQLException;
+    }
+
+    /**
+     * Item waiting to be committed together with its caller's result
+     */
+    private static final class Pending<T> {
+        private final T item;
+        private final CompletableFuture<Void> result = new CompletableFuture<>();
+
+        private Pending(T item) {
+            this.item = item;
+        }
+    }
+}
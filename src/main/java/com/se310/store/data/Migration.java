@@ -0,0 +1,173 @@
+package com.se310.store.data;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Migration - A single versioned schema migration script.
+ *
+ * A script is a list of SQL statements terminated by ';'. Lines starting with "--" are comments.
+ * A statement preceded by a "-- @chunked" comment is a backfill step: it must take the chunk size
+ * as its only parameter (for example "UPDATE ... FETCH FIRST ? ROWS ONLY") and is repeated, one
+ * transaction per chunk, until it no longer changes any rows.
+ * A statement preceded by a "-- @if-column-exists table.column" comment is skipped when that column
+ * does not exist, so a script interrupted between DDL statements can be run again.
+ *
+ * The checksum covers the script text, so an applied migration that is edited afterwards is detected.
+ *
+ * @author  Sergey L. Sundukovskiy
+ * @version 1.0
+ * @since   2025-11-20
+ */
+public final class Migration {
+
+    private static final String CHUNKED_DIRECTIVE = "-- @chunked";
+    private static final String IF_COLUMN_EXISTS_DIRECTIVE = "-- @if-column-exists ";
+
+    private final int version;
+    private final String description;
+    private final long checksum;
+    private final List<Step> steps;
+
+    /**
+     * Constructor for the Migration class
+     * @param version
+     * @param description
+     * @param script
+     */
+    public Migration(int version, String description, String script) {
+        this.version = version;
+        this.description = description;
+        this.checksum = checksum(script);
+        this.steps = Collections.unmodifiableList(parse(script));
+    }
+
+    /**
+     * Load a migration script from the classpath
+     * @param version
+     * @param description
+     * @param resource classpath location of the script
+     * @return
+     */
+    public static Migration fromResource(int version, String description, String resource) {
+        try (InputStream input = Migration.class.getClassLoader().getResourceAsStream(resource)) {
+            if (input == null) {
+                throw new IllegalStateException("Migration script not found: " + resource);
+            }
+            return new Migration(version, description, new String(input.readAllBytes(), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read migration script: " + resource, e);
+        }
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public long getChecksum() {
+        return checksum;
+    }
+
+    public List<Step> getSteps() {
+        return steps;
+    }
+
+    /**
+     * CRC32 of the script with line endings normalized, so checkouts on different platforms agree
+     */
+    private static long checksum(String script) {
+        CRC32 crc = new CRC32();
+        crc.update(script.replace("\r\n", "\n").trim().getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+
+    /**
+     * Split the script into statements, keeping track of chunked directives
+     */
+    private static List<Step> parse(String script) {
+        List<Step> result = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean chunked = false;
+        String requiredColumn = null;
+
+        for (String line : script.split("\\R")) {
+            String trimmed = line.trim();
+            if (trimmed.startsWith("--")) {
+                if (trimmed.equals(CHUNKED_DIRECTIVE)) {
+                    chunked = true;
+                } else if (trimmed.startsWith(IF_COLUMN_EXISTS_DIRECTIVE)) {
+                    requiredColumn = trimmed.substring(IF_COLUMN_EXISTS_DIRECTIVE.length()).trim();
+                }
+                continue;
+            }
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            if (!current.isEmpty()) {
+                current.append(' ');
+            }
+            current.append(trimmed);
+            if (trimmed.endsWith(";")) {
+                current.setLength(current.length() - 1);
+                result.add(new Step(current.toString().trim(), chunked, requiredColumn));
+                current.setLength(0);
+                chunked = false;
+                requiredColumn = null;
+            }
+        }
+
+        //Check to see if the last statement is missing its terminator
+        if (!current.toString().isBlank()) {
+            result.add(new Step(current.toString().trim(), chunked, requiredColumn));
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "V" + version + " " + description;
+    }
+
+    /**
+     * Single statement of a migration
+     */
+    public static final class Step {
+        private final String sql;
+        private final boolean chunked;
+        // Column written as table.column that must exist for the statement to run, null if unconditional
+        private final String requiredColumn;
+
+        private Step(String sql, boolean chunked, String requiredColumn) {
+            this.sql = sql;
+            this.chunked = chunked;
+            this.requiredColumn = requiredColumn;
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        /**
+         * @return true if the statement is repeated in chunk-sized transactions until it changes no rows
+         */
+        public boolean isChunked() {
+            return chunked;
+        }
+
+        /**
+         * @return table.column that must exist for the statement to run, null if it always runs
+         */
+        public String getRequiredColumn() {
+            return requiredColumn;
+        }
+    }
+}
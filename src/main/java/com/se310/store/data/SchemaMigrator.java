@@ -0,0 +1,227 @@
+package com.se310.store.data;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SchemaMigrator - Applies versioned schema migrations in order and records them in schema_version.
+ *
+ * On every start the checksums of already applied migrations are compared with the scripts on the
+ * classpath; a mismatch, or a database that is newer than the application, stops the upgrade.
+ *
+ * Plain statements run in auto-commit mode so each DDL statement (for example one index build) holds
+ * its locks only for itself. Chunked statements run one transaction per chunk, so backfilling a
+ * large table never holds a long lock.
+ *
+ * @author  Sergey L. Sundukovskiy
+ * @version 1.0
+ * @since   2025-11-20
+ */
+public class SchemaMigrator {
+
+    static final String VERSION_TABLE = "schema_version";
+
+    private final List<Migration> migrations;
+    private final int chunkSize;
+
+    /**
+     * Constructor for the SchemaMigrator class
+     * @param migrations migrations to apply, any order
+     * @param chunkSize rows changed per transaction by chunked steps
+     */
+    public SchemaMigrator(List<Migration> migrations, int chunkSize) {
+        this.migrations = new ArrayList<>(migrations);
+        this.migrations.sort(Comparator.comparingInt(Migration::getVersion));
+        this.chunkSize = chunkSize;
+
+        //Check to see if two migrations claim the same version
+        for (int i = 1; i < this.migrations.size(); i++) {
+            if (this.migrations.get(i).getVersion() == this.migrations.get(i - 1).getVersion()) {
+                throw new IllegalArgumentException("Duplicate migration version " + this.migrations.get(i).getVersion());
+            }
+        }
+    }
+
+    /**
+     * Migrations shipped with the application, in version order
+     * @return
+     */
+    public static List<Migration> defaultMigrations() {
+        return List.of(
+                Migration.fromResource(1, "baseline", "db/migration/V1__baseline.sql"),
+                Migration.fromResource(2, "secondary indexes", "db/migration/V2__secondary_indexes.sql"),
+                Migration.fromResource(3, "fixed point price", "db/migration/V3__fixed_point_price.sql"),
+                Migration.fromResource(4, "aisles and shelves", "db/migration/V4__aisles_shelves.sql"),
+                Migration.fromResource(5, "orders", "db/migration/V5__orders.sql"));
+    }
+
+    /**
+     * Bring the schema up to the latest version
+     * @param conn connection to the target database; auto-commit is restored afterwards
+     * @return number of migrations applied
+     * @throws SQLException if validation or a migration fails
+     */
+    public int migrate(Connection conn) throws SQLException {
+        boolean autoCommit = conn.getAutoCommit();
+        try {
+            conn.setAutoCommit(true);
+            createVersionTable(conn);
+
+            Map<Integer, Long> applied = loadApplied(conn);
+            validate(applied);
+
+            int count = 0;
+            for (Migration migration : migrations) {
+                if (!applied.containsKey(migration.getVersion())) {
+                    apply(conn, migration);
+                    count++;
+                }
+            }
+            return count;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * Get the highest applied schema version, 0 if none
+     * @param conn
+     * @return
+     * @throws SQLException
+     */
+    public int currentVersion(Connection conn) throws SQLException {
+        createVersionTable(conn);
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(version), 0) FROM " + VERSION_TABLE)) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    private void createVersionTable(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS " + VERSION_TABLE + " (" +
+                "version INT PRIMARY KEY," +
+                "description VARCHAR(255)," +
+                "checksum BIGINT NOT NULL," +
+                "installed_on TIMESTAMP DEFAULT CURRENT_TIMESTAMP," +
+                "execution_ms BIGINT" +
+                ")");
+        }
+    }
+
+    private Map<Integer, Long> loadApplied(Connection conn) throws SQLException {
+        Map<Integer, Long> applied = new HashMap<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT version, checksum FROM " + VERSION_TABLE)) {
+            while (rs.next()) {
+                applied.put(rs.getInt("version"), rs.getLong("checksum"));
+            }
+        }
+        return applied;
+    }
+
+    /**
+     * Make sure applied migrations match the scripts and the database is not ahead of the application
+     */
+    private void validate(Map<Integer, Long> applied) throws SQLException {
+        Map<Integer, Migration> known = new HashMap<>();
+        for (Migration migration : migrations) {
+            known.put(migration.getVersion(), migration);
+        }
+
+        for (Map.Entry<Integer, Long> entry : applied.entrySet()) {
+            Migration migration = known.get(entry.getKey());
+            if (migration == null) {
+                throw new SQLException("Database has schema version " + entry.getKey()
+                        + " which is unknown to this application");
+            }
+            if (migration.getChecksum() != entry.getValue()) {
+                throw new SQLException("Checksum mismatch for applied migration " + migration
+                        + ": script was modified after it was applied");
+            }
+        }
+    }
+
+    private void apply(Connection conn, Migration migration) throws SQLException {
+        long start = System.currentTimeMillis();
+        System.out.println("SchemaMigrator: Applying migration " + migration);
+
+        for (Migration.Step step : migration.getSteps()) {
+            try {
+                if (step.getRequiredColumn() != null && !columnExists(conn, step.getRequiredColumn())) {
+                    System.out.println("SchemaMigrator: Skipping step, " + step.getRequiredColumn() + " does not exist");
+                } else if (step.isChunked()) {
+                    runChunked(conn, step.getSql());
+                } else {
+                    try (Statement stmt = conn.createStatement()) {
+                        stmt.execute(step.getSql());
+                    }
+                }
+            } catch (SQLException e) {
+                throw new SQLException("Migration " + migration + " failed at: " + step.getSql(), e);
+            }
+        }
+
+        long elapsed = System.currentTimeMillis() - start;
+        try (PreparedStatement stmt = conn.prepareStatement("INSERT INTO " + VERSION_TABLE +
+                " (version, description, checksum, execution_ms) VALUES (?, ?, ?, ?)")) {
+            stmt.setInt(1, migration.getVersion());
+            stmt.setString(2, migration.getDescription());
+            stmt.setLong(3, migration.getChecksum());
+            stmt.setLong(4, elapsed);
+            stmt.executeUpdate();
+        }
+        System.out.println("SchemaMigrator: Migration " + migration + " applied in " + elapsed + " ms");
+    }
+
+    /**
+     * Check to see if a column, written as table.column, exists in the current schema
+     */
+    private boolean columnExists(Connection conn, String tableColumn) throws SQLException {
+        int dot = tableColumn.indexOf('.');
+        if (dot <= 0 || dot == tableColumn.length() - 1) {
+            throw new SQLException("Invalid column reference: " + tableColumn);
+        }
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT COUNT(*) FROM INFORMATION_SCHEMA.COLUMNS " +
+                "WHERE TABLE_SCHEMA = CURRENT_SCHEMA AND UPPER(TABLE_NAME) = UPPER(?) AND UPPER(COLUMN_NAME) = UPPER(?)")) {
+            stmt.setString(1, tableColumn.substring(0, dot));
+            stmt.setString(2, tableColumn.substring(dot + 1));
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                return rs.getInt(1) > 0;
+            }
+        }
+    }
+
+    /**
+     * Repeat a chunked statement in its own transaction until it changes no more rows
+     */
+    private void runChunked(Connection conn, String sql) throws SQLException {
+        conn.setAutoCommit(false);
+        long total = 0;
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            int changed;
+            do {
+                stmt.setInt(1, chunkSize);
+                changed = stmt.executeUpdate();
+                conn.commit();
+                total += changed;
+            } while (changed > 0);
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+        System.out.println("SchemaMigrator: Backfilled " + total + " rows");
+    }
+}
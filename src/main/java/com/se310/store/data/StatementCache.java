@@ -0,0 +1,189 @@
+package com.se310.store.data;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * StatementCache - LRU cache of PreparedStatements for a single pooled connection, keyed by SQL text.
+ *
+ * Statements handed out by the cache are proxies; close() clears the parameters and returns
+ * the statement to the cache instead of closing it. A pooled connection is leased by one thread
+ * at a time, so the cache itself does not need to be synchronized.
+ *
+ * @author  Sergey L. Sundukovskiy
+ * @version 1.0
+ * @since   2025-11-20
+ */
+final class StatementCache {
+
+    private final Connection connection;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LongAdder evictions;
+    private final Map<String, CachedStatement> statements;
+
+    /**
+     * Constructor for the StatementCache class
+     * @param connection physical connection the statements belong to
+     * @param maxSize maximum number of cached statements
+     * @param hits shared hit counter
+     * @param misses shared miss counter
+     * @param evictions shared eviction counter
+     */
+    StatementCache(Connection connection, int maxSize, LongAdder hits, LongAdder misses, LongAdder evictions) {
+        this.connection = connection;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+                if (size() <= maxSize) {
+                    return false;
+                }
+                evictions.increment();
+                eldest.getValue().evict();
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Get a prepared statement for the given SQL, reusing a cached one when it is not in use
+     * @param sql
+     * @return
+     * @throws SQLException
+     */
+    PreparedStatement prepare(String sql) throws SQLException {
+        CachedStatement cached = statements.get(sql);
+        if (cached != null && cached.evicted) {
+            //Statement failed to reset and has been closed, prepare a new one
+            statements.remove(sql);
+            cached = null;
+        }
+        if (cached != null && !cached.inUse) {
+            hits.increment();
+            cached.inUse = true;
+            return cached.proxy;
+        }
+
+        misses.increment();
+        PreparedStatement statement = connection.prepareStatement(sql);
+
+        //Same SQL is already open on this connection (nested use), hand out a plain statement
+        if (cached != null) {
+            return statement;
+        }
+
+        cached = new CachedStatement(statement);
+        cached.inUse = true;
+        statements.put(sql, cached);
+        return cached.proxy;
+    }
+
+    /**
+     * Mark all statements as available again; called when the connection returns to the pool
+     */
+    void releaseAll() {
+        for (CachedStatement cached : statements.values()) {
+            if (cached.inUse) {
+                cached.release();
+            }
+        }
+    }
+
+    /**
+     * Close all cached statements
+     */
+    void closeAll() {
+        List<CachedStatement> toClose = new ArrayList<>(statements.values());
+        statements.clear();
+        toClose.forEach(CachedStatement::evict);
+    }
+
+    /**
+     * Cached physical statement together with the proxy handed out to callers
+     */
+    private static final class CachedStatement {
+        private final PreparedStatement statement;
+        private final PreparedStatement proxy;
+        private boolean inUse;
+        private boolean evicted;
+
+        private CachedStatement(PreparedStatement statement) {
+            this.statement = statement;
+            this.proxy = (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, (target, method, args) -> {
+                        switch (method.getName()) {
+                            case "close":
+                                if (inUse) {
+                                    release();
+                                }
+                                return null;
+                            case "isClosed":
+                                return !inUse || statement.isClosed();
+                            case "equals":
+                                return target == args[0];
+                            case "hashCode":
+                                return System.identityHashCode(target);
+                            default:
+                                break;
+                        }
+                        try {
+                            return method.invoke(statement, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        }
+
+        /**
+         * Return the statement to the cache, or close it if it was evicted while in use
+         */
+        private void release() {
+            inUse = false;
+            if (evicted) {
+                closeQuietly();
+                return;
+            }
+            try {
+                ResultSet rs = statement.getResultSet();
+                if (rs != null) {
+                    rs.close();
+                }
+                statement.clearParameters();
+                statement.clearBatch();
+            } catch (SQLException e) {
+                evicted = true;
+                closeQuietly();
+            }
+        }
+
+        /**
+         * Remove the statement from the cache; in-use statements are closed once released
+         */
+        private void evict() {
+            evicted = true;
+            if (!inUse) {
+                closeQuietly();
+            }
+        }
+
+        private void closeQuietly() {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                System.err.println("Error closing cached statement: " + e.getMessage());
+            }
+        }
+    }
+}
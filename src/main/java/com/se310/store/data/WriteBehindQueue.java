@@ -0,0 +1,432 @@
+package com.se310.store.data;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * WriteBehindQueue - Asynchronous persistence queue used by DataManager in write-behind mode.
+ *
+ * Writes are keyed by the row they touch (for example "inventory:INV001"). A write for a key that
+ * is already pending replaces the pending one, so repeated updates of the same row are coalesced
+ * into a single statement. A background writer drains the queue in batched transactions.
+ *
+ * The queue is bounded by the number of distinct pending keys; producers wait when it is full.
+ * close() stops accepting writes and flushes everything still pending.
+ *
+ * @author  Sergey L. Sundukovskiy
+ * @version 1.0
+ * @since   2025-11-20
+ */
+public class WriteBehindQueue {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final Supplier<Connection> connectionSupplier;
+    private final int capacity;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final long offerTimeoutMillis;
+
+    // Pending writes in first-enqueued order, guarded by lock
+    private final Map<String, PendingWrite> pending = new LinkedHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private final Condition drained = lock.newCondition();
+    private final Set<String> inFlight = new HashSet<>();
+    // Enqueue time of the oldest write in the batch being written, 0 when no batch is in flight
+    private long inFlightSince;
+    private final Thread writer;
+    private volatile boolean closed;
+
+    // Queue metrics
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder transactions = new LongAdder();
+    private volatile long lastFlushMillis;
+
+    /**
+     * Constructor for the WriteBehindQueue class. Starts the background writer thread
+     * @param connectionSupplier source of pooled connections used by the writer
+     * @param capacity maximum number of distinct pending keys
+     * @param batchSize maximum number of writes per transaction
+     * @param flushIntervalMillis maximum time a write waits before the writer picks it up
+     * @param offerTimeoutMillis maximum time a producer waits for room in a full queue
+     */
+    public WriteBehindQueue(Supplier<Connection> connectionSupplier, int capacity, int batchSize,
+                            long flushIntervalMillis, long offerTimeoutMillis) {
+        this.connectionSupplier = connectionSupplier;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.offerTimeoutMillis = offerTimeoutMillis;
+
+        this.writer = new Thread(this::runWriter, "write-behind-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Queue a write for the given key, replacing any write for the same key that is still pending
+     * @param key
+     * @param sql
+     * @param params
+     * @throws SQLException if the queue is closed or stays full for longer than the offer timeout
+     */
+    public void submit(String key, String sql, Object... params) throws SQLException {
+        lock.lock();
+        try {
+            if (closed) {
+                throw new SQLException("Write-behind queue is closed");
+            }
+
+            PendingWrite existing = pending.get(key);
+            if (existing != null) {
+                //Keep the original position and enqueue time so lag reflects the oldest unwritten change
+                existing.sql = sql;
+                existing.params = params;
+                existing.attempts = 0;
+                coalesced.increment();
+                return;
+            }
+
+            long remaining = TimeUnit.MILLISECONDS.toNanos(offerTimeoutMillis);
+            while (pending.size() >= capacity) {
+                notEmpty.signal();
+                if (remaining <= 0) {
+                    throw new SQLException("Write-behind queue is full");
+                }
+                remaining = notFull.awaitNanos(remaining);
+                if (closed) {
+                    throw new SQLException("Write-behind queue is closed");
+                }
+            }
+
+            pending.put(key, new PendingWrite(key, sql, params));
+            enqueued.increment();
+            if (pending.size() >= batchSize) {
+                notEmpty.signal();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for the write-behind queue", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Block until no write for the given key is pending or in flight. Used before statements that
+     * bypass the queue (such as deletes) so that an older queued write cannot overwrite them
+     * @param key
+     */
+    public void awaitWritten(String key) {
+        awaitWrittenMatching(key::equals);
+    }
+
+    /**
+     * Block until no write whose key starts with the given prefix is pending or in flight. Used before
+     * deleting a group of rows such as all aisles of a store
+     * @param prefix
+     */
+    public void awaitWrittenWithPrefix(String prefix) {
+        awaitWrittenMatching(key -> key.startsWith(prefix));
+    }
+
+    private void awaitWrittenMatching(Predicate<String> matcher) {
+        lock.lock();
+        try {
+            while (pending.keySet().stream().anyMatch(matcher) || inFlight.stream().anyMatch(matcher)) {
+                notEmpty.signal();
+                drained.await(flushIntervalMillis, TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stop accepting writes, flush everything pending and stop the writer thread
+     */
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            notEmpty.signal();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Get a snapshot of the queue metrics
+     * @return
+     */
+    public Stats getStats() {
+        lock.lock();
+        try {
+            //Writes being written are not durable yet either
+            long oldest = inFlightSince;
+            if (!pending.isEmpty()) {
+                long pendingSince = pending.values().iterator().next().enqueuedAt;
+                oldest = oldest == 0 ? pendingSince : Math.min(oldest, pendingSince);
+            }
+            long lag = oldest == 0 ? 0 : System.currentTimeMillis() - oldest;
+            return new Stats(pending.size(), capacity, lag, enqueued.sum(), coalesced.sum(), written.sum(),
+                    failed.sum(), transactions.sum(), lastFlushMillis);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Background writer loop: wait for writes, drain up to batchSize of them and write them in one transaction
+     */
+    private void runWriter() {
+        while (true) {
+            List<PendingWrite> batch;
+            lock.lock();
+            try {
+                if (pending.isEmpty()) {
+                    if (closed) {
+                        return;
+                    }
+                    notEmpty.await(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                    continue;
+                }
+                if (pending.size() < batchSize && !closed) {
+                    //Give producers a chance to coalesce before writing a partial batch
+                    notEmpty.await(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                }
+                batch = drainBatch();
+                notFull.signalAll();
+            } catch (InterruptedException e) {
+                if (closed) {
+                    continue;
+                }
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                writeBatch(batch);
+            } finally {
+                lock.lock();
+                try {
+                    inFlight.clear();
+                    inFlightSince = 0;
+                    drained.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+    }
+
+    private List<PendingWrite> drainBatch() {
+        List<PendingWrite> batch = new ArrayList<>(Math.min(batchSize, pending.size()));
+        Iterator<PendingWrite> iterator = pending.values().iterator();
+        while (batch.size() < batchSize && iterator.hasNext()) {
+            PendingWrite write = iterator.next();
+            batch.add(write);
+            inFlight.add(write.key);
+            iterator.remove();
+            inFlightSince = inFlightSince == 0 ? write.enqueuedAt : Math.min(inFlightSince, write.enqueuedAt);
+        }
+        return batch;
+    }
+
+    /**
+     * Write a batch in a single transaction, grouping consecutive writes with the same SQL into one JDBC batch
+     */
+    private void writeBatch(List<PendingWrite> batch) {
+        long start = System.currentTimeMillis();
+        try (Connection conn = connectionSupplier.get()) {
+            conn.setAutoCommit(false);
+            try {
+                PreparedStatement stmt = null;
+                String currentSql = null;
+                try {
+                    for (PendingWrite write : batch) {
+                        if (!write.sql.equals(currentSql)) {
+                            if (stmt != null) {
+                                stmt.executeBatch();
+                                stmt.close();
+                            }
+                            stmt = conn.prepareStatement(write.sql);
+                            currentSql = write.sql;
+                        }
+                        for (int i = 0; i < write.params.length; i++) {
+                            stmt.setObject(i + 1, write.params[i]);
+                        }
+                        stmt.addBatch();
+                    }
+                    if (stmt != null) {
+                        stmt.executeBatch();
+                    }
+                } finally {
+                    if (stmt != null) {
+                        stmt.close();
+                    }
+                }
+                conn.commit();
+                written.add(batch.size());
+                transactions.increment();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException | RuntimeException e) {
+            System.err.println("Write-behind flush failed: " + e.getMessage());
+            requeue(batch);
+        } finally {
+            lastFlushMillis = System.currentTimeMillis() - start;
+        }
+    }
+
+    /**
+     * Put failed writes back unless a newer write for the same key arrived meanwhile
+     */
+    private void requeue(List<PendingWrite> batch) {
+        lock.lock();
+        try {
+            for (PendingWrite write : batch) {
+                if (++write.attempts >= MAX_ATTEMPTS) {
+                    failed.increment();
+                    System.err.println("Write-behind dropped write for " + write.key + " after "
+                            + MAX_ATTEMPTS + " attempts");
+                } else {
+                    pending.putIfAbsent(write.key, write);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Single keyed write waiting to be flushed
+     */
+    private static final class PendingWrite {
+        private final String key;
+        private final long enqueuedAt = System.currentTimeMillis();
+        private String sql;
+        private Object[] params;
+        private int attempts;
+
+        private PendingWrite(String key, String sql, Object[] params) {
+            this.key = key;
+            this.sql = sql;
+            this.params = params;
+        }
+    }
+
+    /**
+     * Point-in-time snapshot of the queue metrics
+     */
+    public static final class Stats {
+        private final int pending;
+        private final int capacity;
+        private final long durabilityLagMillis;
+        private final long enqueued;
+        private final long coalesced;
+        private final long written;
+        private final long failed;
+        private final long transactions;
+        private final long lastFlushMillis;
+
+        private Stats(int pending, int capacity, long durabilityLagMillis, long enqueued, long coalesced,
+                      long written, long failed, long transactions, long lastFlushMillis) {
+            this.pending = pending;
+            this.capacity = capacity;
+            this.durabilityLagMillis = durabilityLagMillis;
+            this.enqueued = enqueued;
+            this.coalesced = coalesced;
+            this.written = written;
+            this.failed = failed;
+            this.transactions = transactions;
+            this.lastFlushMillis = lastFlushMillis;
+        }
+
+        public int getPending() {
+            return pending;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        /**
+         * Age of the oldest write that has not reached the database yet
+         * @return
+         */
+        public long getDurabilityLagMillis() {
+            return durabilityLagMillis;
+        }
+
+        public long getEnqueued() {
+            return enqueued;
+        }
+
+        public long getCoalesced() {
+            return coalesced;
+        }
+
+        public long getWritten() {
+            return written;
+        }
+
+        public long getFailed() {
+            return failed;
+        }
+
+        public long getTransactions() {
+            return transactions;
+        }
+
+        public long getLastFlushMillis() {
+            return lastFlushMillis;
+        }
+
+        @Override
+        public String toString() {
+            return "Stats{" +
+                    "pending=" + pending +
+                    ", capacity=" + capacity +
+                    ", durabilityLagMillis=" + durabilityLagMillis +
+                    ", enqueued=" + enqueued +
+                    ", coalesced=" + coalesced +
+                    ", written=" + written +
+                    ", failed=" + failed +
+                    ", transactions=" + transactions +
+                    ", lastFlushMillis=" + lastFlushMillis +
+                    '}';
+        }
+    }
+}
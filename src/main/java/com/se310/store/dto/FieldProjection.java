@@ -0,0 +1,85 @@
+package com.se310.store.dto;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Field projection for API responses, selected with a {@code fields=id,address} query parameter.
+ * Only the requested DTO fields are written; without the parameter the DTO is returned unchanged.
+ *
+ * @author  Sergey L. Sundukovskiy
+ * @version 1.0
+ * @since   2025-11-20
+ */
+public final class FieldProjection {
+
+    private static final FieldProjection ALL = new FieldProjection(null);
+
+    // Requested fields in the order given, null for all fields
+    private final Set<String> fields;
+
+    private FieldProjection(Set<String> fields) {
+        this.fields = fields;
+    }
+
+    /**
+     * Parse a comma separated list of field names against the fields of a DTO class
+     *
+     * @param fields The fields parameter, may be null or empty for all fields
+     * @param dtoClass The DTO class the names must belong to
+     * @return The projection
+     * @throws IllegalArgumentException If a name is not a field of the DTO
+     */
+    public static FieldProjection parse(String fields, Class<?> dtoClass) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+
+        Set<String> known = new LinkedHashSet<>();
+        for (Field field : dtoClass.getDeclaredFields()) {
+            if (!Modifier.isStatic(field.getModifiers()) && !Modifier.isTransient(field.getModifiers())) {
+                known.add(field.getName());
+            }
+        }
+
+        Set<String> requested = new LinkedHashSet<>();
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            if (!known.contains(trimmed)) {
+                throw new IllegalArgumentException("Unknown field: " + trimmed);
+            }
+            requested.add(trimmed);
+        }
+        return requested.isEmpty() || requested.size() == known.size() ? ALL : new FieldProjection(requested);
+    }
+
+    /**
+     * Apply the projection to a DTO
+     *
+     * @param dto The DTO to project
+     * @return The DTO itself, or a JSON object holding only the requested fields
+     */
+    public Object apply(Object dto) {
+        if (fields == null || dto == null) {
+            return dto;
+        }
+
+        JsonObject all = JsonHelper.getGson().toJsonTree(dto).getAsJsonObject();
+        JsonObject projected = new JsonObject();
+        for (String field : fields) {
+            JsonElement value = all.get(field);
+            if (value != null) {
+                projected.add(field, value);
+            }
+        }
+        return projected;
+    }
+}
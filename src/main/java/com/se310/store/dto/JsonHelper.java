@@ -1,6 +1,7 @@
 package com.se310.store.dto;
 
 import com.google.gson.*;
+import com.google.gson.stream.JsonWriter;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -24,9 +25,8 @@ import java.time.format.DateTimeFormatter;
 public class JsonHelper {
 
     // Singleton Gson instance with custom type adapters
-    // Configured once and shared by all DTOs
+    // Configured once and shared by all DTOs; output is compact, pretty printing is left to the JsonWriter
     private static final Gson GSON = new GsonBuilder()
-            .setPrettyPrinting()  // Makes JSON output human-readable
             .serializeNulls()     // Include null fields in JSON output
             // Custom serializer for LocalDate (converts to ISO-8601 format: yyyy-MM-dd)
             .registerTypeAdapter(LocalDate.class, (JsonSerializer<LocalDate>)
@@ -67,6 +67,21 @@ public class JsonHelper {
         return GSON.toJson(object);
     }
 
+    /**
+     * Serialize an object straight to a JSON writer, without building an intermediate string.
+     * Indentation is taken from the writer, so the same call produces compact or pretty output.
+     *
+     * @param object The object to serialize, may be null
+     * @param writer The JSON writer to write to
+     */
+    public static void toJson(Object object, JsonWriter writer) {
+        if (object == null) {
+            GSON.toJson(JsonNull.INSTANCE, writer);
+        } else {
+            GSON.toJson(object, object.getClass(), writer);
+        }
+    }
+
     /**
      * Convert a JSON string to an object of the specified type.
      *
@@ -16,6 +16,16 @@ public class StoreMapper {
     //TODO: Implement Data Transfer Object for Store entity
     //TODO: Implement Factory methods for Store DTOs
 
+    /**
+     * Create a StoreDTO from a Store, leaving out its aisles, inventory, customers and devices
+     *
+     * @param store The Store domain object
+     * @return StoreDTO
+     */
+    public static StoreDTO toDTO(Store store) {
+        return new StoreDTO(store.getId(), store.getAddress(), store.getDescription());
+    }
+
     /**
      * StoreDTO - Data Transfer Object for Store
      */
@@ -1,8 +1,9 @@
 package com.se310.store.model;
 
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
@@ -20,6 +21,9 @@ public class Aisle {
     private AisleLocation aisleLocation;
     // Mark collection as transient to avoid circular reference issues during JSON serialization
     private final transient Map<String, Shelf> shelfMap;
+    // Inventory of all Shelves in the Aisle keyed by Product id, maintained as Inventory is added to a Shelf.
+    // Lists are replaced rather than modified so readers never need a lock
+    private final transient Map<String, List<Inventory>> productInventoryMap;
 
     /**
      * Constructor for Aisle class
@@ -33,7 +37,8 @@ public class Aisle {
         this.name = name;
         this.description = description;
         this.aisleLocation = aisleLocation;
-        this.shelfMap = new HashMap<>();
+        this.shelfMap = new ConcurrentHashMap<>();
+        this.productInventoryMap = new ConcurrentHashMap<>();
     }
 
     /**
@@ -128,6 +133,26 @@ public class Aisle {
         if(this.shelfMap.putIfAbsent(id,shelf) != null)
             throw new StoreException("Add Shelf", "Shelf Already Exists");
 
+        shelf.setAisle(this);
+        return shelf;
+    }
+
+    /**
+     * Method for adding an already built Shelf (for example one restored from the database) to the Aisle.
+     * If Shelf already exists in the Aisle throws StoreException
+     * @param shelf
+     * @return
+     * @throws StoreException
+     */
+    public Shelf addShelf(Shelf shelf) throws StoreException {
+
+        //If Shelf already exists throw and exception
+        if(this.shelfMap.putIfAbsent(shelf.getId(),shelf) != null)
+            throw new StoreException("Add Shelf", "Shelf Already Exists");
+
+        shelf.setAisle(this);
+        //Index Inventory the Shelf already holds
+        shelf.getInventoryMap().values().forEach(this::indexInventory);
         return shelf;
     }
 
@@ -137,7 +162,29 @@ public class Aisle {
      * @return
      */
     public Shelf getShelf(String shelfId) {
-        return this.shelfMap.get(shelfId);
+        return shelfId == null ? null : this.shelfMap.get(shelfId);
+    }
+
+    /**
+     * Get all Inventory items for the given Product on any Shelf of the Aisle
+     * @param productId
+     * @return empty list if the Product is not stocked in the Aisle
+     */
+    public List<Inventory> getProductInventory(String productId) {
+        List<Inventory> inventoryList = productId == null ? null : this.productInventoryMap.get(productId);
+        return inventoryList == null ? List.of() : inventoryList;
+    }
+
+    /**
+     * Add Inventory to the Product index; called by Shelf when Inventory is added to it
+     * @param inventory
+     */
+    void indexInventory(Inventory inventory) {
+        this.productInventoryMap.merge(inventory.getProductId(), List.of(inventory), (current, added) -> {
+            List<Inventory> merged = new ArrayList<>(current);
+            merged.addAll(added);
+            return List.copyOf(merged);
+        });
     }
 
     /**
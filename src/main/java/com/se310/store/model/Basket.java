@@ -1,7 +1,11 @@
 package com.se310.store.model;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Basket class implementation representing Customer basket
@@ -10,14 +14,25 @@ import java.util.stream.Collectors;
  * @version 1.0
  * @since   2025-09-25
  */
-public class Basket {
+public class Basket implements Versioned {
+
+    private static final Logger logger = LoggerFactory.getLogger(Basket.class);
 
     private String id;
     private final Map<String, Integer> productMap;
+    // Units taken off each Inventory item for this basket, so they can be returned when the reservation expires
+    private final transient Map<Inventory, Integer> reservations;
+    // Time products were last added, extends the reservation like the Customer being seen does
+    private transient volatile long lastReservedAt;
     // Mark customer and store as transient to avoid circular references
     // (Basket ↔ Customer, Basket ↔ Store)
     private transient Customer customer;
     private transient Store store;
+    // Guards the Basket contents. A lock rather than synchronized, so a virtual thread waiting on the database
+    // during checkout unmounts from its carrier instead of pinning it
+    private final transient ReentrantLock lock = new ReentrantLock();
+    // Bumped on every change, for conditional requests; not serialized
+    private final transient AtomicLong version = new AtomicLong();
 
     /**
      * Constructor for Basket class
@@ -26,6 +41,7 @@ public class Basket {
     public Basket(String id) {
         this.id = id;
         this.productMap = new HashMap<>();
+        this.reservations = new HashMap<>();
     }
 
     /**
@@ -42,157 +58,276 @@ public class Basket {
      */
     public void setId(String id) {
         this.id = id;
+        version.incrementAndGet();
     }
 
     /**
      * Method to add Product to the Customer's Basket. It throws StoreModel Exception on
      * various model inconsistencies
-     * Method is synchronized to guarantee critical section
+     * Method holds the Basket lock to guarantee critical section
      * @param productId
      * @param count
      * @throws StoreException
      */
-    synchronized public void addProduct(String productId, int count) throws StoreException {
-
-        //Make sure that the customer is registered
-        if(customer.getType() == CustomerType.guest){
-            throw new StoreException("Add Product", "Guests Are Not Allowed to Shop");
-        }
-
-        //Get location of the customer associated with this basket
-        StoreLocation location = this.customer.getStoreLocation();
-        //Get the aisle where the customer was last seen
-        Aisle aisle = store.getAisle(location.getAisleId());
-
-        //Check to see if exists
-        if(aisle == null){
-            throw new StoreException("Add Product", "Aisle Does Not Exist");
-        }
-
-        //Get all inventory items from the shelves in the aisle where customer was last seen
-        List<Inventory> inventoryList = aisle.getShelfMap().values()
-                .stream()
-                .flatMap(shelf -> shelf.getInventoryMap().values().
-                        stream())
-                .filter(inventory -> productId.equals(inventory.getProductId()))
-                        .collect(Collectors.toList());
-
-        //If inventory list is empty that means product is not available to be put in the basket
-        if(inventoryList.isEmpty()){
-            System.out.println("\u001B[31m" + "Error : " + customer + "\u001B[0m");
-            throw new StoreException("Add Product", "Customer Is Not Near Product");
-        }
-
-        //If inventory list is larger than one that means that there are multiple product are available
-        //where customer was last seen
-        if(inventoryList.size() > 1){
-            System.out.println("\u001B[31m" + "Error : " + inventoryList + "\u001B[0m");
-            throw new StoreException("Add Product", "There Are Several Products In the Aisle");
-        }
-
-        //If the count of the product on the shelf is smaller than the customer is trying to buy throw and exception
-        Inventory inventory = inventoryList.get(0);
-        if((inventory.getCount() - count) < 0){
-            System.out.println("\u001B[31m" + "Error : " + inventory + "\u001B[0m");
-            throw new StoreException("Add Product", "There Is Not Enough Inventory on the Shelf");
+    public void addProduct(String productId, int count) throws StoreException {
+        lock.lock();
+        try {
+            //The Basket may have been cleared from its Customer since the caller looked it up
+            if(customer == null){
+                throw new StoreException("Add Product", "Basket Has Not Being Assigned");
+            }
+
+            //Make sure that the customer is registered
+            if(customer.getType() == CustomerType.guest){
+                throw new StoreException("Add Product", "Guests Are Not Allowed to Shop");
+            }
+
+            //Get location of the customer associated with this basket
+            StoreLocation location = this.customer.getStoreLocation();
+            //Get the aisle where the customer was last seen
+            Aisle aisle = store.getAisle(location.getAisleId());
+
+            //Check to see if exists
+            if(aisle == null){
+                throw new StoreException("Add Product", "Aisle Does Not Exist");
+            }
+
+            //Get all inventory items for the product from the shelves in the aisle where customer was last seen
+            List<Inventory> inventoryList = aisle.getProductInventory(productId);
+
+            //If inventory list is empty that means product is not available to be put in the basket
+            if(inventoryList.isEmpty()){
+                System.out.println("\u001B[31m" + "Error : " + customer + "\u001B[0m");
+                throw new StoreException("Add Product", "Customer Is Not Near Product");
+            }
+
+            //If inventory list is larger than one that means that there are multiple product are available
+            //where customer was last seen
+            if(inventoryList.size() > 1){
+                System.out.println("\u001B[31m" + "Error : " + inventoryList + "\u001B[0m");
+                throw new StoreException("Add Product", "There Are Several Products In the Aisle");
+            }
+
+            //If the count of the product on the shelf is smaller than the customer is trying to buy throw and exception
+            Inventory inventory = inventoryList.get(0);
+            if(!inventory.tryReserve(count)){
+                System.out.println("\u001B[31m" + "Error : " + inventory + "\u001B[0m");
+                throw new StoreException("Add Product", "There Is Not Enough Inventory on the Shelf");
+            }
+
+            //Product has been taken off the shelf, put it in the basket
+            this.productMap.merge(productId, count, Integer::sum);
+            this.reservations.merge(inventory, count, Integer::sum);
+            this.lastReservedAt = System.currentTimeMillis();
+            version.incrementAndGet();
+        } finally {
+            lock.unlock();
         }
-
-        //Put the product in the basket and decrement product on the shelf
-        this.productMap.merge(productId, count, Integer::sum);
-        inventory.setCount(inventory.getCount() - count);
     }
 
     /**
      * Remove Product from the Customer's Basket. It throws StoreModel Exception on
      * various model inconsistencies
-     * Method is synchronized to guarantee critical section
+     * Method holds the Basket lock to guarantee critical section
      * @param productId
      * @param count
      * @throws StoreException
      */
-    synchronized public void removeProduct(String productId, int count) throws StoreException {
-
-        //If Customer is trying to remove more units of the products from the basket than he/she has put in
-        //throw an exception
-        Integer tempCount = this.productMap.get(productId);
-        if(tempCount == null){
-            throw new StoreException("Remove Product", "Product Does Not Exist");
-        } else if (count > tempCount){
-            throw new StoreException("Remove Product", "Trying To Remove More Quantity Than Exists");
-        }
-
-        //Get location of the customer associated with this basket
-        StoreLocation location = this.customer.getStoreLocation();
-        //Get the aisle where the customer was last seen
-        Aisle aisle = store.getAisle(location.getAisleId());
-
-        //Check to see if exists
-        if(aisle == null){
-            throw new StoreException("Remove Product", "Aisle Does Not Exist");
-        }
-
-        //Get all inventory items from the shelves in the aisle where customer was last seen
-        List<Inventory> inventoryList = aisle.getShelfMap().values()
-                .stream()
-                .flatMap(shelf -> shelf.getInventoryMap().values().
-                        stream())
-                .filter(inventory -> productId.equals(inventory.getProductId()))
-                .collect(Collectors.toList());
-
-        //If inventory list is empty that means product is not available to be put on the shelf
-        if(inventoryList.isEmpty()){
-            System.out.println("\u001B[31m" + "Error: " + customer + "\u001B[0m");
-            throw new StoreException("Remove Product", "Customer Is Not Near Product");
+    public void removeProduct(String productId, int count) throws StoreException {
+        lock.lock();
+        try {
+            //The Basket may have been cleared from its Customer since the caller looked it up
+            if(customer == null){
+                throw new StoreException("Remove Product", "Basket Has Not Being Assigned");
+            }
+
+            //If Customer is trying to remove more units of the products from the basket than he/she has put in
+            //throw an exception
+            Integer tempCount = this.productMap.get(productId);
+            if(tempCount == null){
+                throw new StoreException("Remove Product", "Product Does Not Exist");
+            } else if (count > tempCount){
+                throw new StoreException("Remove Product", "Trying To Remove More Quantity Than Exists");
+            }
+
+            //Get location of the customer associated with this basket
+            StoreLocation location = this.customer.getStoreLocation();
+            //Get the aisle where the customer was last seen
+            Aisle aisle = store.getAisle(location.getAisleId());
+
+            //Check to see if exists
+            if(aisle == null){
+                throw new StoreException("Remove Product", "Aisle Does Not Exist");
+            }
+
+            //Get all inventory items for the product from the shelves in the aisle where customer was last seen
+            List<Inventory> inventoryList = aisle.getProductInventory(productId);
+
+            //If inventory list is empty that means product is not available to be put on the shelf
+            if(inventoryList.isEmpty()){
+                System.out.println("\u001B[31m" + "Error: " + customer + "\u001B[0m");
+                throw new StoreException("Remove Product", "Customer Is Not Near Product");
+            }
+
+            //If inventory list is larger than one that means that there are multiple product slots are available
+            //on the shelves where customer was last seen
+            if(inventoryList.size() > 1){
+                System.out.println("\u001B[31m" + "Error : " + inventoryList + "\u001B[0m");
+                throw new StoreException("Remove Product", "There Are Several Products In the Aisle");
+            }
+
+            //If product capacity on the shelf is smaller than what the customer is trying to put back throw and exception
+            Inventory inventory = inventoryList.get(0);
+            if(!inventory.tryRelease(count)){
+                System.out.println("\u001B[31m" + "Error : " + inventory + "\u001B[0m");
+                throw new StoreException("Remove Product", "There Is Not Enough Capacity on the Shelf");
+            }
+
+            //Product has been put back on the shelf, remove it from the basket
+            this.productMap.merge(productId, count, (a, b) -> a - b);
+            this.reservations.computeIfPresent(inventory, (key, reserved) -> reserved > count ? reserved - count : null);
+
+            //if product count in the basket is 0 remove it from the basket completely
+            tempCount = this.productMap.get(productId);
+            if(tempCount == 0){
+                productMap.remove(productId);
+            }
+            version.incrementAndGet();
+        } finally {
+            lock.unlock();
         }
+    }
 
-        //If inventory list is larger than one that means that there are multiple product slots are available
-        //on the shelves where customer was last seen
-        if(inventoryList.size() > 1){
-            System.out.println("\u001B[31m" + "Error : " + inventoryList + "\u001B[0m");
-            throw new StoreException("Remove Product", "There Are Several Products In the Aisle");
+    /**
+     * Remove all Products from the Customer's Basket
+     * @throws StoreException
+     */
+    public void clearBasket() throws StoreException {
+        lock.lock();
+        try {
+            //The Basket may have been cleared or checked out since the caller looked it up
+            if(customer == null){
+                throw new StoreException("Clear Basket", "Basket Has Not Being Assigned");
+            }
+
+            //Return all the products to the shelves they were taken from
+            releaseReservations();
+
+            //Clear Basket and remove Customer association
+            this.customer.assignBasket(null);
+            this.customer = null;
+            version.incrementAndGet();
+        } finally {
+            lock.unlock();
         }
+    }
 
-        //If product capacity on the shelf is smaller than what the customer is trying to put back throw and exception
-        Inventory inventory = inventoryList.get(0);
-        if((inventory.getCount() + count) > inventory.getCapacity()){
-            System.out.println("\u001B[31m" + "Error : " + inventory + "\u001B[0m");
-            throw new StoreException("Remove Product", "There Is Not Enough Capacity on the Shelf");
+    /**
+     * Return every reserved unit to the Inventory it was taken from and empty the Basket.
+     * The Customer stays associated with the Basket. Used when the reservation expires.
+     * Units that do not fit back on their shelf stay reserved in the Basket, so they are not lost
+     * and can be returned later
+     * @return number of units returned to the shelves
+     */
+    public int releaseReservations() {
+        lock.lock();
+        try {
+            int released = 0;
+            Iterator<Map.Entry<Inventory, Integer>> iterator = this.reservations.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<Inventory, Integer> reservation = iterator.next();
+                //Shelf may have been restocked past what fits back, keep the shelf within capacity
+                if (reservation.getKey().tryRelease(reservation.getValue())) {
+                    released += reservation.getValue();
+                    iterator.remove();
+                } else {
+                    logger.warn("Basket {} keeps {} units of Inventory {}, not enough capacity to return them",
+                            id, reservation.getValue(), reservation.getKey().getId());
+                }
+            }
+            //What is left in the Basket is exactly what is still reserved
+            this.productMap.clear();
+            for (Map.Entry<Inventory, Integer> reservation : this.reservations.entrySet()) {
+                this.productMap.merge(reservation.getKey().getProductId(), reservation.getValue(), Integer::sum);
+            }
+            version.incrementAndGet();
+            return released;
+        } finally {
+            lock.unlock();
         }
+    }
 
-        //Remove the product in the basket and increment product on the shelf
-        this.productMap.merge(productId, count, (a, b) -> a - b);
-        inventory.setCount(inventory.getCount() + count);
-
-        //if product count in the basket is 0 remove it from the basket completely
-        tempCount = this.productMap.get(productId);
-        if(tempCount == 0){
-            productMap.remove(productId);
+    /**
+     * Check out the Basket. The handler receives the Basket lines (Product id to count), the units
+     * reserved on the shelves for each Product and the Inventory items they were taken from, validates
+     * them and records the order. Only if the handler
+     * succeeds are the reserved units consumed and the Basket released from its Customer; if it throws,
+     * the Basket is left untouched. The Basket is locked for the whole operation, which may wait on the database
+     * @param handler validates and records the order
+     * @return result of the handler
+     * @throws StoreException if the Basket is not assigned or the handler rejects the checkout
+     */
+    public <T> T checkout(CheckoutHandler<T> handler) throws StoreException {
+        lock.lock();
+        try {
+            //Check to see if the Basket has been assigned to the Customer
+            if(this.customer == null){
+                throw new StoreException("Checkout", "Basket Has Not Being Assigned");
+            }
+
+            //Units reserved per Product, whatever shelves they came from
+            Map<String, Integer> reserved = new HashMap<>();
+            this.reservations.forEach((inventory, units) -> reserved.merge(inventory.getProductId(), units, Integer::sum));
+
+            T result = handler.checkout(Collections.unmodifiableMap(this.productMap), Collections.unmodifiableMap(reserved),
+                    List.copyOf(this.reservations.keySet()));
+
+            //Products leave the store with the Customer, reserved units are not returned to the shelves
+            this.reservations.clear();
+            this.productMap.clear();
+            this.customer.assignBasket(null);
+            this.customer = null;
+            version.incrementAndGet();
+
+            return result;
+        } finally {
+            lock.unlock();
         }
     }
 
     /**
-     * Remove all Products from the Customer's Basket
-     * @throws StoreException
+     * Validates and records a Basket checkout
+     * @param <T> type of the recorded order
      */
-    synchronized public void clearBasket() throws StoreException {
+    @FunctionalInterface
+    public interface CheckoutHandler<T> {
+        T checkout(Map<String, Integer> lines, Map<String, Integer> reserved, List<Inventory> inventory)
+                throws StoreException;
+    }
 
-        //Removal of the products can't occur in the lambda function since we would get a
-        //concurrent object modification exception
-        Set<String> keys = this.productMap.keySet();
-        List<Integer> values = new ArrayList<>(productMap.values());
+    /**
+     * Get the time products were last added to the Basket
+     * @return milliseconds since the epoch, 0 if nothing was ever added
+     */
+    public long getLastReservedAt() {
+        return lastReservedAt;
+    }
 
-        //Remove all the products from the Product Map
-        int i = 0;
-        for (String key : keys) {
-            removeProduct(key, values.get(i));
-            i++;
+    /**
+     * Get the number of units currently reserved by the Basket
+     * @return
+     */
+    public int getReservedUnits() {
+        lock.lock();
+        try {
+            int reserved = 0;
+            for (int units : this.reservations.values()) {
+                reserved += units;
+            }
+            return reserved;
+        } finally {
+            lock.unlock();
         }
-
-        this.productMap.clear();
-
-        //Clear Basket and remove Customer association
-        this.customer.assignBasket(null);
-        this.customer = null;
     }
 
     /**
@@ -201,6 +336,7 @@ public class Basket {
      */
     public void setStore(Store store){
         this.store = store;
+        version.incrementAndGet();
     }
     /**
      * Setter method for the Customer to establish a connection between Basket and the Customer
@@ -208,6 +344,7 @@ public class Basket {
      */
     public void setCustomer(Customer customer){
         this.customer = customer;
+        version.incrementAndGet();
     }
 
     /**
@@ -226,6 +363,15 @@ public class Basket {
         return this.customer;
     }
 
+    /**
+     * Getter method for the number of changes made to the Basket since it was created or loaded
+     * @return
+     */
+    @Override
+    public long getVersion() {
+        return version.get();
+    }
+
     @Override
     public String toString() {
         return "Basket{" +
@@ -23,4 +23,28 @@ public interface CommandAPI {
      */
     void processCommandFile(String fileName);
 
+    /**
+     * Method for processing a command file line by line, starting at the given line
+     * @param fileName
+     * @param startLine first line to execute, used to resume a run that stopped early
+     * @return progress of the run
+     */
+    ScriptProgress processCommandFile(String fileName, long startLine);
+
+    /**
+     * Method for processing a command file on several threads, keeping the order of commands per Store
+     * @param fileName
+     * @param startLine first line to execute, used to resume a run that stopped early
+     * @param workers number of worker threads
+     * @return progress of the run
+     */
+    ScriptProgress processCommandFileParallel(String fileName, long startLine, int workers);
+
+    /**
+     * Method for replaying a command file compiled by CompiledScript
+     * @param fileName
+     * @return progress of the run
+     */
+    ScriptProgress processCompiledScript(String fileName);
+
 }
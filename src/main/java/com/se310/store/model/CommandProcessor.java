@@ -1,16 +1,24 @@
 package com.se310.store.model;
 
+import com.se310.store.config.ConfigLoader;
 import com.se310.store.service.StoreService;
 
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.HashMap;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
 
 /**
  * CommandProcessor class implementation for processing DSL commands
@@ -21,181 +29,524 @@ import java.util.regex.Pattern;
  */
 public class CommandProcessor implements CommandAPI  {
 
-    StoreService storeService = new StoreService();
-
-    public void processCommand(String commandBefore) throws CommandException, StoreException {
+    // Script lines are read through a large buffer instead of loading the whole file
+    private static final int READ_BUFFER_SIZE = 1 << 16;
+    // Lines the parallel reader may run ahead of the workers, per worker
+    private static final int MAX_QUEUED_PER_WORKER = 1024;
 
-        List<String> tokens = new ArrayList<>();
-        //Split the line into tokens between spaces and quotes
-        Matcher matcher = Pattern.compile("([^\"]\\S*|\".+?\")\\s*").matcher(commandBefore);
-        while (matcher.find())
-            tokens.add(matcher.group(1).replace("\"", ""));
+    StoreService storeService = new StoreService();
 
-        System.out.println(">>> Processing DSL : " + commandBefore);
+    // Command handlers keyed by verb: either a single token ("add_basket_item") or two ("define store")
+    private final Map<String, CommandHandler> handlers = new HashMap<>();
+    // Lane of each verb in parallel mode; verbs without a lane are barriers
+    private final Map<String, LaneKey> lanes = new HashMap<>();
+    // Handlers indexed by the opcodes of compiled scripts
+    private final CommandHandler[] opcodeHandlers;
 
-        String command = commandBefore.trim().replaceAll(" +", " ");
+    public CommandProcessor() {
+        register("define store", storeAt(2), tokens ->
+                storeService.provisionStore(tokens.get(2), tokens.get(4), tokens.get(6), null));
 
-        if (command.toLowerCase().contains("define store")){
-            storeService.provisionStore(tokens.get(2), tokens.get(4), tokens.get(6), null);
-        } else if(command.toLowerCase().contains("show store")){
-            System.out.println("<<< " + storeService.showStore(tokens.get(2),null));
-        } else if(command.toLowerCase().contains("define aisle")){
+        register("show store", storeAt(2), tokens ->
+                System.out.println("<<< " + storeService.showStore(tokens.get(2),null)));
 
+        register("define aisle", storeAt(2), tokens -> {
             String[] location = tokens.get(2).split(":");
             storeService.provisionAisle(location[0],location[1], tokens.get(4), tokens.get(6),
                     AisleLocation.valueOf(tokens.get(8)),null);
+        });
 
-        } else if(command.toLowerCase().contains("show aisle")){
-
+        register("show aisle", storeAt(2), tokens -> {
             String[] location = tokens.get(2).split(":");
             System.out.println("<<< " + storeService.showAisle(location[0],location[1],null));
+        });
 
-        } else if(command.toLowerCase().contains("define shelf")) {
-
+        register("define shelf", storeAt(2), tokens -> {
             String[] location = tokens.get(2).split(":");
             storeService.provisionShelf(location[0],location[1],location[2], tokens.get(4), ShelfLevel.valueOf(tokens.get(6)),
                     tokens.get(8), Temperature.valueOf(tokens.get(10)), null  );
+        });
 
-        } else if(command.toLowerCase().contains("show shelf")){
-
+        register("show shelf", storeAt(2), tokens -> {
             String[] location = tokens.get(2).split(":");
             System.out.println ("<<< " + storeService.showShelf(location[0], location[1], location[2], null));
+        });
 
-        } else if(command.toLowerCase().contains("define product")) {
-
-            storeService.provisionProduct(tokens.get(2), tokens.get(4), tokens.get(6),
-                    tokens.get(8), tokens.get(10), Double.parseDouble(tokens.get(12)),
-                    Temperature.valueOf(tokens.get(14)),null);
-
-        } else if(command.toLowerCase().contains("show product")) {
+        register("define product", tokens ->
+                storeService.provisionProduct(tokens.get(2), tokens.get(4), tokens.get(6),
+                        tokens.get(8), tokens.get(10), Double.parseDouble(tokens.get(12)),
+                        Temperature.valueOf(tokens.get(14)),null));
 
+        register("show product", tokens -> {
             Product product = storeService.showProduct(tokens.get(2), null);
             System.out.println("<<< " + product);
+        });
 
-        } else if(command.toLowerCase().contains("define inventory")) {
-
+        register("define inventory", storeAt(4), tokens -> {
             String[] location = tokens.get(4).split(":");
-
             storeService.provisionInventory(tokens.get(2), location[0], location[1],
                     location[2], Integer.parseInt(tokens.get(6)), Integer.parseInt(tokens.get(8)),
                     tokens.get(12), InventoryType.valueOf(tokens.get(10)), null);
+        });
 
-        } else if(command.toLowerCase().contains("show inventory")) {
-
-            System.out.println("<<< " + storeService.showInventory(tokens.get(2), null));
-
-        } else if(command.toLowerCase().contains("update inventory")) {
+        register("show inventory", tokens ->
+                System.out.println("<<< " + storeService.showInventory(tokens.get(2), null)));
 
+        register("update inventory", tokens -> {
             Inventory inventory = storeService.updateInventory(tokens.get(2),Integer.parseInt(tokens.get(4)), null );
             System.out.println(inventory);
+        });
 
-        } else if(command.toLowerCase().contains("define customer")){
-
-            storeService.provisionCustomer(tokens.get(2), tokens.get(4), tokens.get(6),
-                    CustomerType.valueOf(tokens.get(8)), tokens.get(10), tokens.get(12), null);
-
-        } else if(command.toLowerCase().contains("update customer")){
+        register("define customer", tokens ->
+                storeService.provisionCustomer(tokens.get(2), tokens.get(4), tokens.get(6),
+                        CustomerType.valueOf(tokens.get(8)), tokens.get(10), tokens.get(12), null));
 
+        register("update customer", tokens -> {
             String[] location = tokens.get(4).split(":");
             Customer customer = storeService.updateCustomer(tokens.get(2), location[0], location[1], null);
-
             System.out.println("<<< " + customer);
+        });
 
-        } else if(command.toLowerCase().contains("show customer")){
-
-            System.out.println(storeService.showCustomer(tokens.get(2),null));
-
-        } else if(command.toLowerCase().contains("define basket")){
-
-            storeService.provisionBasket(tokens.get(2), null);
+        register("show customer", tokens ->
+                System.out.println(storeService.showCustomer(tokens.get(2),null)));
 
-        } else if(command.toLowerCase().contains("assign basket")){
+        register("define basket", tokens -> storeService.provisionBasket(tokens.get(2), null));
 
-            storeService.assignCustomerBasket(tokens.get(4), tokens.get(2), null);
-
-        } else if(command.toLowerCase().contains("get_customer_basket")){
+        register("assign basket", tokens -> storeService.assignCustomerBasket(tokens.get(4), tokens.get(2), null));
 
+        register("get_customer_basket", tokens -> {
             Basket basket = storeService.getCustomerBasket(tokens.get(1), null);
             System.out.println("<<< " + basket);
+        });
 
-        } else if (command.toLowerCase().contains("add_basket_item")){
-
+        register("add_basket_item", tokens -> {
             Basket basket = storeService.addBasketProduct(tokens.get(1), tokens.get(3),
                     Integer.parseInt(tokens.get(5)), null);
             System.out.println("<<< " + basket);
+        });
 
-        } else if (command.toLowerCase().contains("remove_basket_item")) {
-
+        register("remove_basket_item", tokens -> {
             Basket basket = storeService.removeBasketProduct(tokens.get(1), tokens.get(3),
                     Integer.parseInt(tokens.get(5)), null);
             System.out.println(basket);
+        });
 
-        } else if (command.toLowerCase().contains("clear_basket")){
-
+        register("clear_basket", tokens -> {
             Basket basket = storeService.clearBasket(tokens.get(1),null);
             System.out.println("<<< " + basket);
+        });
 
-        } else if (command.toLowerCase().contains("show basket_items")){
+        register("checkout_basket", tokens -> {
+            Order order = storeService.checkout(tokens.get(1),null);
+            System.out.println("<<< " + order);
+        });
 
+        register("show basket_items", tokens -> {
             Basket basket = storeService.showBasket(tokens.get(2),null);
             System.out.println("<<< " + basket);
+        });
 
-        } else if (command.toLowerCase().contains("define device")){
-
+        register("define device", storeAt(8), tokens -> {
             String[] location = tokens.get(8).split(":");
             storeService.provisionDevice(tokens.get(2), tokens.get(4),
                     tokens.get(6), location[0], location[1], null);
+        });
 
-        } else if (command.toLowerCase().contains("show device")){
+        register("show device", tokens ->
+                System.out.println("<<< " + storeService.showDevice(tokens.get(2),null)));
 
-            System.out.println("<<< " + storeService.showDevice(tokens.get(2),null));
+        register("create event", tokens ->
+                storeService.raiseEvent(tokens.get(2), tokens.get(4) + " " + tokens.get(5),null));
 
-        } else if (command.toLowerCase().contains("create event")){
+        register("create_event", tokens ->
+                storeService.raiseEvent(tokens.get(1), tokens.get(3) + " " + tokens.get(4) + " " + tokens.get(5),null));
 
-            storeService.raiseEvent(tokens.get(2), tokens.get(4) + " " + tokens.get(5),null);
+        register("create command", tokens ->
+                storeService.issueCommand(tokens.get(2), tokens.get(4) + " " + tokens.get(5),null));
 
-        } else if (command.toLowerCase().contains("create_event")){
+        //Compiled scripts refer to handlers by opcode
+        opcodeHandlers = new CommandHandler[CompiledScript.VERBS.size()];
+        for (int opcode = 0; opcode < opcodeHandlers.length; opcode++) {
+            opcodeHandlers[opcode] = handlers.get(CompiledScript.VERBS.get(opcode));
+            if (opcodeHandlers[opcode] == null) {
+                throw new IllegalStateException("No handler for opcode verb: " + CompiledScript.VERBS.get(opcode));
+            }
+        }
+    }
+
+    public void processCommand(String commandBefore) throws CommandException, StoreException {
+
+        //Split the line into tokens between spaces and quotes
+        execute(commandBefore, CommandTokenizer.tokenize(commandBefore));
+    }
+
+    /**
+     * Execute an already tokenized command
+     */
+    private void execute(String commandBefore, List<String> tokens) throws CommandException, StoreException {
+
+        System.out.println(">>> Processing DSL : " + commandBefore);
+
+        String verb = resolveVerb(tokens);
+        if (verb == null) {
+            throw new CommandException(normalize(commandBefore), "Unrecognized Command");
+        }
+
+        invoke(handlers.get(verb), commandBefore, tokens);
+    }
 
-            storeService.raiseEvent(tokens.get(1), tokens.get(3) + " " + tokens.get(4) + " " + tokens.get(5),null);
+    /**
+     * Run a handler, turning malformed arguments into a CommandException
+     * @param commandBefore command text for error messages, null to rebuild it from the tokens
+     */
+    private void invoke(CommandHandler handler, String commandBefore, List<String> tokens)
+            throws CommandException, StoreException {
+        try {
+            handler.handle(tokens);
+        } catch (IndexOutOfBoundsException e) {
+            throw new CommandException(commandText(commandBefore, tokens), "Missing Command Arguments");
+        } catch (IllegalArgumentException e) {
+            throw new CommandException(commandText(commandBefore, tokens), "Invalid Command Argument: " + e.getMessage());
+        }
+    }
 
-        } else if (command.toLowerCase().contains("create command")){
+    private static String commandText(String commandBefore, List<String> tokens) {
+        return commandBefore != null ? normalize(commandBefore) : String.join(" ", tokens);
+    }
 
-            storeService.issueCommand(tokens.get(2), tokens.get(4) + " " + tokens.get(5),null);
+    /**
+     * Find the handler for a tokenized command: a single-token verb first, then a two-token one
+     * @param tokens
+     * @return handler, null if the command is not recognized
+     */
+    CommandHandler resolve(List<String> tokens) {
+        String verb = resolveVerb(tokens);
+        return verb != null ? handlers.get(verb) : null;
+    }
+
+    /**
+     * Find the Store lane a tokenized command runs in during parallel execution
+     * @param tokens
+     * @return Store id, null if the command must run as a barrier
+     */
+    String laneOf(List<String> tokens) {
+        String verb = resolveVerb(tokens);
+        LaneKey lane = verb != null ? lanes.get(verb) : null;
+        return lane != null ? lane.storeOf(tokens) : null;
+    }
 
-        } else {
-            throw new CommandException(command, "Unrecognized Command");
+    private String resolveVerb(List<String> tokens) {
+        if (tokens.isEmpty()) {
+            return null;
         }
+        String verb = tokens.get(0).toLowerCase(Locale.ROOT);
+        if (handlers.containsKey(verb)) {
+            return verb;
+        }
+        if (tokens.size() > 1) {
+            verb = verb + " " + tokens.get(1).toLowerCase(Locale.ROOT);
+            if (handlers.containsKey(verb)) {
+                return verb;
+            }
+        }
+        return null;
+    }
+
+    private void register(String verb, CommandHandler handler) {
+        register(verb, null, handler);
+    }
+
+    private void register(String verb, LaneKey lane, CommandHandler handler) {
+        if (handlers.put(verb, handler) != null) {
+            throw new IllegalStateException("Duplicate command: " + verb);
+        }
+        if (lane != null) {
+            lanes.put(verb, lane);
+        }
+    }
+
+    /**
+     * Lane of commands whose token at the given index is a Store id or a Store location such as store_123:aisle_A1
+     */
+    private static LaneKey storeAt(int index) {
+        return tokens -> {
+            if (tokens.size() <= index) {
+                return null;
+            }
+            String location = tokens.get(index);
+            int separator = location.indexOf(':');
+            return separator >= 0 ? location.substring(0, separator) : location;
+        };
+    }
+
+    private static String normalize(String command) {
+        return command.trim().replaceAll(" +", " ");
     }
 
     public void processCommandFile(String fileName) {
+        processCommandFile(fileName, 1);
+    }
+
+    /**
+     * Stream the script one line at a time, so memory use does not depend on the size of the file,
+     * and report progress every script.progress.interval.lines lines
+     * @param fileName
+     * @param startLine first line to execute; earlier lines are read but skipped
+     * @return progress of the run, including the line to resume from if it stopped early
+     */
+    public ScriptProgress processCommandFile(String fileName, long startLine) {
+        return runScript(fileName, startLine, new ScriptRunner() {
+            @Override
+            public void run(String line, long lineNumber, ScriptProgress progress) {
+                executeLine(line, CommandTokenizer.tokenize(line), lineNumber, progress);
+            }
+
+            @Override
+            public void drain() {
+                //Every line has already been executed
+            }
+        });
+    }
+
+    /**
+     * Stream the script and execute it on a pool of workers. Each line runs in the lane of the Store it
+     * refers to, so commands for one Store keep their order while different Stores load in parallel.
+     * Commands not tied to a Store (Products, Customers, Baskets, events) are barriers: they run alone,
+     * after every earlier line has finished and before any later line starts
+     * @param fileName
+     * @param startLine first line to execute; earlier lines are read but skipped
+     * @param workers number of worker threads
+     * @return progress of the run, including the line to resume from if it stopped early
+     */
+    public ScriptProgress processCommandFileParallel(String fileName, long startLine, int workers) {
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, workers), runnable -> {
+            Thread thread = new Thread(runnable, "script-lane");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            return runScript(fileName, startLine, new LaneRunner(pool, Math.max(1, workers) * MAX_QUEUED_PER_WORKER));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Read the script line by line and pass every command line to the runner
+     */
+    private ScriptProgress runScript(String fileName, long startLine, ScriptRunner runner) {
         Path path = FileSystems.getDefault().getPath(Path.of(fileName).toAbsolutePath().toString());
-        List<String> tokens = new ArrayList<>();
+        ScriptProgress progress = new ScriptProgress(fileName, Math.max(1, startLine));
+        long progressInterval = ConfigLoader.getScriptProgressIntervalLines();
+
+        //Products and Inventory defined by the script are written to the database in JDBC batches
+        storeService.beginBulkLoad();
+
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(Files.newInputStream(path), StandardCharsets.UTF_8), READ_BUFFER_SIZE)) {
+            try {
+                String line;
+                long lineNumber = 0;
+                while ((line = reader.readLine()) != null) {
+                    lineNumber++;
+                    if (lineNumber < progress.getStartLine()) {
+                        continue;
+                    }
+
+                    //Filter out any empty lines and lines that start with #
+                    String trimmed = line.trim();
+                    if (!trimmed.startsWith("#") && !trimmed.isEmpty()) {
+                        runner.run(line, lineNumber, progress);
+                    }
+                    progress.lineRead(lineNumber);
+
+                    if (lineNumber % progressInterval == 0) {
+                        System.out.println("Script progress: line " + lineNumber + ", " + progress.getLinesPerSecond()
+                                + " lines/s, " + progress.getFailed() + " errors");
+                    }
+                }
+            } finally {
+                //Lines already handed to the runner finish before the run is reported
+                runner.drain();
+            }
+            progress.markComplete();
+        } catch (IOException e) {
+            System.out.println("\u001B[31m" + "Failed reading " + fileName + " after line " + progress.getLastLine()
+                    + ": " + e.getMessage() + "; resume from line " + progress.getResumeLine() + "\u001B[0m");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.out.println("\u001B[31m" + "Interrupted after line " + progress.getLastLine()
+                    + "; resume from line " + progress.getResumeLine() + "\u001B[0m");
+        } finally {
+            try {
+                storeService.endBulkLoad();
+            } catch (StoreException e) {
+                System.out.println("\u001B[31m" + "Failed due to: " + e.getReason() + " for Command: " + e.getAction() + "\u001B[0m");
+            }
+        }
+
+        System.out.println("Script finished: " + progress);
+        return progress;
+    }
+
+    /**
+     * Execute a single script line and report its failure, if any, with its line number.
+     * Unexpected runtime errors fail only the line, so a run always ends with its progress
+     */
+    private void executeLine(String line, List<String> tokens, long lineNumber, ScriptProgress progress) {
+        executeLine(lineNumber, progress, () -> execute(line, tokens));
+    }
+
+    private void executeLine(long lineNumber, ScriptProgress progress, ScriptCommand command) {
+        try {
+            command.run();
+            progress.commandExecuted();
+        } catch (CommandException e) {
+            progress.commandFailed();
+            e.setLineNumber((int) lineNumber);
+            System.out.println("\u001B[31m" + "Failed due to: " + e.getReason() + " for Command: " + e.getCommand()
+                    + " On Line Number: " + e.getLineNumber() + "\u001B[0m");
+        } catch (StoreException e) {
+            progress.commandFailed();
+            System.out.println("\u001B[31m" + "Failed due to: " + e.getReason() + " for Command: " + e.getAction()
+                    + " On Line Number: " + lineNumber + "\u001B[0m");
+        } catch (RuntimeException e) {
+            //Keep the script running; the failure is reported like any other
+            progress.commandFailed();
+            System.out.println("\u001B[31m" + "Failed due to: " + e + " On Line Number: " + lineNumber + "\u001B[0m");
+        }
+    }
 
-        //Process all the lines in the file
-        try (var stream = Files.lines(path)) {
-            tokens = stream
-                    .toList();
+    /**
+     * Replay a script compiled by {@link CompiledScript#compile}. The header and checksum are verified
+     * before the first command runs; commands go straight to their handlers without tokenizing or echoing
+     * @param fileName compiled script
+     * @return progress of the run; line numbers refer to the source script
+     */
+    public ScriptProgress processCompiledScript(String fileName) {
+        Path path = Path.of(fileName).toAbsolutePath();
+        ScriptProgress progress = new ScriptProgress(fileName, 1);
+        long progressInterval = ConfigLoader.getScriptProgressIntervalLines();
+
+        //Products and Inventory defined by the script are written to the database in JDBC batches
+        storeService.beginBulkLoad();
+
+        try {
+            CompiledScript.replay(path, (opcode, lineNumber, tokens) -> {
+                if (opcode >= opcodeHandlers.length) {
+                    throw new IOException("Unknown opcode " + opcode + " on line " + lineNumber);
+                }
+                executeLine(lineNumber, progress, () -> invoke(opcodeHandlers[opcode], null, tokens));
+                progress.lineRead(lineNumber);
+
+                if ((progress.getExecuted() + progress.getFailed()) % progressInterval == 0) {
+                    System.out.println("Script progress: line " + lineNumber + ", " + progress.getLinesPerSecond()
+                            + " lines/s, " + progress.getFailed() + " errors");
+                }
+            });
+            progress.markComplete();
+        } catch (CommandException e) {
+            System.out.println("\u001B[31m" + "Failed due to: " + e.getReason() + " for Command: " + e.getCommand() + "\u001B[0m");
         } catch (IOException e) {
-            e.printStackTrace();
+            System.out.println("\u001B[31m" + "Failed reading " + fileName + " after line " + progress.getLastLine()
+                    + ": " + e.getMessage() + "\u001B[0m");
+        } finally {
+            try {
+                storeService.endBulkLoad();
+            } catch (StoreException e) {
+                System.out.println("\u001B[31m" + "Failed due to: " + e.getReason() + " for Command: " + e.getAction() + "\u001B[0m");
+            }
+        }
+
+        System.out.println("Script finished: " + progress);
+        return progress;
+    }
+
+    /**
+     * A single command of a script, run with the shared failure reporting
+     */
+    @FunctionalInterface
+    private interface ScriptCommand {
+        void run() throws CommandException, StoreException;
+    }
+
+    /**
+     * Executes the command lines of a script as they are read
+     */
+    private interface ScriptRunner {
+        void run(String line, long lineNumber, ScriptProgress progress) throws InterruptedException;
+
+        /**
+         * Wait until every line passed to run has been executed
+         */
+        void drain() throws InterruptedException;
+    }
+
+    /**
+     * Runs each Store's lines in order on a worker pool; barrier lines run alone on the reading thread
+     */
+    private final class LaneRunner implements ScriptRunner {
+
+        private final ExecutorService pool;
+        // Lines read but not yet executed, bounded so a fast reader cannot fill the heap
+        private final Semaphore queued;
+        // Last line submitted to each Store lane
+        private final Map<String, CompletableFuture<Void>> tails = new HashMap<>();
+
+        private LaneRunner(ExecutorService pool, int maxQueued) {
+            this.pool = pool;
+            this.queued = new Semaphore(maxQueued);
         }
 
-        Iterator<String> iterator = tokens.iterator();
+        @Override
+        public void run(String line, long lineNumber, ScriptProgress progress) throws InterruptedException {
+            List<String> tokens = CommandTokenizer.tokenize(line);
+            String lane = laneOf(tokens);
+            if (lane == null) {
+                drain();
+                executeLine(line, tokens, lineNumber, progress);
+                return;
+            }
 
-        //Filter out any empty lines and lines that start with #
-        for (int i = 0; iterator.hasNext(); i ++) {
-            String temp = iterator.next();
-            if(!temp.trim().startsWith("#") && !temp.trim().isEmpty()) {
+            queued.acquire();
+            CompletableFuture<Void> tail = tails.get(lane);
+            Runnable task = () -> {
                 try {
-                    processCommand(temp);
-                } catch (CommandException e) {
-                    e.setLineNumber(i + 1);
-                    System.out.println("\u001B[31m" + "Failed due to: " + e.getReason() + " for Command: " + e.getCommand()
-                            + " On Line Number: " + e.getLineNumber() + "\u001B[0m");
-                } catch (StoreException e) {
-                    System.out.println("\u001B[31m" + "Failed due to: " + e.getReason() + " for Command: " + e.getAction() + "\u001B[0m");
+                    executeLine(line, tokens, lineNumber, progress);
+                } finally {
+                    queued.release();
                 }
+            };
+            tails.put(lane, tail == null ? CompletableFuture.runAsync(task, pool) : tail.thenRunAsync(task, pool));
+        }
+
+        @Override
+        public void drain() throws InterruptedException {
+            if (tails.isEmpty()) {
+                return;
+            }
+            try {
+                CompletableFuture.allOf(tails.values().toArray(new CompletableFuture[0])).get();
+            } catch (ExecutionException e) {
+                //Failures are reported by the tasks themselves
             }
+            tails.clear();
         }
+    }
+
+    /**
+     * Executes a single tokenized command
+     */
+    @FunctionalInterface
+    interface CommandHandler {
+        void handle(List<String> tokens) throws CommandException, StoreException;
+    }
 
+    /**
+     * Extracts the Store a tokenized command belongs to
+     */
+    @FunctionalInterface
+    interface LaneKey {
+        String storeOf(List<String> tokens);
     }
 }
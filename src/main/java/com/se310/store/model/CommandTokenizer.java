@@ -0,0 +1,47 @@
+package com.se310.store.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * CommandTokenizer class implementation for splitting DSL commands into tokens
+ *
+ * Tokens are separated by whitespace; a token in double quotes may contain whitespace and is
+ * returned without the quotes.
+ *
+ * @author  Sergey L. Sundukovskiy
+ * @version 1.0
+ * @since   2025-11-20
+ */
+public final class CommandTokenizer {
+
+    // Compiled once; group 1 is a quoted token, group 2 a plain one
+    private static final Pattern TOKEN = Pattern.compile("\"([^\"]*)\"|(\\S+)");
+
+    private CommandTokenizer() {
+    }
+
+    /**
+     * Split a command line into tokens
+     * @param line
+     * @return tokens in the order they appear, empty for a blank line
+     */
+    public static List<String> tokenize(String line) {
+        List<String> tokens = new ArrayList<>();
+        Matcher matcher = TOKEN.matcher(line);
+        while (matcher.find()) {
+            String token = matcher.group(1);
+            if (token == null) {
+                token = matcher.group(2);
+                //Quotes inside a plain token are dropped
+                if (token.indexOf('"') >= 0) {
+                    token = token.replace("\"", "");
+                }
+            }
+            tokens.add(token);
+        }
+        return tokens;
+    }
+}
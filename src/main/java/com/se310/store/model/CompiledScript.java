@@ -0,0 +1,300 @@
+package com.se310.store.model;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * CompiledScript class implementation for the binary form of DSL scripts
+ *
+ * A compiled script is tokenized and resolved once, so replaying it needs no text parsing. Layout:
+ * <pre>
+ *   int     magic "SSCB"
+ *   int     format version
+ *   varint  number of strings, then each string as varint length + UTF-8 bytes
+ *   varint  number of commands, then per command:
+ *           byte opcode, varint source line number, varint token count, varint string index per token
+ *   long    CRC32 of everything above
+ * </pre>
+ * Every distinct token is stored once in the string table. Opcodes index {@link #VERBS}, which is
+ * append-only so that compiled scripts stay valid when new verbs are added.
+ *
+ * @author  Sergey L. Sundukovskiy
+ * @version 1.0
+ * @since   2025-11-20
+ */
+public final class CompiledScript {
+
+    public static final int MAGIC = 0x53534342;
+    public static final int VERSION = 1;
+
+    /**
+     * Verbs in opcode order. Only ever append to this list
+     */
+    public static final List<String> VERBS = List.of(
+            "define store", "show store", "define aisle", "show aisle", "define shelf", "show shelf",
+            "define product", "show product", "define inventory", "show inventory", "update inventory",
+            "define customer", "update customer", "show customer", "define basket", "assign basket",
+            "get_customer_basket", "add_basket_item", "remove_basket_item", "clear_basket", "checkout_basket",
+            "show basket_items", "define device", "show device", "create event", "create_event", "create command");
+
+    private static final Map<String, Integer> OPCODES = new HashMap<>();
+
+    static {
+        for (int i = 0; i < VERBS.size(); i++) {
+            OPCODES.put(VERBS.get(i), i);
+        }
+    }
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private CompiledScript() {
+    }
+
+    /**
+     * Find the opcode of a tokenized command: a single-token verb first, then a two-token one
+     * @param tokens
+     * @return opcode, -1 if the command is not recognized
+     */
+    public static int opcodeOf(List<String> tokens) {
+        if (tokens.isEmpty()) {
+            return -1;
+        }
+        String verb = tokens.get(0).toLowerCase(Locale.ROOT);
+        Integer opcode = OPCODES.get(verb);
+        if (opcode == null && tokens.size() > 1) {
+            opcode = OPCODES.get(verb + " " + tokens.get(1).toLowerCase(Locale.ROOT));
+        }
+        return opcode != null ? opcode : -1;
+    }
+
+    /**
+     * Compile a text script into its binary form. Comments and blank lines are dropped
+     * @param source text script
+     * @param target compiled script, replaced if it exists
+     * @return number of commands compiled
+     * @throws CommandException if a line is not a recognized command
+     * @throws IOException
+     */
+    public static int compile(Path source, Path target) throws CommandException, IOException {
+        Map<String, Integer> strings = new HashMap<>();
+        List<String> stringTable = new ArrayList<>();
+        int commands = 0;
+
+        //Records are written to a temporary file first because the string table must precede them
+        Path records = Files.createTempFile(target.toAbsolutePath().getParent(), "records", ".tmp");
+        try {
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(Files.newInputStream(source), StandardCharsets.UTF_8), BUFFER_SIZE);
+                 DataOutputStream out = new DataOutputStream(
+                         new BufferedOutputStream(Files.newOutputStream(records), BUFFER_SIZE))) {
+                String line;
+                int lineNumber = 0;
+                while ((line = reader.readLine()) != null) {
+                    lineNumber++;
+                    String trimmed = line.trim();
+                    if (trimmed.startsWith("#") || trimmed.isEmpty()) {
+                        continue;
+                    }
+
+                    List<String> tokens = CommandTokenizer.tokenize(line);
+                    int opcode = opcodeOf(tokens);
+                    if (opcode < 0) {
+                        CommandException e = new CommandException(trimmed, "Unrecognized Command");
+                        e.setLineNumber(lineNumber);
+                        throw e;
+                    }
+
+                    out.writeByte(opcode);
+                    writeVarInt(out, lineNumber);
+                    writeVarInt(out, tokens.size());
+                    for (String token : tokens) {
+                        Integer index = strings.get(token);
+                        if (index == null) {
+                            index = stringTable.size();
+                            strings.put(token, index);
+                            stringTable.add(token);
+                        }
+                        writeVarInt(out, index);
+                    }
+                    commands++;
+                }
+            }
+
+            CRC32 crc = new CRC32();
+            try (OutputStream file = new BufferedOutputStream(Files.newOutputStream(target), BUFFER_SIZE)) {
+                DataOutputStream out = new DataOutputStream(new CheckedOutputStream(file, crc));
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                writeVarInt(out, stringTable.size());
+                for (String value : stringTable) {
+                    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                    writeVarInt(out, bytes.length);
+                    out.write(bytes);
+                }
+                writeVarInt(out, commands);
+                Files.copy(records, out);
+                out.flush();
+
+                //The checksum trailer bypasses the checksummed stream
+                new DataOutputStream(file).writeLong(crc.getValue());
+            }
+        } finally {
+            Files.deleteIfExists(records);
+        }
+        return commands;
+    }
+
+    /**
+     * Verify a compiled script and pass every command to the visitor in script order
+     * @param file compiled script
+     * @param visitor
+     * @return number of commands visited
+     * @throws CommandException if the file is not a compiled script, has another version or is corrupt
+     * @throws IOException
+     */
+    public static int replay(Path file, CommandVisitor visitor) throws CommandException, IOException {
+        verify(file);
+
+        try (InputStream stream = Files.newInputStream(file)) {
+            Decoder in = new Decoder(stream);
+            in.skip(8);
+
+            String[] stringTable = new String[in.readVarInt()];
+            for (int i = 0; i < stringTable.length; i++) {
+                stringTable[i] = in.readString(in.readVarInt());
+            }
+
+            int commands = in.readVarInt();
+            for (int i = 0; i < commands; i++) {
+                int opcode = in.readByte();
+                int lineNumber = in.readVarInt();
+                String[] tokens = new String[in.readVarInt()];
+                for (int t = 0; t < tokens.length; t++) {
+                    tokens[t] = stringTable[in.readVarInt()];
+                }
+                visitor.visit(opcode, lineNumber, Arrays.asList(tokens));
+            }
+            return commands;
+        }
+    }
+
+    /**
+     * Check the header and the checksum before anything is executed
+     */
+    private static void verify(Path path) throws CommandException, IOException {
+        long size = Files.size(path);
+        if (size < 16) {
+            throw new CommandException(path.toString(), "Not A Compiled Script");
+        }
+
+        CRC32 crc = new CRC32();
+        try (InputStream file = new BufferedInputStream(Files.newInputStream(path), BUFFER_SIZE)) {
+            DataInputStream in = new DataInputStream(new CheckedInputStream(file, crc));
+            if (in.readInt() != MAGIC) {
+                throw new CommandException(path.toString(), "Not A Compiled Script");
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new CommandException(path.toString(), "Unsupported Compiled Script Version " + version);
+            }
+
+            //Checksum everything up to the trailer
+            long remaining = size - 8 - 8;
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (remaining > 0) {
+                int read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                if (read < 0) {
+                    throw new EOFException("Compiled script is truncated");
+                }
+                remaining -= read;
+            }
+            if (new DataInputStream(file).readLong() != crc.getValue()) {
+                throw new CommandException(path.toString(), "Compiled Script Checksum Mismatch");
+            }
+        }
+    }
+
+    private static void writeVarInt(DataOutput out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    /**
+     * Reads the body of a compiled script from its own buffer; replay spends most of its time here,
+     * so bytes are not pulled one call at a time through a DataInputStream
+     */
+    private static final class Decoder {
+        private final InputStream in;
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+        private int position;
+        private int limit;
+
+        private Decoder(InputStream in) {
+            this.in = in;
+        }
+
+        int readByte() throws IOException {
+            if (position == limit) {
+                fill();
+            }
+            return buffer[position++] & 0xFF;
+        }
+
+        int readVarInt() throws IOException {
+            int value = 0;
+            for (int shift = 0; shift < 32; shift += 7) {
+                int b = readByte();
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Malformed compiled script");
+        }
+
+        String readString(int length) throws IOException {
+            if (length <= limit - position) {
+                String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+                position += length;
+                return value;
+            }
+            byte[] bytes = new byte[length];
+            for (int i = 0; i < length; i++) {
+                bytes[i] = (byte) readByte();
+            }
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        void skip(int count) throws IOException {
+            for (int i = 0; i < count; i++) {
+                readByte();
+            }
+        }
+
+        private void fill() throws IOException {
+            limit = in.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                throw new EOFException("Compiled script is truncated");
+            }
+        }
+    }
+
+    /**
+     * Receives the commands of a compiled script
+     */
+    @FunctionalInterface
+    public interface CommandVisitor {
+        void visit(int opcode, int lineNumber, List<String> tokens) throws IOException;
+    }
+}
@@ -1,6 +1,7 @@
 package com.se310.store.model;
 
 import java.util.Date;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Customer class implementation representing Customer in the Store
@@ -9,7 +10,7 @@ import java.util.Date;
  * @version 1.0
  * @since   2025-09-25
  */
-public class Customer {
+public class Customer implements Versioned {
 
     private String id;
     private String firstName;
@@ -22,6 +23,8 @@ public class Customer {
     private Date lastSeen;
     // Mark basket as transient to avoid circular reference (Customer ↔ Basket)
     private transient Basket basket;
+    // Bumped on every change, for conditional requests; not serialized
+    private final transient AtomicLong version = new AtomicLong();
 
     /**
      * Constructor for Customer class
@@ -56,6 +59,7 @@ public class Customer {
      */
     public void setId(String id) {
         this.id = id;
+        version.incrementAndGet();
     }
 
     /**
@@ -72,6 +76,7 @@ public class Customer {
      */
     public void setFirstName(String firstName) {
         this.firstName = firstName;
+        version.incrementAndGet();
     }
 
     /**
@@ -88,6 +93,7 @@ public class Customer {
      */
     public void setLastName(String lastName) {
         this.lastName = lastName;
+        version.incrementAndGet();
     }
 
     /**
@@ -104,6 +110,7 @@ public class Customer {
      */
     public void setType(CustomerType type) {
         this.type = type;
+        version.incrementAndGet();
     }
 
     /**
@@ -120,6 +127,7 @@ public class Customer {
      */
     public void setEmail(String email) {
         this.email = email;
+        version.incrementAndGet();
     }
 
     /**
@@ -136,6 +144,7 @@ public class Customer {
      */
     public void setAccountAddress(String accountAddress) {
         this.accountAddress = accountAddress;
+        version.incrementAndGet();
     }
 
     /**
@@ -152,6 +161,7 @@ public class Customer {
      */
     public void setAgeGroup(CustomerAgeGroup ageGroup) {
         this.ageGroup = ageGroup;
+        version.incrementAndGet();
     }
 
     /**
@@ -168,6 +178,7 @@ public class Customer {
      */
     public void setStoreLocation(StoreLocation storeLocation) {
         this.storeLocation = storeLocation;
+        version.incrementAndGet();
     }
 
     /**
@@ -184,6 +195,7 @@ public class Customer {
      */
     public void setLastSeen(Date lastSeen) {
         this.lastSeen = lastSeen;
+        version.incrementAndGet();
     }
 
     /**
@@ -200,6 +212,16 @@ public class Customer {
      */
     public void assignBasket(Basket basket) {
         this.basket = basket;
+        version.incrementAndGet();
+    }
+
+    /**
+     * Getter method for the number of changes made to the Customer since it was created or loaded
+     * @return
+     */
+    @Override
+    public long getVersion() {
+        return version.get();
     }
 
     @Override
@@ -1,5 +1,6 @@
 package com.se310.store.model;
 
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Abstract class representing Device in the Store
@@ -9,12 +10,14 @@ package com.se310.store.model;
  * @version 1.0
  * @since   2025-09-25
  */
-public abstract class Device {
+public abstract class Device implements Versioned {
 
     private String id;
     private String name;
     private StoreLocation storeLocation;
     private String type;
+    // Bumped on every change, for conditional requests; not serialized
+    private final transient AtomicLong version = new AtomicLong();
 
 
     /**
@@ -45,6 +48,7 @@ public abstract class Device {
      */
     public void setId(String id) {
         this.id = id;
+        version.incrementAndGet();
     }
 
     /**
@@ -61,6 +65,7 @@ public abstract class Device {
      */
     public void setName(String name) {
         this.name = name;
+        version.incrementAndGet();
     }
 
     /**
@@ -77,6 +82,7 @@ public abstract class Device {
      */
     public void setStoreLocation(StoreLocation storeLocation) {
         this.storeLocation = storeLocation;
+        version.incrementAndGet();
     }
 
     /**
@@ -93,6 +99,7 @@ public abstract class Device {
      */
     public void setType(String type) {
         this.type = type;
+        version.incrementAndGet();
     }
 
     /**
@@ -101,6 +108,15 @@ public abstract class Device {
      */
     public abstract void processEvent(String event);
 
+    /**
+     * Getter method for the number of changes made to the Device since it was created or loaded
+     * @return
+     */
+    @Override
+    public long getVersion() {
+        return version.get();
+    }
+
     @Override
     public String toString() {
         return "Device{" +
@@ -1,20 +1,38 @@
 package com.se310.store.model;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
- * Inventory class implementation representing inventory on the shelf of the store
+ * Inventory class implementation representing inventory on the shelf of the store.
+ * Count changes are made with compare-and-set, so concurrent reservations of the same
+ * Inventory never oversell it and never block each other on a lock
  *
  * @author  Sergey L. Sundukovskiy
  * @version 1.0
  * @since   2025-09-25
  */
-public class Inventory {
+public class Inventory implements Versioned {
 
     private String id;
     private InventoryLocation inventoryLocation;
-    private int capacity;
-    private int count;
+    private volatile int capacity;
+    private volatile int count;
     private String productId;
     private InventoryType type;
+    // Bumped on every change, for conditional requests; not serialized
+    private final transient AtomicLong version = new AtomicLong();
+
+    private static final VarHandle COUNT;
+
+    static {
+        try {
+            COUNT = MethodHandles.lookup().findVarHandle(Inventory.class, "count", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
 
     /**
      * Constructor for the Inventory class
@@ -48,6 +66,7 @@ public class Inventory {
      */
     public void setId(String id) {
         this.id = id;
+        version.incrementAndGet();
     }
 
     /**
@@ -64,6 +83,7 @@ public class Inventory {
      */
     public void setInventoryLocation(InventoryLocation inventoryLocation) {
         this.inventoryLocation = inventoryLocation;
+        version.incrementAndGet();
     }
 
     /**
@@ -80,6 +100,7 @@ public class Inventory {
      */
     public void setCapacity(int capacity) {
         this.capacity = capacity;
+        version.incrementAndGet();
     }
 
     /**
@@ -96,6 +117,7 @@ public class Inventory {
      */
     public void setCount(int count) {
         this.count = count;
+        version.incrementAndGet();
     }
 
     /**
@@ -112,23 +134,64 @@ public class Inventory {
      */
     public void setProductId(String productId) {
         this.productId = productId;
+        version.incrementAndGet();
     }
 
     /**
      * Method for updating (incrementing or decrementing) Inventory on the shelf of the store.
      * Throws StoreException if count does not stay within allowable bounds.
-     * Method is synchronized to avoid a race condition
+     * Count is updated with compare-and-set to avoid a race condition
      * @param count
      * @throws StoreException
      */
-    synchronized public void updateInventory(int count) throws StoreException {
+    public void updateInventory(int count) throws StoreException {
 
         //Check to see if count within proper bounds
-        if(count < 0 || (this.count + count) > capacity)
+        if(count < 0 || !tryRelease(count))
             throw new StoreException("Update Inventory", "Inventory Is Smaller Than O " +
                     "or Larger Than Shelf Capacity");
+    }
 
-        this.count = this.count + count;
+    /**
+     * Atomically take units off the shelf if that many are available
+     * @param units number of units to take, must not be negative
+     * @return true if the units were taken, false if there is not enough Inventory
+     */
+    public boolean tryReserve(int units) {
+        if (units < 0) {
+            return false;
+        }
+        int current;
+        do {
+            current = count;
+            //Check to see if there is enough Inventory on the shelf
+            if (current < units) {
+                return false;
+            }
+        } while (!COUNT.weakCompareAndSet(this, current, current - units));
+        version.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Atomically put units back on the shelf if the shelf has room for them
+     * @param units number of units to put back, must not be negative
+     * @return true if the units were put back, false if that would exceed the capacity
+     */
+    public boolean tryRelease(int units) {
+        if (units < 0) {
+            return false;
+        }
+        int current;
+        do {
+            current = count;
+            //Check to see if there is enough capacity on the shelf
+            if (current + units > capacity) {
+                return false;
+            }
+        } while (!COUNT.weakCompareAndSet(this, current, current + units));
+        version.incrementAndGet();
+        return true;
     }
 
     /**
@@ -146,6 +209,16 @@ public class Inventory {
      */
     public void setType(InventoryType type) {
         this.type = type;
+        version.incrementAndGet();
+    }
+
+    /**
+     * Getter method for the number of changes made to the Inventory since it was created or loaded
+     * @return
+     */
+    @Override
+    public long getVersion() {
+        return version.get();
     }
 
     @Override
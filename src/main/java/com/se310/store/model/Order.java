@@ -0,0 +1,111 @@
+package com.se310.store.model;
+
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Order class implementation representing a checked out Basket
+ *
+ * @author  Sergey L. Sundukovskiy
+ * @version 1.0
+ * @since   2025-11-20
+ */
+public class Order {
+
+    private final String id;
+    private final String basketId;
+    private final String customerId;
+    private final String storeId;
+    private final Date createdAt;
+    private final List<OrderLine> lines;
+    private final BigDecimal total;
+    // Inventory items the ordered units were taken from, their counts are persisted with the order
+    private final transient List<Inventory> inventory;
+
+    /**
+     * Constructor for the Order class
+     * @param id
+     * @param basketId
+     * @param customerId
+     * @param storeId
+     * @param createdAt
+     * @param lines
+     */
+    public Order(String id, String basketId, String customerId, String storeId, Date createdAt, List<OrderLine> lines) {
+        this(id, basketId, customerId, storeId, createdAt, lines, List.of());
+    }
+
+    /**
+     * Constructor for the Order class with the Inventory items the ordered units were taken from
+     * @param id
+     * @param basketId
+     * @param customerId
+     * @param storeId
+     * @param createdAt
+     * @param lines
+     * @param inventory
+     */
+    public Order(String id, String basketId, String customerId, String storeId, Date createdAt, List<OrderLine> lines,
+                 List<Inventory> inventory) {
+        this.id = id;
+        this.basketId = basketId;
+        this.customerId = customerId;
+        this.storeId = storeId;
+        this.createdAt = createdAt;
+        this.lines = List.copyOf(lines);
+        this.inventory = List.copyOf(inventory);
+        this.total = this.lines.stream()
+                .map(OrderLine::getLineTotal)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getBasketId() {
+        return basketId;
+    }
+
+    public String getCustomerId() {
+        return customerId;
+    }
+
+    public String getStoreId() {
+        return storeId;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public List<OrderLine> getLines() {
+        return lines;
+    }
+
+    /**
+     * Get the total price of all the lines
+     * @return
+     */
+    public BigDecimal getTotal() {
+        return total;
+    }
+
+    public List<Inventory> getInventory() {
+        return inventory;
+    }
+
+    @Override
+    public String toString() {
+        return "Order{" +
+                "id='" + id + '\'' +
+                ", basketId='" + basketId + '\'' +
+                ", customerId='" + customerId + '\'' +
+                ", storeId='" + storeId + '\'' +
+                ", createdAt=" + createdAt +
+                ", lines=" + lines +
+                ", total=" + total +
+                '}';
+    }
+}
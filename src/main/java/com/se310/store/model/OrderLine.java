@@ -0,0 +1,70 @@
+package com.se310.store.model;
+
+import java.math.BigDecimal;
+
+/**
+ * OrderLine class implementation representing a single Product line of a checked out Order
+ *
+ * @author  Sergey L. Sundukovskiy
+ * @version 1.0
+ * @since   2025-11-20
+ */
+public class OrderLine {
+
+    private final String productId;
+    private final int quantity;
+    private final BigDecimal unitPrice;
+
+    /**
+     * Constructor for the OrderLine class
+     * @param productId
+     * @param quantity
+     * @param unitPrice
+     */
+    public OrderLine(String productId, int quantity, BigDecimal unitPrice) {
+        this.productId = productId;
+        this.quantity = quantity;
+        this.unitPrice = unitPrice;
+    }
+
+    /**
+     * Getter method for the Product of the line
+     * @return
+     */
+    public String getProductId() {
+        return productId;
+    }
+
+    /**
+     * Getter method for the number of units bought
+     * @return
+     */
+    public int getQuantity() {
+        return quantity;
+    }
+
+    /**
+     * Getter method for the price of a single unit at checkout
+     * @return
+     */
+    public BigDecimal getUnitPrice() {
+        return unitPrice;
+    }
+
+    /**
+     * Get the price of the whole line
+     * @return
+     */
+    public BigDecimal getLineTotal() {
+        return unitPrice.multiply(BigDecimal.valueOf(quantity));
+    }
+
+    @Override
+    public String toString() {
+        return "OrderLine{" +
+                "productId='" + productId + '\'' +
+                ", quantity=" + quantity +
+                ", unitPrice=" + unitPrice +
+                '}';
+    }
+}
@@ -0,0 +1,117 @@
+package com.se310.store.model;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ScriptProgress class implementation for tracking the execution of a command script
+ *
+ * Line numbers count every line of the file, including comments and blank lines, so a run that stopped
+ * early can be resumed from {@link #getResumeLine()}.
+ *
+ * @author  Sergey L. Sundukovskiy
+ * @version 1.0
+ * @since   2025-11-20
+ */
+public class ScriptProgress {
+
+    private final String fileName;
+    private final long startLine;
+    private final long startNanos = System.nanoTime();
+    private volatile long lastLine;
+    // Commands may complete on several threads in parallel mode
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private volatile boolean complete;
+
+    /**
+     * Constructor for the ScriptProgress class
+     * @param fileName
+     * @param startLine first line executed
+     */
+    public ScriptProgress(String fileName, long startLine) {
+        this.fileName = fileName;
+        this.startLine = startLine;
+        this.lastLine = startLine - 1;
+    }
+
+    /**
+     * Record a line that has been read, whether or not it was executed
+     * @param lineNumber
+     */
+    void lineRead(long lineNumber) {
+        this.lastLine = lineNumber;
+    }
+
+    void commandExecuted() {
+        executed.increment();
+    }
+
+    void commandFailed() {
+        failed.increment();
+    }
+
+    void markComplete() {
+        complete = true;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public long getStartLine() {
+        return startLine;
+    }
+
+    /**
+     * Getter method for the last line read
+     * @return
+     */
+    public long getLastLine() {
+        return lastLine;
+    }
+
+    /**
+     * Getter method for the line to pass as start line to continue this run
+     * @return
+     */
+    public long getResumeLine() {
+        return lastLine + 1;
+    }
+
+    public long getExecuted() {
+        return executed.sum();
+    }
+
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    public long getElapsedMillis() {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    /**
+     * Lines read per second since the run started
+     * @return
+     */
+    public long getLinesPerSecond() {
+        long lines = lastLine - startLine + 1;
+        return lines * 1000 / Math.max(1, getElapsedMillis());
+    }
+
+    @Override
+    public String toString() {
+        return "ScriptProgress{" +
+                "fileName='" + fileName + '\'' +
+                ", lines=" + startLine + ".." + lastLine +
+                ", executed=" + getExecuted() +
+                ", failed=" + getFailed() +
+                ", linesPerSecond=" + getLinesPerSecond() +
+                ", complete=" + complete +
+                '}';
+    }
+}
@@ -1,7 +1,7 @@
 package com.se310.store.model;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Shelf class implementation representing shelf of the Aisle
@@ -18,6 +18,8 @@ public class Shelf {
     private String description;
     private Temperature temperature;
     private final Map<String, Inventory> inventoryMap;
+    // Aisle the Shelf belongs to, transient to avoid circular references during JSON serialization
+    private transient Aisle aisle;
 
     /**
      * Constructor for the Shelf class
@@ -33,7 +35,7 @@ public class Shelf {
         this.level = level;
         this.description = description;
         this.temperature = temperature;
-        this.inventoryMap = new HashMap<>();
+        this.inventoryMap = new ConcurrentHashMap<>();
     }
 
     /**
@@ -146,9 +148,21 @@ public class Shelf {
         if(inventoryMap.putIfAbsent(inventoryId,inventory) != null)
             throw new StoreException("Add Inventory", "Inventory Already Exists");
 
+        //Keep the Aisle Product index up to date
+        if(aisle != null)
+            aisle.indexInventory(inventory);
+
         return inventory;
     }
 
+    /**
+     * Set the Aisle the Shelf belongs to; called by Aisle when the Shelf is added to it
+     * @param aisle
+     */
+    void setAisle(Aisle aisle) {
+        this.aisle = aisle;
+    }
+
     /**
      * Method for getting a Map of Inventory items that belong to the Store
      * @return
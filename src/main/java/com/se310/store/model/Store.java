@@ -1,6 +1,8 @@
 package com.se310.store.model;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Store class implementation representing store of the Store Model Service
@@ -9,7 +11,7 @@ import java.util.*;
  * @version 1.0
  * @since   2025-09-25
  */
-public class Store {
+public class Store implements Versioned {
 
     private String id;
     private String address;
@@ -20,6 +22,9 @@ public class Store {
     private final transient Map<String, Customer> customerMap;
     private final transient Map<String, Inventory> inventoryMap;
     private final transient Map<String, Basket> basketMap;
+    // Bumped when the id, address or description change, the fields a Store is served with; not serialized.
+    // Aisles, Customers and the other collections are served on their own, so changes to them leave it alone
+    private final transient AtomicLong version = new AtomicLong();
 
     /**
      * Constructor for the Store class
@@ -31,11 +36,11 @@ public class Store {
         this.id = id;
         this.address = address;
         this.description = description;
-        this.aislesMap = new HashMap<>();
-        this.deviceMap = new HashMap<>();
-        this.customerMap = new HashMap<>();
-        this.inventoryMap = new HashMap<>();
-        this.basketMap = new HashMap<>();
+        this.aislesMap = new ConcurrentHashMap<>();
+        this.deviceMap = new ConcurrentHashMap<>();
+        this.customerMap = new ConcurrentHashMap<>();
+        this.inventoryMap = new ConcurrentHashMap<>();
+        this.basketMap = new ConcurrentHashMap<>();
     }
 
     /**
@@ -52,6 +57,7 @@ public class Store {
      */
     public void setId(String id) {
         this.id = id;
+        version.incrementAndGet();
     }
 
     /**
@@ -68,6 +74,7 @@ public class Store {
      */
     public void setAddress(String address) {
         this.address = address;
+        version.incrementAndGet();
     }
 
     /**
@@ -84,6 +91,7 @@ public class Store {
      */
     public void setDescription(String description) {
         this.description = description;
+        version.incrementAndGet();
     }
 
     /**
@@ -105,6 +113,31 @@ public class Store {
         return aisle;
     }
 
+    /**
+     * Method for checking whether the Store has an Aisle, without the cost of an exception when it does not
+     * @param aisleNumber
+     * @return
+     */
+    public boolean hasAisle(String aisleNumber) {
+        return aisleNumber != null && this.aislesMap.containsKey(aisleNumber);
+    }
+
+    /**
+     * Add an already built Aisle (for example one restored from the database) to the Store.
+     * If Aisle already exists in the store throw StoreException
+     * @param aisle
+     * @return
+     * @throws StoreException
+     */
+    public Aisle addAisle(Aisle aisle) throws StoreException {
+
+        //Check to see if Aisle already exists
+        if(this.aislesMap.putIfAbsent(aisle.getNumber(),aisle) != null)
+            throw new StoreException("Add Aisle", "Aisle Already Exists");
+
+        return aisle;
+    }
+
     /**
      * Get Aisle from the Store. If Aisle does not exist throw StoreException
      * @param aisleNumber
@@ -113,13 +146,13 @@ public class Store {
      */
     public Aisle getAisle(String aisleNumber) throws StoreException {
 
-        Aisle aisle = this.aislesMap.get(aisleNumber);
+        Aisle aisle = aisleNumber == null ? null : this.aislesMap.get(aisleNumber);
         //Check to see if Aisle exists in the Store
         if(aisle == null){
             throw new StoreException("Get Aisle", "Aisle Does Not Exist");
         }
 
-        return this.aislesMap.get(aisleNumber);
+        return aisle;
     }
 
     /**
@@ -181,7 +214,7 @@ public class Store {
      * @return
      */
     public Customer getCustomer(String customerId){
-        return this.customerMap.get(customerId);
+        return customerId == null ? null : this.customerMap.get(customerId);
     }
 
     /**
@@ -190,9 +223,41 @@ public class Store {
      */
     public void removeCustomer(Customer customer){
 
-        if(this.customerMap.get(customer.getId()) == null){
-            this.customerMap.remove(customer.getId());
+        this.customerMap.remove(customer.getId(), customer);
+    }
+
+    /**
+     * Get the number of units currently on the shelves of the Store
+     * @return
+     */
+    public long getOnShelfUnits() {
+        long units = 0;
+        for (Inventory inventory : this.inventoryMap.values()) {
+            units += inventory.getCount();
         }
+        return units;
+    }
+
+    /**
+     * Get the number of units taken off the shelves and held in the Baskets of the Store
+     * @return
+     */
+    public long getReservedUnits() {
+        long units = 0;
+        for (Basket basket : this.basketMap.values()) {
+            units += basket.getReservedUnits();
+        }
+        return units;
+    }
+
+    /**
+     * Getter method for the number of changes made to the id, address or description of the Store since it was
+     * created or loaded
+     * @return
+     */
+    @Override
+    public long getVersion() {
+        return version.get();
     }
 
     @Override
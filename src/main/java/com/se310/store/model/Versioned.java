@@ -0,0 +1,20 @@
+package com.se310.store.model;
+
+/**
+ * Versioned interface for model entities that count their own mutations
+ *
+ * The version starts at zero when the entity is created or loaded and grows by one on every change,
+ * so two reads returning the same version saw the same state. It is not persisted.
+ *
+ * @author  Sergey L. Sundukovskiy
+ * @version 1.0
+ * @since   2025-11-20
+ */
+public interface Versioned {
+
+    /**
+     * Getter method for the number of changes made to the entity since it was created or loaded
+     * @return
+     */
+    long getVersion();
+}
@@ -0,0 +1,325 @@
+package com.se310.store.service;
+
+import com.se310.store.model.Store;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * CustomerLocationIngestor - High-frequency path for Customer positions reported by camera Sensors.
+ *
+ * Batches of position updates are applied, last write wins, to a compact position table per Store.
+ * Once a Store has its table and a Customer has a slot in it, applying an update allocates nothing
+ * and takes only the lock of that Store's table. Customers and the database are brought up to date
+ * by periodic snapshots: every interval the positions changed since the previous snapshot are
+ * handed to a SnapshotWriter, which updates the Customers and persists them in one batch.
+ *
+ * @author  Sergey L. Sundukovskiy
+ * @version 1.0
+ * @since   2025-11-20
+ */
+public class CustomerLocationIngestor {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomerLocationIngestor.class);
+
+    private final Function<String, Store> storeLookup;
+    private final Predicate<String> customerLookup;
+    private final SnapshotWriter writer;
+    private final int tableCapacity;
+
+    private final Map<String, CustomerPositionTable> tables = new ConcurrentHashMap<>();
+    // Store of the position last snapshotted for each Customer
+    private final Map<String, String> snapshotStores = new ConcurrentHashMap<>();
+    private final ReentrantLock snapshotLock = new ReentrantLock();
+    private final ScheduledExecutorService scheduler;
+
+    // Ingestion metrics
+    private final LongAdder applied = new LongAdder();
+    private final LongAdder stale = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder snapshots = new LongAdder();
+
+    /**
+     * Constructor for the CustomerLocationIngestor class. Starts the background snapshot thread
+     * @param storeLookup resolves a Store id to the current Store
+     * @param customerLookup tells whether a Customer exists
+     * @param writer applies and persists a snapshot of changed positions
+     * @param snapshotMillis interval between snapshots
+     * @param tableCapacity initial number of Customers per Store table
+     */
+    public CustomerLocationIngestor(Function<String, Store> storeLookup, Predicate<String> customerLookup,
+                                    SnapshotWriter writer, long snapshotMillis, int tableCapacity) {
+        this.storeLookup = storeLookup;
+        this.customerLookup = customerLookup;
+        this.writer = writer;
+        this.tableCapacity = tableCapacity;
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "customer-location-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.scheduleWithFixedDelay(this::snapshot, snapshotMillis, snapshotMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Apply a batch of position updates. Updates for unknown Stores, Aisles or Customers are rejected,
+     * updates older than the known position of the Customer in that Store are ignored
+     * @param batch
+     * @return number of updates applied
+     */
+    public int ingest(LocationBatch batch) {
+        int appliedCount = 0;
+        int staleCount = 0;
+        int rejectedCount = 0;
+        CustomerPositionTable table = null;
+        try {
+            for (int i = 0; i < batch.size(); i++) {
+                String customerId = batch.getCustomerId(i);
+                String storeId = batch.getStoreId(i);
+                String aisleNumber = batch.getAisleNumber(i);
+                if (!isKnown(customerId, storeId, aisleNumber)) {
+                    rejectedCount++;
+                    continue;
+                }
+
+                //Consecutive updates for the same Store share one lock acquisition
+                if (table == null || !table.getStoreId().equals(storeId)) {
+                    if (table != null) {
+                        table.lock.unlock();
+                    }
+                    table = tableFor(storeId);
+                    table.lock.lock();
+                }
+
+                if (table.put(customerId, aisleNumber, batch.getTimestamp(i))) {
+                    appliedCount++;
+                } else {
+                    staleCount++;
+                }
+            }
+        } finally {
+            if (table != null) {
+                table.lock.unlock();
+            }
+        }
+
+        applied.add(appliedCount);
+        stale.add(staleCount);
+        rejected.add(rejectedCount);
+        return appliedCount;
+    }
+
+    /**
+     * Hand every position changed since the previous snapshot to the SnapshotWriter. Called by the
+     * background thread; may also be called directly, for example before shutdown. If the write fails
+     * the positions stay changed, so the next snapshot writes them again
+     * @return number of Customer positions written
+     */
+    public int snapshot() {
+        snapshotLock.lock();
+        List<Position> changed = new ArrayList<>();
+        try {
+            for (CustomerPositionTable table : tables.values()) {
+                table.lock.lock();
+                try {
+                    table.drainDirty((storeId, customerId, aisleNumber, seenAt) ->
+                            changed.add(new Position(customerId, storeId, aisleNumber, seenAt)));
+                } finally {
+                    table.lock.unlock();
+                }
+            }
+            if (changed.isEmpty()) {
+                return 0;
+            }
+
+            //Last write wins across Stores as well: keep only the latest position of each Customer
+            Map<String, Position> latest = new HashMap<>();
+            for (Position position : changed) {
+                latest.merge(position.getCustomerId(), position,
+                        (known, candidate) -> candidate.getSeenAt() >= known.getSeenAt() ? candidate : known);
+            }
+
+            writer.write(new ArrayList<>(latest.values()));
+
+            //Written, now forget Customers in the Stores they have since left
+            for (Position position : changed) {
+                Position current = latest.get(position.getCustomerId());
+                if (position != current) {
+                    removeFromTable(position.getStoreId(), position.getCustomerId(), current.getSeenAt());
+                }
+            }
+            for (Position position : latest.values()) {
+                String previous = snapshotStores.put(position.getCustomerId(), position.getStoreId());
+                if (previous != null && !previous.equals(position.getStoreId())) {
+                    removeFromTable(previous, position.getCustomerId(), position.getSeenAt());
+                }
+            }
+
+            snapshots.increment();
+            return latest.size();
+        } catch (SQLException | RuntimeException e) {
+            logger.error("Customer location snapshot failed: {}", e.getMessage());
+            //Keep the positions for the next snapshot, including those in Stores the Customer has left
+            for (Position position : changed) {
+                CustomerPositionTable table = tables.get(position.getStoreId());
+                if (table != null) {
+                    table.lock.lock();
+                    try {
+                        table.markDirty(position.getCustomerId());
+                    } finally {
+                        table.lock.unlock();
+                    }
+                }
+            }
+            return 0;
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    /**
+     * Get the latest ingested position of a Customer in a Store, null if none
+     * @param storeId
+     * @param customerId
+     * @return
+     */
+    public Position getPosition(String storeId, String customerId) {
+        CustomerPositionTable table = tables.get(storeId);
+        if (table == null || customerId == null) {
+            return null;
+        }
+        table.lock.lock();
+        try {
+            String aisleNumber = table.getAisleNumber(customerId);
+            return aisleNumber != null
+                    ? new Position(customerId, storeId, aisleNumber, table.getSeenAt(customerId)) : null;
+        } finally {
+            table.lock.unlock();
+        }
+    }
+
+    /**
+     * Drop the position table of a deleted Store
+     * @param storeId
+     */
+    public void removeStore(String storeId) {
+        tables.remove(storeId);
+    }
+
+    /**
+     * Drop all position tables
+     */
+    public void clear() {
+        snapshotLock.lock();
+        try {
+            tables.clear();
+            snapshotStores.clear();
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    public long getApplied() {
+        return applied.sum();
+    }
+
+    public long getStale() {
+        return stale.sum();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public long getSnapshots() {
+        return snapshots.sum();
+    }
+
+    /**
+     * Stop the background snapshot thread
+     */
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    private boolean isKnown(String customerId, String storeId, String aisleNumber) {
+        if (customerId == null || storeId == null || aisleNumber == null) {
+            return false;
+        }
+        Store store = storeLookup.apply(storeId);
+        return store != null && store.hasAisle(aisleNumber) && customerLookup.test(customerId);
+    }
+
+    private CustomerPositionTable tableFor(String storeId) {
+        CustomerPositionTable table = tables.get(storeId);
+        return table != null ? table
+                : tables.computeIfAbsent(storeId, id -> new CustomerPositionTable(id, tableCapacity));
+    }
+
+    private void removeFromTable(String storeId, String customerId, long notAfter) {
+        CustomerPositionTable table = tables.get(storeId);
+        if (table != null) {
+            table.lock.lock();
+            try {
+                table.remove(customerId, notAfter);
+            } finally {
+                table.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Applies a snapshot of changed positions to the Customers and persists them
+     */
+    @FunctionalInterface
+    public interface SnapshotWriter {
+        void write(List<Position> positions) throws SQLException;
+    }
+
+    /**
+     * Position of a Customer at a point in time
+     */
+    public static final class Position {
+        private final String customerId;
+        private final String storeId;
+        private final String aisleNumber;
+        private final long seenAt;
+
+        Position(String customerId, String storeId, String aisleNumber, long seenAt) {
+            this.customerId = customerId;
+            this.storeId = storeId;
+            this.aisleNumber = aisleNumber;
+            this.seenAt = seenAt;
+        }
+
+        public String getCustomerId() {
+            return customerId;
+        }
+
+        public String getStoreId() {
+            return storeId;
+        }
+
+        public String getAisleNumber() {
+            return aisleNumber;
+        }
+
+        public long getSeenAt() {
+            return seenAt;
+        }
+    }
+}
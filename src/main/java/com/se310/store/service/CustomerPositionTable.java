@@ -0,0 +1,228 @@
+package com.se310.store.service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * CustomerPositionTable - Latest known position of every Customer seen in one Store.
+ *
+ * Positions are kept in parallel primitive arrays indexed by an open-addressed hash of the Customer id,
+ * and Aisle numbers are stored once per table and referenced by a small integer code. Updating the
+ * position of a Customer already in the table allocates nothing; the arrays only grow when new Customers
+ * push the table past its load factor.
+ *
+ * The table is not thread-safe by itself; callers hold {@link #lock} around every access.
+ *
+ * @author  Sergey L. Sundukovskiy
+ * @version 1.0
+ * @since   2025-11-20
+ */
+final class CustomerPositionTable {
+
+    final ReentrantLock lock = new ReentrantLock();
+
+    private final String storeId;
+    private String[] customerIds;
+    private int[] aisleCodes;
+    private long[] seenAt;
+    // Positions changed since the last snapshot
+    private boolean[] dirty;
+    private int size;
+
+    private final Map<String, Integer> aisleCodeMap = new HashMap<>();
+    private String[] aisleNumbers = new String[8];
+
+    /**
+     * Constructor for the CustomerPositionTable class
+     * @param storeId
+     * @param capacity expected number of Customers, rounded up to a power of two
+     */
+    CustomerPositionTable(String storeId, int capacity) {
+        this.storeId = storeId;
+        allocate(Integer.highestOneBit(Math.max(8, capacity * 2 - 1)));
+    }
+
+    String getStoreId() {
+        return storeId;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Record the position of a Customer unless a later one is already known
+     * @param customerId
+     * @param aisleNumber
+     * @param timestamp time the Customer was seen, in milliseconds
+     * @return true if the position was recorded, false if it is older than the known one
+     */
+    boolean put(String customerId, String aisleNumber, long timestamp) {
+        int slot = find(customerId);
+        if (customerIds[slot] != null) {
+            //Last write wins
+            if (timestamp < seenAt[slot]) {
+                return false;
+            }
+        } else {
+            if ((size + 1) * 4 > customerIds.length * 3) {
+                grow();
+                slot = find(customerId);
+            }
+            customerIds[slot] = customerId;
+            size++;
+        }
+        aisleCodes[slot] = aisleCode(aisleNumber);
+        seenAt[slot] = timestamp;
+        dirty[slot] = true;
+        return true;
+    }
+
+    /**
+     * Get the Aisle a Customer was last seen in, null if the Customer is not in the table
+     */
+    String getAisleNumber(String customerId) {
+        int slot = find(customerId);
+        return customerIds[slot] != null ? aisleNumbers[aisleCodes[slot]] : null;
+    }
+
+    /**
+     * Get the time a Customer was last seen, -1 if the Customer is not in the table
+     */
+    long getSeenAt(String customerId) {
+        int slot = find(customerId);
+        return customerIds[slot] != null ? seenAt[slot] : -1;
+    }
+
+    /**
+     * Remove a Customer that has moved to another Store, unless the position here is newer than the move
+     * @param customerId
+     * @param notAfter time of the position in the other Store
+     * @return true if the Customer was removed
+     */
+    boolean remove(String customerId, long notAfter) {
+        int slot = find(customerId);
+        if (customerIds[slot] == null || seenAt[slot] > notAfter) {
+            return false;
+        }
+
+        //Backward-shift deletion keeps every probe sequence unbroken without tombstones
+        int mask = customerIds.length - 1;
+        int next = slot;
+        while (true) {
+            next = (next + 1) & mask;
+            if (customerIds[next] == null) {
+                break;
+            }
+            int home = indexOf(customerIds[next]);
+            boolean staysPut = slot <= next ? (slot < home && home <= next) : (slot < home || home <= next);
+            if (!staysPut) {
+                customerIds[slot] = customerIds[next];
+                aisleCodes[slot] = aisleCodes[next];
+                seenAt[slot] = seenAt[next];
+                dirty[slot] = dirty[next];
+                slot = next;
+            }
+        }
+        customerIds[slot] = null;
+        dirty[slot] = false;
+        size--;
+        return true;
+    }
+
+    /**
+     * Mark the position of a Customer as changed again, for example after writing it failed
+     * @param customerId
+     */
+    void markDirty(String customerId) {
+        int slot = find(customerId);
+        if (customerIds[slot] != null) {
+            dirty[slot] = true;
+        }
+    }
+
+    /**
+     * Pass every position changed since the previous call to the visitor and mark it clean
+     * @param visitor
+     * @return number of positions visited
+     */
+    int drainDirty(PositionVisitor visitor) {
+        int drained = 0;
+        for (int slot = 0; slot < customerIds.length; slot++) {
+            if (dirty[slot]) {
+                dirty[slot] = false;
+                visitor.visit(storeId, customerIds[slot], aisleNumbers[aisleCodes[slot]], seenAt[slot]);
+                drained++;
+            }
+        }
+        return drained;
+    }
+
+    private int aisleCode(String aisleNumber) {
+        Integer code = aisleCodeMap.get(aisleNumber);
+        if (code != null) {
+            return code;
+        }
+        int newCode = aisleCodeMap.size();
+        if (newCode == aisleNumbers.length) {
+            String[] grown = new String[newCode * 2];
+            System.arraycopy(aisleNumbers, 0, grown, 0, newCode);
+            aisleNumbers = grown;
+        }
+        aisleNumbers[newCode] = aisleNumber;
+        aisleCodeMap.put(aisleNumber, newCode);
+        return newCode;
+    }
+
+    /**
+     * Slot holding the Customer, or the empty slot where it belongs
+     */
+    private int find(String customerId) {
+        int mask = customerIds.length - 1;
+        int slot = indexOf(customerId);
+        while (customerIds[slot] != null && !customerIds[slot].equals(customerId)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private int indexOf(String customerId) {
+        int h = customerId.hashCode();
+        h ^= (h >>> 16);
+        return h & (customerIds.length - 1);
+    }
+
+    private void allocate(int capacity) {
+        customerIds = new String[capacity];
+        aisleCodes = new int[capacity];
+        seenAt = new long[capacity];
+        dirty = new boolean[capacity];
+    }
+
+    private void grow() {
+        String[] oldCustomerIds = customerIds;
+        int[] oldAisleCodes = aisleCodes;
+        long[] oldSeenAt = seenAt;
+        boolean[] oldDirty = dirty;
+
+        allocate(oldCustomerIds.length * 2);
+        for (int i = 0; i < oldCustomerIds.length; i++) {
+            if (oldCustomerIds[i] != null) {
+                int slot = find(oldCustomerIds[i]);
+                customerIds[slot] = oldCustomerIds[i];
+                aisleCodes[slot] = oldAisleCodes[i];
+                seenAt[slot] = oldSeenAt[i];
+                dirty[slot] = oldDirty[i];
+            }
+        }
+    }
+
+    /**
+     * Receives the positions drained from a table
+     */
+    @FunctionalInterface
+    interface PositionVisitor {
+        void visit(String storeId, String customerId, String aisleNumber, long seenAt);
+    }
+}
@@ -0,0 +1,92 @@
+package com.se310.store.service;
+
+import java.util.Arrays;
+
+/**
+ * LocationBatch - Reusable buffer of Customer position updates reported by camera Sensors.
+ *
+ * Updates are held in parallel arrays of fixed capacity, so a producer can fill, submit and clear
+ * the same batch over and over without allocating.
+ *
+ * @author  Sergey L. Sundukovskiy
+ * @version 1.0
+ * @since   2025-11-20
+ */
+public final class LocationBatch {
+
+    private final String[] customerIds;
+    private final String[] storeIds;
+    private final String[] aisleNumbers;
+    private final long[] timestamps;
+    private int size;
+
+    /**
+     * Constructor for the LocationBatch class
+     * @param capacity maximum number of updates in the batch
+     */
+    public LocationBatch(int capacity) {
+        this.customerIds = new String[capacity];
+        this.storeIds = new String[capacity];
+        this.aisleNumbers = new String[capacity];
+        this.timestamps = new long[capacity];
+    }
+
+    /**
+     * Add a position update to the batch
+     * @param customerId
+     * @param storeId
+     * @param aisleNumber
+     * @param timestamp time the Customer was seen, in milliseconds
+     * @return false if the batch is full and the update was not added
+     */
+    public boolean add(String customerId, String storeId, String aisleNumber, long timestamp) {
+        if (size == customerIds.length) {
+            return false;
+        }
+        customerIds[size] = customerId;
+        storeIds[size] = storeId;
+        aisleNumbers[size] = aisleNumber;
+        timestamps[size] = timestamp;
+        size++;
+        return true;
+    }
+
+    /**
+     * Empty the batch so it can be filled again
+     */
+    public void clear() {
+        //Drop references so submitted ids can be collected
+        Arrays.fill(customerIds, 0, size, null);
+        Arrays.fill(storeIds, 0, size, null);
+        Arrays.fill(aisleNumbers, 0, size, null);
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return customerIds.length;
+    }
+
+    public boolean isFull() {
+        return size == customerIds.length;
+    }
+
+    String getCustomerId(int index) {
+        return customerIds[index];
+    }
+
+    String getStoreId(int index) {
+        return storeIds[index];
+    }
+
+    String getAisleNumber(int index) {
+        return aisleNumbers[index];
+    }
+
+    long getTimestamp(int index) {
+        return timestamps[index];
+    }
+}
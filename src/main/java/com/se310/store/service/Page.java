@@ -0,0 +1,72 @@
+package com.se310.store.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Page - One page of an ordered listing, together with the opaque cursor of the page that follows it
+ *
+ * The cursor encodes the id of the last item on the page; clients pass it back unchanged as
+ * {@code after} to continue the listing from that point.
+ *
+ * @author  Sergey L. Sundukovskiy
+ * @version 1.0
+ * @since   2025-11-20
+ */
+public final class Page<T> {
+
+    private final List<T> items;
+    private final String nextCursor;
+
+    Page(List<T> items, String lastId) {
+        this.items = items;
+        this.nextCursor = lastId != null ? encodeCursor(lastId) : null;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * Getter method for the cursor of the next page
+     * @return cursor, null if this is the last page
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * Encode an id as an opaque cursor
+     * @param id
+     * @return
+     */
+    public static String encodeCursor(String id) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(id.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode an opaque cursor back to the id it was made from
+     * @param cursor
+     * @return id, null if the cursor is null or empty
+     * @throws IllegalArgumentException if the cursor was not produced by {@link #encodeCursor(String)}
+     */
+    public static String decodeCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Page{" +
+                "items=" + items.size() +
+                ", nextCursor='" + nextCursor + '\'' +
+                '}';
+    }
+}
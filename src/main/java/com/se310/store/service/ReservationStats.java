@@ -0,0 +1,73 @@
+package com.se310.store.service;
+
+/**
+ * ReservationStats - Point-in-time view of reserved versus on-shelf inventory for a Store,
+ * together with the totals of the reservation sweeper
+ *
+ * @author  Sergey L. Sundukovskiy
+ * @version 1.0
+ * @since   2025-11-20
+ */
+public final class ReservationStats {
+
+    private final String storeId;
+    private final long onShelfUnits;
+    private final long reservedUnits;
+    private final long expiredBaskets;
+    private final long releasedUnits;
+
+    ReservationStats(String storeId, long onShelfUnits, long reservedUnits, long expiredBaskets, long releasedUnits) {
+        this.storeId = storeId;
+        this.onShelfUnits = onShelfUnits;
+        this.reservedUnits = reservedUnits;
+        this.expiredBaskets = expiredBaskets;
+        this.releasedUnits = releasedUnits;
+    }
+
+    public String getStoreId() {
+        return storeId;
+    }
+
+    /**
+     * Units currently on the shelves of the Store
+     * @return
+     */
+    public long getOnShelfUnits() {
+        return onShelfUnits;
+    }
+
+    /**
+     * Units taken off the shelves and held in Baskets of the Store
+     * @return
+     */
+    public long getReservedUnits() {
+        return reservedUnits;
+    }
+
+    /**
+     * Baskets expired by the sweeper across all Stores
+     * @return
+     */
+    public long getExpiredBaskets() {
+        return expiredBaskets;
+    }
+
+    /**
+     * Units returned to the shelves by expired reservations across all Stores
+     * @return
+     */
+    public long getReleasedUnits() {
+        return releasedUnits;
+    }
+
+    @Override
+    public String toString() {
+        return "ReservationStats{" +
+                "storeId='" + storeId + '\'' +
+                ", onShelfUnits=" + onShelfUnits +
+                ", reservedUnits=" + reservedUnits +
+                ", expiredBaskets=" + expiredBaskets +
+                ", releasedUnits=" + releasedUnits +
+                '}';
+    }
+}
@@ -0,0 +1,250 @@
+package com.se310.store.service;
+
+import com.se310.store.model.Basket;
+import com.se310.store.model.Customer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * ReservationSweeper - Returns products held in abandoned Baskets to the shelves.
+ *
+ * A Basket reservation expires a fixed time after its Customer was last seen, or after products were
+ * last added to it, whichever is later. Baskets holding
+ * products are tracked in a hashed timer wheel: every tick only the slot whose time has come is
+ * visited, so the cost of a sweep is proportional to the baskets due in that slot, not to all baskets.
+ * When a due Basket turns out to have been seen again meanwhile it is moved to its new slot instead
+ * of being expired.
+ *
+ * The background thread is started on demand, and time is read from an injected clock so that sweeps
+ * can be driven directly.
+ *
+ * @author  Sergey L. Sundukovskiy
+ * @version 1.0
+ * @since   2025-11-20
+ */
+public class ReservationSweeper {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReservationSweeper.class);
+
+    private final Function<String, Basket> basketLookup;
+    private final LongSupplier clock;
+    private final long ttlMillis;
+    private final long tickMillis;
+    private final List<List<Entry>> wheel;
+    private final ReentrantLock lock = new ReentrantLock();
+    // Baskets currently in the wheel, so each Basket is tracked at most once
+    private final Map<String, Boolean> tracked = new ConcurrentHashMap<>();
+    private volatile ScheduledExecutorService scheduler;
+    private long lastTick;
+
+    // Sweeper metrics
+    private final LongAdder expiredBaskets = new LongAdder();
+    private final LongAdder releasedUnits = new LongAdder();
+
+    /**
+     * Constructor for the ReservationSweeper class. The background thread is started by start()
+     * @param basketLookup resolves a Basket id to the current Basket
+     * @param ttlMillis time after the Customer was last seen before the reservation expires
+     * @param tickMillis resolution of the timer wheel
+     * @param wheelSize number of slots in the timer wheel
+     */
+    public ReservationSweeper(Function<String, Basket> basketLookup, long ttlMillis, long tickMillis, int wheelSize) {
+        this(basketLookup, ttlMillis, tickMillis, wheelSize, System::currentTimeMillis);
+    }
+
+    /**
+     * Constructor for the ReservationSweeper class with the clock the sweeps read the time from
+     * @param clock current time in milliseconds
+     */
+    ReservationSweeper(Function<String, Basket> basketLookup, long ttlMillis, long tickMillis, int wheelSize,
+                       LongSupplier clock) {
+        this.basketLookup = basketLookup;
+        this.clock = clock;
+        this.ttlMillis = ttlMillis;
+        this.tickMillis = tickMillis;
+        this.wheel = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            this.wheel.add(new ArrayList<>());
+        }
+        this.lastTick = clock.getAsLong() / tickMillis;
+    }
+
+    /**
+     * Start the background sweeper thread; does nothing if it is already running
+     */
+    public void start() {
+        if (scheduler != null) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (scheduler == null) {
+                scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "basket-reservation-sweeper");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+                scheduler.scheduleAtFixedRate(this::sweep, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Start tracking a Basket that holds products; does nothing if the Basket is already tracked
+     * @param basket
+     */
+    public void track(Basket basket) {
+        if (tracked.putIfAbsent(basket.getId(), Boolean.TRUE) == null) {
+            schedule(basket.getId(), deadlineOf(basket));
+        }
+    }
+
+    /**
+     * Run one sweep: visit every slot whose time has passed since the previous sweep and expire the
+     * Baskets that are due. Called by the background thread
+     */
+    void sweep() {
+        try {
+            long now = clock.getAsLong();
+            List<Entry> due = new ArrayList<>();
+
+            lock.lock();
+            try {
+                long currentTick = now / tickMillis;
+                //Visit each slot at most once even if the sweeper fell more than a full turn behind
+                long first = Math.max(lastTick + 1, currentTick - wheel.size() + 1);
+                for (long tick = first; tick <= currentTick; tick++) {
+                    List<Entry> slot = wheel.get((int) (tick % wheel.size()));
+                    //Entries for a later turn of the wheel stay in the slot
+                    slot.removeIf(entry -> {
+                        if (entry.deadline <= now) {
+                            due.add(entry);
+                            return true;
+                        }
+                        return false;
+                    });
+                }
+                lastTick = currentTick;
+            } finally {
+                lock.unlock();
+            }
+
+            //Expire outside the wheel lock; Baskets have their own lock
+            for (Entry entry : due) {
+                expire(entry.basketId, now);
+            }
+        } catch (RuntimeException e) {
+            logger.error("Basket reservation sweep failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Expire a due Basket, or move it to a later slot if its Customer was seen again meanwhile
+     */
+    private void expire(String basketId, long now) {
+        Basket basket = basketLookup.apply(basketId);
+        if (basket == null || basket.getReservedUnits() == 0) {
+            untrack(basketId, basket);
+            return;
+        }
+
+        long deadline = deadlineOf(basket);
+        if (deadline > now) {
+            schedule(basketId, deadline);
+            return;
+        }
+
+        int released = basket.releaseReservations();
+        releasedUnits.add(released);
+        if (basket.getReservedUnits() > 0) {
+            //Units that did not fit back on their shelves stay in the Basket, try again a ttl later
+            schedule(basketId, now + ttlMillis);
+            return;
+        }
+        untrack(basketId, basket);
+        expiredBaskets.increment();
+        logger.info("Basket {} reservation expired, returned {} units to the shelves", basketId, released);
+    }
+
+    /**
+     * Stop tracking a Basket; if products were added to it meanwhile track it again
+     */
+    private void untrack(String basketId, Basket basket) {
+        tracked.remove(basketId);
+        if (basket != null && basket.getReservedUnits() > 0) {
+            track(basket);
+        }
+    }
+
+    private void schedule(String basketId, long deadline) {
+        lock.lock();
+        try {
+            //First slot visited after the deadline, but never one the sweeper has already passed
+            long tick = Math.max(deadline / tickMillis + 1, lastTick + 1);
+            wheel.get((int) (tick % wheel.size())).add(new Entry(basketId, deadline));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Reservation expires ttl after the later of the Customer last being seen and products last being added
+     */
+    private long deadlineOf(Basket basket) {
+        Customer customer = basket.getCustomer();
+        Date lastSeen = customer != null ? customer.getLastSeen() : null;
+        long seen = lastSeen != null ? lastSeen.getTime() : 0;
+        return Math.max(seen, basket.getLastReservedAt()) + ttlMillis;
+    }
+
+    public long getExpiredBaskets() {
+        return expiredBaskets.sum();
+    }
+
+    public long getReleasedUnits() {
+        return releasedUnits.sum();
+    }
+
+    /**
+     * Stop the background sweeper thread
+     */
+    public void close() {
+        lock.lock();
+        try {
+            if (scheduler != null) {
+                scheduler.shutdownNow();
+                scheduler = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Basket due at the given time
+     */
+    private static final class Entry {
+        private final String basketId;
+        private final long deadline;
+
+        private Entry(String basketId, long deadline) {
+            this.basketId = basketId;
+            this.deadline = deadline;
+        }
+    }
+}
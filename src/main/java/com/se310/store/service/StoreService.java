@@ -1,12 +1,18 @@
 package com.se310.store.service;
 
+import com.se310.store.config.ConfigLoader;
 import com.se310.store.data.DataManager;
 import com.se310.store.model.*;
 import com.se310.store.repository.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.math.BigDecimal;
+import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * This is the main service of the system implementing Command API for processing CLI commands and
@@ -27,20 +33,50 @@ public class StoreService {
     private static final Map<String, Inventory> inventoryMap;
     private static final Map<String, Basket> basketMap;
     private static final Map<String, Device> deviceMap;
+    // Store each Customer is currently registered in, so a move between Stores does not scan all Stores
+    private static final Map<String, Store> customerStoreIndex;
+    // Ids in sort order, so a page of a listing costs O(log n + limit) instead of a scan of the map
+    private static final NavigableSet<String> storeIds;
+    private static final NavigableSet<String> customerIds;
 
-    // Initialize maps
+    // Initialize maps - concurrent so that reads never block and never see a map mid-resize
     static {
-        storeMap = new HashMap<>();
-        customerMap = new HashMap<>();
-        productMap = new HashMap<>();
-        inventoryMap = new HashMap<>();
-        basketMap = new HashMap<>();
-        deviceMap = new HashMap<>();
+        storeMap = new ConcurrentHashMap<>();
+        customerMap = new ConcurrentHashMap<>();
+        productMap = new ConcurrentHashMap<>();
+        inventoryMap = new ConcurrentHashMap<>();
+        basketMap = new ConcurrentHashMap<>();
+        deviceMap = new ConcurrentHashMap<>();
+        customerStoreIndex = new ConcurrentHashMap<>();
+        storeIds = new ConcurrentSkipListSet<>();
+        customerIds = new ConcurrentSkipListSet<>();
     }
 
+    // Writes that change a Store graph are serialized per Store; writes to different Stores run in parallel
+    private static final StripedLocks storeLocks = new StripedLocks(64);
+
+    // Returns products held in abandoned Baskets to the shelves; its thread starts with the first reservation
+    private static final ReservationSweeper reservationSweeper = new ReservationSweeper(basketMap::get,
+            ConfigLoader.getBasketReservationTtlMs(), ConfigLoader.getBasketReservationTickMs(),
+            ConfigLoader.getBasketReservationWheelSize());
+
+    // Applies Customer positions reported by camera Sensors in batches, persisted by periodic snapshots
+    private static final CustomerLocationIngestor customerLocationIngestor = new CustomerLocationIngestor(
+            storeMap::get, customerMap::containsKey, StoreService::writeLocationSnapshot,
+            ConfigLoader.getCustomerLocationSnapshotMs(), ConfigLoader.getCustomerLocationTableCapacity());
+
+    private static final Logger logger = LoggerFactory.getLogger(StoreService.class);
+    private static final int BATCH_SIZE = ConfigLoader.getDbBatchSize();
+
     private final StoreRepository storeRepository;
     private final DataManager dataManager;
 
+    // Bulk load mode - Products and Inventory are buffered and written with JDBC batching
+    private final List<Product> pendingProducts = new ArrayList<>();
+    private final List<Inventory> pendingInventory = new ArrayList<>();
+    private final ReentrantLock bulkLoadLock = new ReentrantLock();
+    private volatile boolean bulkLoad;
+
     public StoreService() {
         this.storeRepository = null;
         this.dataManager = DataManager.getInstance();
@@ -53,10 +89,211 @@ public class StoreService {
     }
 
     /**
-     * Load all data from database into memory maps
+     * Load all data from database into memory maps.
+     * First pass streams the independent tables (products, stores, customers, devices) in parallel,
+     * each on its own pooled connection and into its own map. Second pass rebuilds the associations
+     * between Stores and their Aisles and Shelves, Inventory, Customers, Devices and Baskets.
      */
     private void loadAllDataFromDatabase() {
-        //TODO: Load store data into the maps
+        long start = System.nanoTime();
+
+        //First pass - independent tables in parallel
+        ExecutorService executor = Executors.newFixedThreadPool(4, runnable -> {
+            Thread thread = new Thread(runnable, "store-warmup");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<Integer>> tasks = List.of(
+                    executor.submit(() -> loadTable("products",
+                            () -> dataManager.streamProducts(product -> productMap.put(product.getId(), product)))),
+                    executor.submit(() -> loadTable("stores",
+                            () -> dataManager.streamStores(store -> {
+                                storeMap.put(store.getId(), store);
+                                storeIds.add(store.getId());
+                            }))),
+                    executor.submit(() -> loadTable("customers",
+                            () -> dataManager.streamCustomers(customer -> {
+                                customerMap.put(customer.getId(), customer);
+                                customerIds.add(customer.getId());
+                            }))),
+                    executor.submit(() -> loadTable("devices",
+                            () -> dataManager.streamDevices(device -> deviceMap.put(device.getId(), device)))));
+            for (Future<Integer> task : tasks) {
+                task.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.error("Interrupted while loading data from database");
+            return;
+        } catch (ExecutionException e) {
+            logger.error("Failed to load data from database: {}", e.getCause().getMessage());
+            return;
+        } finally {
+            executor.shutdown();
+        }
+
+        //Second pass - rebuild the Store graph, layout first so Inventory can be attached to its Shelf
+        try {
+            loadTable("aisles", () -> dataManager.streamAisles(this::attachAisle));
+            loadTable("inventory", () -> dataManager.streamInventory(this::attachInventory));
+            loadTable("baskets", () -> dataManager.streamBaskets(this::attachBasket));
+        } catch (Exception e) {
+            logger.error("Failed to rebuild store graph from database: {}", e.getMessage());
+        }
+        customerMap.values().forEach(customer -> {
+            StoreLocation location = customer.getStoreLocation();
+            Store store = location != null ? storeMap.get(location.getStoreId()) : null;
+            if (store != null) {
+                try {
+                    store.addCustomer(customer);
+                } catch (StoreException ignored) {
+                    //Customer already attached to the Store
+                }
+                customerStoreIndex.put(customer.getId(), store);
+            }
+        });
+        deviceMap.values().forEach(device -> {
+            Store store = storeMap.get(device.getStoreLocation().getStoreId());
+            if (store != null) {
+                try {
+                    store.addDevice(device);
+                } catch (StoreException ignored) {
+                    //Device already attached to the Store
+                }
+            }
+        });
+
+        logger.info("Loaded data from database in {} ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * Run a single table load and report how long it took
+     */
+    private int loadTable(String table, Callable<Integer> loader) throws Exception {
+        long start = System.nanoTime();
+        int rows = loader.call();
+        logger.info("Loaded {} {} rows in {} ms", rows, table,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return rows;
+    }
+
+    /**
+     * Attach a loaded Aisle, with its Shelves, to its Store
+     */
+    private void attachAisle(String storeId, Aisle aisle) {
+        Store store = storeMap.get(storeId);
+        if (store == null) {
+            logger.warn("Skipping aisle {}: store {} does not exist", aisle.getNumber(), storeId);
+            return;
+        }
+        try {
+            store.addAisle(aisle);
+        } catch (StoreException e) {
+            logger.warn("Skipping aisle {}: {}", aisle.getNumber(), e.getReason());
+        }
+    }
+
+    /**
+     * Attach a loaded Inventory record to its Store, and to its Shelf when the Shelf is provisioned
+     */
+    private void attachInventory(Inventory inventory) {
+        InventoryLocation location = inventory.getInventoryLocation();
+        Store store = storeMap.get(location.getStoreId());
+        if (store == null) {
+            logger.warn("Skipping inventory {}: store {} does not exist", inventory.getId(), location.getStoreId());
+            return;
+        }
+        try {
+            Shelf shelf = store.getAisle(location.getAisleId()).getShelf(location.getShelfId());
+            if (shelf != null) {
+                inventory = shelf.addInventory(inventory.getId(), location.getStoreId(), location.getAisleId(),
+                        location.getShelfId(), inventory.getCapacity(), inventory.getCount(),
+                        inventory.getProductId(), inventory.getType());
+            }
+        } catch (StoreException e) {
+            //Aisle or Shelf not provisioned yet, Inventory stays attached to the Store only
+        }
+        try {
+            store.addInventory(inventory);
+            inventoryMap.put(inventory.getId(), inventory);
+        } catch (StoreException e) {
+            logger.warn("Skipping inventory {}: {}", inventory.getId(), e.getReason());
+        }
+    }
+
+    /**
+     * Register a loaded Basket and restore its Customer and Store associations
+     */
+    private void attachBasket(Basket basket, String customerId, String storeId) {
+        basketMap.put(basket.getId(), basket);
+        Customer customer = customerId != null ? customerMap.get(customerId) : null;
+        Store store = storeId != null ? storeMap.get(storeId) : null;
+        if (customer == null || store == null) {
+            return;
+        }
+        customer.assignBasket(basket);
+        basket.setCustomer(customer);
+        basket.setStore(store);
+        try {
+            store.addBasket(basket);
+        } catch (StoreException e) {
+            logger.warn("Skipping basket {}: {}", basket.getId(), e.getReason());
+        }
+    }
+
+    /**
+     * Start bulk load mode. Until endBulkLoad is called, provisioned Products and Inventory are
+     * buffered and written to the database in JDBC batches instead of one statement per row.
+     * Loaders such as SampleDataLoader and CommandProcessor may provision from several threads at once
+     */
+    public void beginBulkLoad() {
+        bulkLoad = true;
+    }
+
+    /**
+     * Flush everything buffered during bulk load and return to per-row persistence
+     * @throws StoreException
+     */
+    public void endBulkLoad() throws StoreException {
+        bulkLoadLock.lock();
+        try {
+            flushBulkLoad();
+        } finally {
+            bulkLoad = false;
+            bulkLoadLock.unlock();
+        }
+    }
+
+    /**
+     * Buffer a Product or Inventory item provisioned during bulk load, flushing when the batch is full
+     */
+    private <T> void bufferForBulkLoad(List<T> pending, T item) throws StoreException {
+        bulkLoadLock.lock();
+        try {
+            pending.add(item);
+            if (pending.size() >= BATCH_SIZE) {
+                flushBulkLoad();
+            }
+        } finally {
+            bulkLoadLock.unlock();
+        }
+    }
+
+    /**
+     * Write buffered Products and Inventory to the database. Caller holds bulkLoadLock
+     */
+    private void flushBulkLoad() throws StoreException {
+        try {
+            //Products first so that Inventory rows always reference persisted Products
+            dataManager.saveProductsBatch(pendingProducts);
+            dataManager.saveInventoryBatch(pendingInventory);
+        } catch (SQLException e) {
+            throw new StoreException("Bulk Load", "Failed to save batch to database: " + e.getMessage());
+        } finally {
+            pendingProducts.clear();
+            pendingInventory.clear();
+        }
     }
 
     /**
@@ -69,22 +306,37 @@ public class StoreService {
         inventoryMap.clear();
         basketMap.clear();
         deviceMap.clear();
+        customerStoreIndex.clear();
+        storeIds.clear();
+        customerIds.clear();
+        customerLocationIngestor.clear();
     }
 
 
     public Store provisionStore(String storeId, String name, String address, String token)
             throws StoreException {
+        ReentrantLock lock = storeLocks.get(storeId);
+        lock.lock();
+        try {
+            Store store = new Store(storeId, address, name);
+
+            //If Store already exists throw and exception
+            if (storeMap.putIfAbsent(storeId, store) != null) {
+                throw new StoreException("Provision Store", "Store Already Exists");
+            }
+            storeIds.add(storeId);
 
-        Store store = new Store(storeId, address, name);
+            // Persist Store to database
+            try {
+                dataManager.saveStore(storeId, address, name);
+            } catch (Exception e) {
+                throw new StoreException("Provision Store", "Failed to save store to database: " + e.getMessage());
+            }
 
-        //If Store already exists throw and exception
-        if (storeMap.putIfAbsent(storeId, store) != null) {
-            throw new StoreException("Provision Store", "Store Already Exists");
+            return store;
+        } finally {
+            lock.unlock();
         }
-
-        //TODO: Persist Store to database
-
-        return store;
     }
 
     public Store showStore(String storeId, String token) throws StoreException {
@@ -99,18 +351,31 @@ public class StoreService {
 
     public Aisle provisionAisle(String storeId, String aisleNumber, String name, String description,
                                 AisleLocation location, String token) throws StoreException {
+        ReentrantLock lock = storeLocks.get(storeId);
+        lock.lock();
+        try {
+            Store store = storeMap.get(storeId);
+            Aisle aisle;
+
+            //Check to see if Store already exists;
+            if(store == null){
+                throw new StoreException("Provision Aisle", "Store Does Not Exist");
+            } else {
+                aisle = store.addAisle(aisleNumber, name, description, location);
+            }
 
-        Store store = storeMap.get(storeId);
-        Aisle aisle;
+            // Persist Aisle to database
+            try {
+                dataManager.saveAisle(storeId, aisleNumber, name, description,
+                        location != null ? location.name() : null);
+            } catch (Exception e) {
+                throw new StoreException("Provision Aisle", "Failed to save aisle to database: " + e.getMessage());
+            }
 
-        //Check to see if Store already exists;
-        if(store == null){
-            throw new StoreException("Provision Aisle", "Store Does Not Exist");
-        } else {
-            aisle = store.addAisle(aisleNumber, name, description, location);
+            return aisle;
+        } finally {
+            lock.unlock();
         }
-
-        return aisle;
     }
 
     public Aisle showAisle(String storeId, String aisleNumber, String token) throws StoreException {
@@ -131,30 +396,43 @@ public class StoreService {
 
     public Shelf provisionShelf(String storeId, String aisleNumber, String shelfId, String name,
                                 ShelfLevel level, String description, Temperature temperature, String token) throws StoreException {
-
-        Store store = storeMap.get(storeId);
-        Shelf shelf;
-
-        //Check to see if Store exists
-        if(store == null){
-            throw new StoreException("Provision Shelf", "Store Does Not Exist");
-        } else {
-            Aisle aisle = store.getAisle(aisleNumber);
-            //Check to see if Aisle exists
-            if (aisle == null){
-                throw new StoreException("Provision Shelf", "Aisle Does Not Exist");
+        ReentrantLock lock = storeLocks.get(storeId);
+        lock.lock();
+        try {
+            Store store = storeMap.get(storeId);
+            Shelf shelf;
+
+            //Check to see if Store exists
+            if(store == null){
+                throw new StoreException("Provision Shelf", "Store Does Not Exist");
             } else {
-                shelf = aisle.getShelf(shelfId);
-                //Check to see if Shelf exists
-                if(shelf != null){
-                    throw new StoreException("Provision Shelf", "Shelf Already Exists");
+                Aisle aisle = store.getAisle(aisleNumber);
+                //Check to see if Aisle exists
+                if (aisle == null){
+                    throw new StoreException("Provision Shelf", "Aisle Does Not Exist");
+                } else {
+                    shelf = aisle.getShelf(shelfId);
+                    //Check to see if Shelf exists
+                    if(shelf != null){
+                        throw new StoreException("Provision Shelf", "Shelf Already Exists");
+                    }
+
+                    //Add Shelf to the Aisle
+                    shelf = aisle.addShelf(shelfId, name, level, description, temperature);
                 }
+            }
 
-                //Add Shelf to the Aisle
-                shelf = aisle.addShelf(shelfId, name, level, description, temperature);
+            // Persist Shelf to database
+            try {
+                dataManager.saveShelf(storeId, aisleNumber, shelfId, name, level != null ? level.name() : null,
+                        description, temperature != null ? temperature.name() : null);
+            } catch (Exception e) {
+                throw new StoreException("Provision Shelf", "Failed to save shelf to database: " + e.getMessage());
             }
+            return shelf;
+        } finally {
+            lock.unlock();
         }
-        return shelf;
     }
 
     public Shelf showShelf(String storeId, String aisleNumber, String shelfId, String token) throws StoreException {
@@ -182,54 +460,63 @@ public class StoreService {
 
     public Inventory provisionInventory(String inventoryId, String storeId, String aisleNumber, String shelfId,
                                         int capacity, int count, String productId, InventoryType type, String token) throws StoreException {
-
-        Store store = storeMap.get(storeId);
-        Product product = productMap.get(productId);
-        Inventory inventory;
-
-        //Check to see if Store exists
-        if(store == null){
-            throw new StoreException("Provision Inventory", "Store Does Not Exist");
-        } else {
-            //Check to see if Aisle exists
-            Aisle aisle = store.getAisle(aisleNumber);
-            if (aisle == null){
-                throw new StoreException("Provision Inventory", "Aisle Does Not Exist");
+        ReentrantLock lock = storeLocks.get(storeId);
+        lock.lock();
+        try {
+            Store store = storeMap.get(storeId);
+            Product product = productMap.get(productId);
+            Inventory inventory;
+
+            //Check to see if Store exists
+            if(store == null){
+                throw new StoreException("Provision Inventory", "Store Does Not Exist");
             } else {
-                //Check to see if Shelf exists
-                Shelf shelf = aisle.getShelf(shelfId);
-                if(shelf == null){
-                    throw new StoreException("Provision Inventory", "Shelf Does Not Exist");
-                } else if(product == null){
-                    //Check to see if Product exists
-                    throw new StoreException("Provision Inventory", "Product Does Not Exist");
-                } else if(!shelf.getTemperature().equals(product.getTemperature())){
-                    //Make sure that Product Temperature and Shelf Temperature are consistent
-                    throw new StoreException("Provision Inventory", "Product and Shelf Temperature " +
-                            "Is Not Consistent");
-                }
-
-                //Add Inventory to the Shelf
-                inventory = shelf.addInventory(inventoryId, storeId, aisleNumber, shelfId,
-                        capacity, count, productId, type);
-
-                //Add Inventory to the global Inventory Map
-                inventoryMap.put(inventoryId, inventory);
-
-                //Add Inventory to the Store
-                store.addInventory(inventory);
+                //Check to see if Aisle exists
+                Aisle aisle = store.getAisle(aisleNumber);
+                if (aisle == null){
+                    throw new StoreException("Provision Inventory", "Aisle Does Not Exist");
+                } else {
+                    //Check to see if Shelf exists
+                    Shelf shelf = aisle.getShelf(shelfId);
+                    if(shelf == null){
+                        throw new StoreException("Provision Inventory", "Shelf Does Not Exist");
+                    } else if(product == null){
+                        //Check to see if Product exists
+                        throw new StoreException("Provision Inventory", "Product Does Not Exist");
+                    } else if(!shelf.getTemperature().equals(product.getTemperature())){
+                        //Make sure that Product Temperature and Shelf Temperature are consistent
+                        throw new StoreException("Provision Inventory", "Product and Shelf Temperature " +
+                                "Is Not Consistent");
+                    }
 
-                // Persist to database
-                try {
-                    dataManager.saveInventory(inventoryId, storeId, aisleNumber, shelfId,
-                                             capacity, count, productId, type.name());
-                } catch (Exception e) {
-                    throw new StoreException("Provision Inventory", "Failed to save inventory to database: " + e.getMessage());
+                    //Add Inventory to the Shelf
+                    inventory = shelf.addInventory(inventoryId, storeId, aisleNumber, shelfId,
+                            capacity, count, productId, type);
+
+                    //Add Inventory to the global Inventory Map
+                    inventoryMap.put(inventoryId, inventory);
+
+                    //Add Inventory to the Store
+                    store.addInventory(inventory);
+
+                    // Persist to database
+                    if (bulkLoad) {
+                        bufferForBulkLoad(pendingInventory, inventory);
+                    } else {
+                        try {
+                            dataManager.saveInventory(inventoryId, storeId, aisleNumber, shelfId,
+                                                     capacity, count, productId, type.name());
+                        } catch (Exception e) {
+                            throw new StoreException("Provision Inventory", "Failed to save inventory to database: " + e.getMessage());
+                        }
+                    }
                 }
             }
-        }
 
-        return inventory;
+            return inventory;
+        } finally {
+            lock.unlock();
+        }
     }
 
     public Inventory showInventory(String inventoryId, String token) throws StoreException {
@@ -242,17 +529,24 @@ public class StoreService {
     }
 
     public Inventory updateInventory(String inventoryId, int count, String token) throws StoreException {
-        Inventory inventory = inventoryMap.get(inventoryId);
-        //Check to see if Inventory exists
-        if (inventory == null)
-            throw new StoreException("Update Inventory", "Inventory Does Not Exist");
-
-        //Update Inventory count
-        inventory.updateInventory(count);
-
-        //TODO: Persist inventory update to database
-
-        return inventory;
+        ReentrantLock lock = storeLocks.get(inventoryStoreId(inventoryId));
+        lock.lock();
+        try {
+            Inventory inventory = inventoryMap.get(inventoryId);
+            //Check to see if Inventory exists
+            if (inventory == null)
+                throw new StoreException("Update Inventory", "Inventory Does Not Exist");
+
+            //Update Inventory count
+            inventory.updateInventory(count);
+
+            // Persist inventory update to database (coalesced per inventory id in write-behind mode)
+            persistInventory("Update Inventory", inventory);
+
+            return inventory;
+        } finally {
+            lock.unlock();
+        }
     }
 
     public Product provisionProduct(String productId, String name, String description, String size, String category,
@@ -263,7 +557,16 @@ public class StoreService {
         if (productMap.putIfAbsent(productId, product) != null)
             throw new StoreException("Provision Product", "Product Already Exists");
 
-        //TODO: Persist to database
+        // Persist to database
+        if (bulkLoad) {
+            bufferForBulkLoad(pendingProducts, product);
+        } else {
+            try {
+                dataManager.saveProduct(productId, name, description, size, category, price, temperature.name());
+            } catch (Exception e) {
+                throw new StoreException("Provision Product", "Failed to save product to database: " + e.getMessage());
+            }
+        }
 
         return product;
     }
@@ -285,45 +588,91 @@ public class StoreService {
         //Check to see if the Customer already exists
         if(customerMap.putIfAbsent(customerId, customer) != null)
             throw new StoreException("Provision Customer", "Customer Already Exists");
+        customerIds.add(customerId);
 
-        //TODO: Persist to database
+        // Persist to database
+        persistCustomer("Provision Customer", customer);
 
         return customer;
     }
 
     public Customer updateCustomer(String customerId, String storeId, String aisleNumber, String token)
             throws StoreException {
-        Store store = storeMap.get(storeId);
-        Customer customer;
-
-        //Check to see if the Store exists
-        if(store == null){
-            throw new StoreException("Update Customer", "Store Does Not Exist");
-        } else {
-            //Check to see if Aisle exists
-            Aisle aisle = store.getAisle(aisleNumber);
-            if (aisle == null){
-                throw new StoreException("Update Customer", "Aisle Does Not Exist");
+        //Customer may be moving between Stores, lock both the current and the target Store
+        String currentStoreId = lockCustomerStores(customerId, storeId);
+        try {
+            Store store = storeMap.get(storeId);
+            Customer customer;
+
+            //Check to see if the Store exists
+            if(store == null){
+                throw new StoreException("Update Customer", "Store Does Not Exist");
             } else {
-                //Check to see if Customer exists
-                customer = customerMap.get(customerId);
-                if(customer == null){
-                    throw new StoreException("Update Customer", "Customer Does Not Exist");
+                //Check to see if Aisle exists
+                Aisle aisle = store.getAisle(aisleNumber);
+                if (aisle == null){
+                    throw new StoreException("Update Customer", "Aisle Does Not Exist");
+                } else {
+                    //Check to see if Customer exists
+                    customer = customerMap.get(customerId);
+                    if(customer == null){
+                        throw new StoreException("Update Customer", "Customer Does Not Exist");
+                    }
                 }
             }
+
+            placeCustomer(customer, store, aisleNumber, new Date(System.currentTimeMillis()));
+
+            // Persist customer location update to database
+            persistCustomer("Update Customer", customer);
+
+            return customer;
+        } finally {
+            storeLocks.unlock(storeId, currentStoreId);
         }
+    }
 
-        //Check to see if Customer changing Stores
-        if(customer.getStoreLocation() != null && !customer.getStoreLocation().getStoreId().equals(storeId)){
-            //Check to see if Customer already exists in other Stores
-            Map<Store, Customer> customerStores  = storeMap.entrySet()
-                    .stream()
-                    .filter(tempStore -> (tempStore.getValue().getCustomer(customerId) != null && tempStore.getValue().getCustomer(customerId).getId().equals(customerId)))
-                    .collect(Collectors.toMap(Map.Entry::getValue, tempStore -> tempStore.getValue().
-                            getCustomer(customerId)));
+    /**
+     * Apply a batch of Customer positions reported by camera Sensors. Positions are kept in compact
+     * per-Store tables and applied to the Customers and the database by periodic snapshots
+     * @param batch reusable batch of position updates
+     * @param token
+     * @return number of updates applied
+     */
+    public int ingestCustomerLocations(LocationBatch batch, String token) {
+        return customerLocationIngestor.ingest(batch);
+    }
+
+    /**
+     * Apply and persist all Customer positions ingested since the previous snapshot without waiting
+     * for the next scheduled one
+     * @return number of Customers updated
+     */
+    public int snapshotCustomerLocations() {
+        return customerLocationIngestor.snapshot();
+    }
 
-            //If Customer exist in other stores remove him/her
-            customerStores.forEach((key, value) -> key.removeCustomer(customer));
+    /**
+     * Get the latest ingested position of a Customer in a Store, null if none
+     */
+    public CustomerLocationIngestor.Position getCustomerPosition(String storeId, String customerId) {
+        return customerLocationIngestor.getPosition(storeId, customerId);
+    }
+
+    /**
+     * Move the Customer to the Store and Aisle, registering him/her with the Store.
+     * Caller holds the locks of the current and the target Store
+     */
+    private static void placeCustomer(Customer customer, Store store, String aisleNumber, Date seenAt)
+            throws StoreException {
+        String customerId = customer.getId();
+
+        //Check to see if Customer changing Stores
+        if(customer.getStoreLocation() != null && !customer.getStoreLocation().getStoreId().equals(store.getId())){
+            //If Customer exists in another Store remove him/her
+            Store currentStore = customerStoreIndex.get(customerId);
+            if(currentStore != null)
+                currentStore.removeCustomer(customer);
 
             //Before Customer can change the Store he/she must clear the Basket
             if(customer.getBasket() != null)
@@ -335,15 +684,68 @@ public class StoreService {
 
             //Add Customer to another store
             store.addCustomer(customer);
+            customerStoreIndex.put(customerId, store);
+            customer.setStoreLocation(new StoreLocation(store.getId(), aisleNumber));
         } else {
 
-            customer.setStoreLocation(new StoreLocation(storeId, aisleNumber));
-            customer.setLastSeen(new Date(System.currentTimeMillis()));
+            //Register the Customer with the Store the first time he/she is seen there
+            if(customerStoreIndex.putIfAbsent(customerId, store) == null)
+                store.addCustomer(customer);
+
+            customer.setStoreLocation(new StoreLocation(store.getId(), aisleNumber));
+            customer.setLastSeen(seenAt);
         }
+    }
 
-        //TODO: Persist customer location update to database
+    /**
+     * Apply a snapshot of ingested positions to the Customers and persist them in one batch.
+     * A position older than the time the Customer was last seen is skipped
+     */
+    private static void writeLocationSnapshot(List<CustomerLocationIngestor.Position> positions)
+            throws SQLException {
+        List<Customer> updated = new ArrayList<>(positions.size());
+        for (CustomerLocationIngestor.Position position : positions) {
+            String customerId = position.getCustomerId();
+            String currentStoreId = lockCustomerStores(customerId, position.getStoreId());
+            try {
+                Customer customer = customerMap.get(customerId);
+                Store store = storeMap.get(position.getStoreId());
+                if (customer == null || store == null) {
+                    continue;
+                }
+                Date lastSeen = customer.getLastSeen();
+                if (lastSeen != null && lastSeen.getTime() > position.getSeenAt()) {
+                    continue;
+                }
+                Date seenAt = new Date(position.getSeenAt());
+                placeCustomer(customer, store, position.getAisleNumber(), seenAt);
+                //An ingested position always carries the time the Customer was seen, even after a move
+                customer.setLastSeen(seenAt);
+                updated.add(customer);
+            } catch (StoreException e) {
+                logger.warn("Skipping position of customer {}: {}", customerId, e.getMessage());
+            } finally {
+                storeLocks.unlock(position.getStoreId(), currentStoreId);
+            }
+        }
+        DataManager.getInstance().saveCustomersBatch(updated);
+    }
 
-        return customer;
+    /**
+     * Lock the target Store and the Store the Customer is currently registered in.
+     * Release with storeLocks.unlock(storeId, returned store id)
+     * @return id of the Store the Customer is currently registered in, null if none
+     */
+    private static String lockCustomerStores(String customerId, String storeId) {
+        String currentStoreId = indexedStoreId(customerId);
+        storeLocks.lock(storeId, currentStoreId);
+        //A concurrent move of the same Customer may have changed the current Store before the locks were taken
+        while (!Objects.equals(currentStoreId, indexedStoreId(customerId))) {
+            storeLocks.unlock(storeId, currentStoreId);
+            currentStoreId = indexedStoreId(customerId);
+            storeLocks.lock(storeId, currentStoreId);
+        }
+        return currentStoreId;
     }
 
     public Customer showCustomer(String customerId, String token) throws StoreException {
@@ -363,39 +765,49 @@ public class StoreService {
         if(basketMap.putIfAbsent(basketId, basket) != null)
             throw new StoreException("Provision Basket", "Basket Already Exists");
 
-        //TODO: Persist Basket to database
+        // Persist Basket to database
+        try {
+            dataManager.saveBasket(basketId, null, null);
+        } catch (Exception e) {
+            throw new StoreException("Provision Basket", "Failed to save basket to database: " + e.getMessage());
+        }
 
         return basket;
     }
 
     public Basket assignCustomerBasket(String customerId, String basketId, String token) throws StoreException {
-
-        Customer customer = customerMap.get(customerId);
-        Basket basket = basketMap.get(basketId);
-
-        //Check to see Customer and the Basket already exist
-        if(customer == null){
-            throw new StoreException("Assign Customer Basket", "Customer Does Not Exist");
-        } else {
-            if (basket == null){
-                throw new StoreException("Assign Customer Basket", "Basket Does Not Exist");
+        ReentrantLock lock = storeLocks.get(customerStoreId(customerId));
+        lock.lock();
+        try {
+            Customer customer = customerMap.get(customerId);
+            Basket basket = basketMap.get(basketId);
+
+            //Check to see Customer and the Basket already exist
+            if(customer == null){
+                throw new StoreException("Assign Customer Basket", "Customer Does Not Exist");
+            } else {
+                if (basket == null){
+                    throw new StoreException("Assign Customer Basket", "Basket Does Not Exist");
+                }
             }
-        }
 
-        //Assign Basket to the Customer
-        customer.assignBasket(basket);
-        //Keep the global copy of all the baskets
-        basketMap.put(basketId, basket);
+            //Assign Basket to the Customer
+            customer.assignBasket(basket);
+            //Keep the global copy of all the baskets
+            basketMap.put(basketId, basket);
 
-        Store store = storeMap.get(customerMap.get(customerId).getStoreLocation().getStoreId());
+            Store store = storeMap.get(customerMap.get(customerId).getStoreLocation().getStoreId());
 
-        //Associate basket with the customer
-        basket.setCustomer(customer);
-        //Create bidirectional association between Store and the Basket
-        basket.setStore(store);
-        store.addBasket(basket);
+            //Associate basket with the customer
+            basket.setCustomer(customer);
+            //Create bidirectional association between Store and the Basket
+            basket.setStore(store);
+            store.addBasket(basket);
 
-        return basket;
+            return basket;
+        } finally {
+            lock.unlock();
+        }
     }
 
     public Basket getCustomerBasket(String customerId, String token) throws StoreException {
@@ -429,8 +841,10 @@ public class StoreService {
         } else if(basket.getCustomer() == null){
             throw new StoreException("Add Basket Product", "Basket Has Not Being Assigned");
         }
-        //Add a product to the basket
+        //Add a product to the basket and make sure the reservation expires if the basket is abandoned
         basket.addProduct(productId, count);
+        reservationSweeper.start();
+        reservationSweeper.track(basket);
 
         return basket;
     }
@@ -455,7 +869,6 @@ public class StoreService {
     }
 
     public Basket clearBasket(String basketId, String token) throws StoreException {
-
         Basket basket = basketMap.get(basketId);
 
         //Check to see if basket already exists and basket has been assigned to the customer
@@ -469,6 +882,53 @@ public class StoreService {
         return basket;
     }
 
+    /**
+     * Check out a basket: validate every line against the products and the inventory reserved for it,
+     * write the order, its lines and the counts of the inventory it was taken from in one transaction
+     * (shared with concurrent checkouts through group commit) and release the basket
+     */
+    public Order checkout(String basketId, String token) throws StoreException {
+        Basket basket = basketMap.get(basketId);
+
+        //Check to see if basket exists
+        if(basket == null){
+            throw new StoreException("Checkout", "Basket Does Not Exist");
+        }
+
+        return basket.checkout((lines, reserved, inventory) -> {
+            //Check to see if there is anything to check out
+            if (lines.isEmpty()) {
+                throw new StoreException("Checkout", "Basket Is Empty");
+            }
+
+            //Validate all lines in one pass
+            List<OrderLine> orderLines = new ArrayList<>(lines.size());
+            for (Map.Entry<String, Integer> line : lines.entrySet()) {
+                Product product = productMap.get(line.getKey());
+                if (product == null) {
+                    throw new StoreException("Checkout", "Product Does Not Exist: " + line.getKey());
+                }
+                if (!line.getValue().equals(reserved.get(line.getKey()))) {
+                    throw new StoreException("Checkout", "Inventory Not Reserved for Product: " + line.getKey());
+                }
+                double price = product.getPrice() != null ? product.getPrice() : 0;
+                orderLines.add(new OrderLine(line.getKey(), line.getValue(), BigDecimal.valueOf(price)));
+            }
+
+            Store store = basket.getStore();
+            Order order = new Order("ORD-" + UUID.randomUUID(), basketId, basket.getCustomer().getId(),
+                    store != null ? store.getId() : null, new Date(), orderLines, inventory);
+
+            // Persist order, returns once the order is committed
+            try {
+                dataManager.saveOrder(order);
+            } catch (Exception e) {
+                throw new StoreException("Checkout", "Failed to save order to database: " + e.getMessage());
+            }
+            return order;
+        });
+    }
+
     public Basket showBasket(String basketId, String token) throws StoreException {
         Basket basket = basketMap.get(basketId);
 
@@ -484,50 +944,65 @@ public class StoreService {
 
     public Device provisionDevice(String deviceId, String name, String deviceType, String storeId,
                                   String aisleNumber, String token) throws StoreException {
-
-        Store store = storeMap.get(storeId);
-        Device device;
-        StoreLocation storeLocation;
-
-        //Check to see if store exists
-        if(store == null){
-            throw new StoreException("Provision Device", "Store Does Not Exist");
-        } else {
-
-            //Check to see if aisle exists
-            Aisle aisle = store.getAisle(aisleNumber);
-            if (aisle == null){
-                throw new StoreException("Provision Device", "Aisle Does Not Exist");
+        ReentrantLock lock = storeLocks.get(storeId);
+        lock.lock();
+        try {
+            Store store = storeMap.get(storeId);
+            Device device;
+            StoreLocation storeLocation;
+
+            //Check to see if store exists
+            if(store == null){
+                throw new StoreException("Provision Device", "Store Does Not Exist");
             } else {
-                storeLocation = new StoreLocation(storeId, aisleNumber);
 
-                //Check to see if device already exists
-                device = deviceMap.get(deviceId);
-                if(device != null){
-                    throw new StoreException("Provision Device", "Device Already Exists");
-                }
+                //Check to see if aisle exists
+                Aisle aisle = store.getAisle(aisleNumber);
+                if (aisle == null){
+                    throw new StoreException("Provision Device", "Aisle Does Not Exist");
+                } else {
+                    storeLocation = new StoreLocation(storeId, aisleNumber);
+
+                    //Check to see if device already exists
+                    device = deviceMap.get(deviceId);
+                    if(device != null){
+                        throw new StoreException("Provision Device", "Device Already Exists");
+                    }
 
-                //Determine wha type of device we are trying to add
-                for (SensorType sensor : SensorType.values()) {
-                    if (sensor.name().equals(deviceType)){
-                        device = new Sensor (deviceId, name, storeLocation, deviceType);
+                    //Determine wha type of device we are trying to add
+                    for (SensorType sensor : SensorType.values()) {
+                        if (sensor.name().equals(deviceType)){
+                            device = new Sensor (deviceId, name, storeLocation, deviceType);
+                        }
                     }
-                }
-                for (ApplianceType appliance : ApplianceType.values()) {
-                    if (appliance.name().equals(deviceType)){
-                        device = new Appliance(deviceId, name, storeLocation, deviceType);
+                    for (ApplianceType appliance : ApplianceType.values()) {
+                        if (appliance.name().equals(deviceType)){
+                            device = new Appliance(deviceId, name, storeLocation, deviceType);
+                        }
+                    }
+
+                    //Check to see if the device type is known
+                    if(device == null){
+                        throw new StoreException("Provision Device", "Unknown Device Type");
                     }
-                }
 
-                //Add device to the global map
-                deviceMap.put(deviceId,device);
-                //Add device to the local store
-                store.addDevice(device);
+                    //Add device to the global map
+                    deviceMap.put(deviceId,device);
+                    //Add device to the local store
+                    store.addDevice(device);
 
-                //TODO: Persist Device to database
+                    // Persist Device to database
+                    try {
+                        dataManager.saveDevice(deviceId, name, deviceType, storeId, aisleNumber);
+                    } catch (Exception e) {
+                        throw new StoreException("Provision Device", "Failed to save device to database: " + e.getMessage());
+                    }
+                }
             }
+            return device;
+        } finally {
+            lock.unlock();
         }
-        return device;
     }
 
     public Device showDevice(String deviceId, String token) throws StoreException {
@@ -562,6 +1037,18 @@ public class StoreService {
         appliance.processCommand(command);
     }
 
+    /**
+     * Get reserved versus on-shelf inventory units for a store
+     */
+    public ReservationStats getReservationStats(String storeId) throws StoreException {
+        Store store = storeMap.get(storeId);
+        if (store == null) {
+            throw new StoreException("Reservation Stats", "Store Does Not Exist");
+        }
+        return new ReservationStats(storeId, store.getOnShelfUnits(), store.getReservedUnits(),
+                reservationSweeper.getExpiredBaskets(), reservationSweeper.getReleasedUnits());
+    }
+
     /**
      * Get all stores
      */
@@ -569,36 +1056,156 @@ public class StoreService {
         return storeMap.values();
     }
 
+    /**
+     * Get one page of Stores in id order
+     * @param afterId id of the last Store of the previous page, null for the first page
+     * @param limit maximum number of Stores on the page
+     * @return
+     */
+    public Page<Store> getStoresPage(String afterId, int limit) {
+        return page(storeIds, storeMap, afterId, limit);
+    }
+
+    /**
+     * Get one page of Customers in id order
+     * @param afterId id of the last Customer of the previous page, null for the first page
+     * @param limit maximum number of Customers on the page
+     * @return
+     */
+    public Page<Customer> getCustomersPage(String afterId, int limit) {
+        return page(customerIds, customerMap, afterId, limit);
+    }
+
+    /**
+     * Walk the ordered ids from the cursor, resolving at most limit entities.
+     * Ids whose entity has just been removed are skipped
+     */
+    private static <T> Page<T> page(NavigableSet<String> ids, Map<String, T> entities, String afterId, int limit) {
+        Iterator<String> iterator = (afterId != null ? ids.tailSet(afterId, false) : ids).iterator();
+        List<T> items = new ArrayList<>(Math.min(limit, 256));
+        String lastId = null;
+        while (items.size() < limit && iterator.hasNext()) {
+            String id = iterator.next();
+            T entity = entities.get(id);
+            if (entity != null) {
+                items.add(entity);
+                lastId = id;
+            }
+        }
+        return new Page<>(items, iterator.hasNext() ? lastId : null);
+    }
+
     /**
      * Update store information
      */
     public Store updateStore(String storeId, String description, String address) throws StoreException {
-        Store store = storeMap.get(storeId);
-        if (store == null) {
-            throw new StoreException("Update Store", "Store Does Not Exist");
-        }
+        ReentrantLock lock = storeLocks.get(storeId);
+        lock.lock();
+        try {
+            Store store = storeMap.get(storeId);
+            if (store == null) {
+                throw new StoreException("Update Store", "Store Does Not Exist");
+            }
 
-        if (description != null) {
-            store.setDescription(description);
-        }
-        if (address != null) {
-            store.setAddress(address);
-        }
+            if (description != null) {
+                store.setDescription(description);
+            }
+            if (address != null) {
+                store.setAddress(address);
+            }
 
-        //TODO: Update Store data in database
+            // Update Store data in database
+            try {
+                dataManager.saveStore(store.getId(), store.getAddress(), store.getDescription());
+            } catch (Exception e) {
+                throw new StoreException("Update Store", "Failed to save store to database: " + e.getMessage());
+            }
 
-        return store;
+            return store;
+        } finally {
+            lock.unlock();
+        }
     }
 
     /**
      * Delete a store
      */
     public void deleteStore(String storeId) throws StoreException {
-        Store store = storeMap.remove(storeId);
-        if (store == null) {
-            throw new StoreException("Delete Store", "Store Does Not Exist");
+        ReentrantLock lock = storeLocks.get(storeId);
+        lock.lock();
+        try {
+            Store store = storeMap.remove(storeId);
+            if (store == null) {
+                throw new StoreException("Delete Store", "Store Does Not Exist");
+            }
+            storeIds.remove(storeId);
+            customerStoreIndex.values().removeIf(current -> current == store);
+            customerLocationIngestor.removeStore(storeId);
+
+            // Delete data from database
+            try {
+                dataManager.deleteStore(storeId);
+            } catch (Exception e) {
+                throw new StoreException("Delete Store", "Failed to delete store from database: " + e.getMessage());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the id of the Store an Inventory item belongs to, null if the Inventory does not exist
+     */
+    private String inventoryStoreId(String inventoryId) {
+        Inventory inventory = inventoryId == null ? null : inventoryMap.get(inventoryId);
+        return inventory != null ? inventory.getInventoryLocation().getStoreId() : null;
+    }
+
+    /**
+     * Get the id of the Store a Customer was last seen in, null if unknown
+     */
+    private String customerStoreId(String customerId) {
+        Customer customer = customerId == null ? null : customerMap.get(customerId);
+        StoreLocation location = customer != null ? customer.getStoreLocation() : null;
+        return location != null ? location.getStoreId() : null;
+    }
+
+    /**
+     * Get the id of the Store a Customer is currently registered in, null if none
+     */
+    private static String indexedStoreId(String customerId) {
+        Store store = customerId == null ? null : customerStoreIndex.get(customerId);
+        return store != null ? store.getId() : null;
+    }
+
+    /**
+     * Persist the current state of an Inventory item
+     */
+    private void persistInventory(String action, Inventory inventory) throws StoreException {
+        InventoryLocation location = inventory.getInventoryLocation();
+        try {
+            dataManager.saveInventory(inventory.getId(), location.getStoreId(), location.getAisleId(),
+                    location.getShelfId(), inventory.getCapacity(), inventory.getCount(),
+                    inventory.getProductId(), inventory.getType().name());
+        } catch (Exception e) {
+            throw new StoreException(action, "Failed to save inventory to database: " + e.getMessage());
         }
+    }
 
-        //TODO: Delete data from database
+    /**
+     * Persist the current state of a Customer including last known location
+     */
+    private void persistCustomer(String action, Customer customer) throws StoreException {
+        StoreLocation location = customer.getStoreLocation();
+        Date lastSeen = customer.getLastSeen();
+        try {
+            dataManager.saveCustomer(customer.getId(), customer.getFirstName(), customer.getLastName(),
+                    customer.getType().name(), customer.getEmail(), customer.getAccountAddress(),
+                    location != null ? location.getStoreId() : null,
+                    location != null ? location.getAisleId() : null,
+                    lastSeen != null ? new Timestamp(lastSeen.getTime()) : null);
+        } catch (Exception e) {
+            throw new StoreException(action, "Failed to save customer to database: " + e.getMessage());
+        }
     }
 }
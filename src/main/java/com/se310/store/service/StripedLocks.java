@@ -0,0 +1,75 @@
+package com.se310.store.service;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * StripedLocks - Fixed set of locks shared by hashing a key (a Store id) onto a stripe.
+ *
+ * Writes to the same Store always take the same lock; writes to different Stores only contend
+ * when their ids happen to land on the same stripe. Reads never take these locks.
+ *
+ * @author  Sergey L. Sundukovskiy
+ * @version 1.0
+ * @since   2025-11-20
+ */
+final class StripedLocks {
+
+    private final ReentrantLock[] stripes;
+
+    /**
+     * Constructor for the StripedLocks class
+     * @param stripes number of locks, rounded up to a power of two
+     */
+    StripedLocks(int stripes) {
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Get the lock guarding the given key
+     * @param key
+     * @return
+     */
+    ReentrantLock get(String key) {
+        return stripes[indexOf(key)];
+    }
+
+    /**
+     * Acquire the locks for two keys in stripe order so that concurrent callers cannot deadlock.
+     * Release with {@link #unlock(String, String)}
+     * @param first
+     * @param second
+     */
+    void lock(String first, String second) {
+        int a = indexOf(first);
+        int b = indexOf(second);
+        stripes[Math.min(a, b)].lock();
+        if (a != b) {
+            stripes[Math.max(a, b)].lock();
+        }
+    }
+
+    /**
+     * Release the locks acquired by {@link #lock(String, String)}
+     * @param first
+     * @param second
+     */
+    void unlock(String first, String second) {
+        int a = indexOf(first);
+        int b = indexOf(second);
+        if (a != b) {
+            stripes[Math.max(a, b)].unlock();
+        }
+        stripes[Math.min(a, b)].unlock();
+    }
+
+    private int indexOf(String key) {
+        int h = key == null ? 0 : key.hashCode();
+        //Spread the high bits so ids that differ only in their suffix still use different stripes
+        h ^= (h >>> 16);
+        return h & (stripes.length - 1);
+    }
+}
@@ -1,15 +1,20 @@
 package com.se310.store.servlet;
 
+import com.google.gson.stream.JsonWriter;
+import com.se310.store.config.ConfigLoader;
 import com.se310.store.dto.JsonHelper;
 import com.se310.store.dto.JsonSerializable;
+import com.se310.store.model.Versioned;
 import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.Getter;
 
 import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
 
 /**
  * Base servlet providing common functionality for all API servlets.
@@ -32,6 +37,16 @@ public abstract class BaseServlet extends HttpServlet {
 
     //TODO: Implement Template Method Pattern for handling HTTP requests and responses
 
+    private static final String JSON_CONTENT_TYPE = "application/json";
+    private static final String PRETTY_PARAMETER = "pretty";
+    private static final String PRETTY_INDENT = "  ";
+
+    // Bodies up to this size are sent with a Content-Length, larger ones are streamed chunked
+    private static final int JSON_BUFFER_BYTES = ConfigLoader.getJsonResponseBufferBytes();
+
+    // Versions restart from zero with the process, so ETags carry the start time to never repeat across restarts
+    private static final String ETAG_EPOCH = Long.toString(System.currentTimeMillis(), 36);
+
     /**
      * Read the request body as a string.
      * Used for parsing JSON payloads from POST/PUT requests.
@@ -75,12 +90,40 @@ public abstract class BaseServlet extends HttpServlet {
      * @throws IOException If writing fails
      */
     protected void sendJsonResponse(HttpServletResponse response, Object object, int statusCode) throws IOException {
-        //TODO: Implement Template Method Pattern for sending JSON responses
+        sendJsonResponse(null, response, object, statusCode);
+    }
+
+    /**
+     * Send a JSON response with a specified HTTP status code, honoring the request's formatting options.
+     *
+     * The object is serialized by Gson straight into the response output stream through a JsonWriter,
+     * so no intermediate JSON string is built. Output is compact unless the request asks for
+     * {@code ?pretty=true}. Payloads that fit in the response buffer are sent with an exact Content-Length.
+     *
+     * @param request The HTTP request, may be null for compact output
+     * @param response The HTTP response
+     * @param object The object to serialize to JSON (preferably a JsonSerializable)
+     * @param statusCode The HTTP status code (200, 201, 400, etc.)
+     * @throws IOException If writing fails
+     */
+    protected void sendJsonResponse(HttpServletRequest request, HttpServletResponse response, Object object,
+                                    int statusCode) throws IOException {
+        response.setStatus(statusCode);
+        response.setContentType(JSON_CONTENT_TYPE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+
+        try (JsonWriter writer = new JsonWriter(new BufferedWriter(new OutputStreamWriter(
+                new ContentLengthOutputStream(response, JSON_BUFFER_BYTES), StandardCharsets.UTF_8)))) {
+            if (isPretty(request)) {
+                writer.setIndent(PRETTY_INDENT);
+            }
+            JsonHelper.toJson(object, writer);
+        }
     }
 
     /**
      * Send an error response with a message.
-     * Uses ErrorResponse's own toJson() method, following the DTO pattern.
+     * The ErrorResponse is streamed through the same JSON path as any other response.
      *
      * @param response The HTTP response
      * @param statusCode The HTTP status code (400, 404, 500, etc.)
@@ -88,6 +131,95 @@ public abstract class BaseServlet extends HttpServlet {
      * @throws IOException If writing fails
      */
     protected void sendErrorResponse(HttpServletResponse response, int statusCode, String message) throws IOException {
+        sendErrorResponse(null, response, statusCode, message);
+    }
+
+    /**
+     * Send an error response with a message, honoring the request's formatting options.
+     *
+     * @param request The HTTP request, may be null for compact output
+     * @param response The HTTP response
+     * @param statusCode The HTTP status code (400, 404, 500, etc.)
+     * @param message The error message
+     * @throws IOException If writing fails
+     */
+    protected void sendErrorResponse(HttpServletRequest request, HttpServletResponse response, int statusCode,
+                                     String message) throws IOException {
+        sendJsonResponse(request, response, new ErrorResponse(statusCode, message), statusCode);
+    }
+
+    /**
+     * Check to see if the client asked for pretty printed JSON
+     *
+     * @param request The HTTP request, may be null
+     * @return true only for an explicit pretty=true query parameter
+     */
+    protected boolean isPretty(HttpServletRequest request) {
+        return request != null && Boolean.parseBoolean(request.getParameter(PRETTY_PARAMETER));
+    }
+
+    /**
+     * Answer a conditional GET for a versioned entity.
+     *
+     * The strong ETag of the entity's current version is set on the response. If the request's
+     * If-None-Match already holds it, 304 Not Modified is sent and nothing is serialized.
+     * Call this before building the response body, so the body is never older than its ETag.
+     *
+     * @param request The HTTP request
+     * @param response The HTTP response
+     * @param entity The entity about to be returned
+     * @return true if 304 has been sent and the caller must not write a body
+     */
+    protected boolean notModified(HttpServletRequest request, HttpServletResponse response, Versioned entity) {
+        String etag = entityTag(request, entity.getVersion());
+        response.setHeader("ETag", etag);
+        // Clients may keep the body but must revalidate it on every use
+        response.setHeader("Cache-Control", "no-cache");
+
+        if (matchesEntityTag(request.getHeader("If-None-Match"), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Build the strong ETag of a representation. Projections and pretty printing produce different
+     * bytes from the same version, so they get different tags
+     */
+    private String entityTag(HttpServletRequest request, long version) {
+        StringBuilder etag = new StringBuilder("\"").append(ETAG_EPOCH).append('-').append(version);
+        String fields = request.getParameter("fields");
+        if (fields != null && !fields.isBlank()) {
+            etag.append('-').append(Integer.toHexString(fields.hashCode()));
+        }
+        if (isPretty(request)) {
+            etag.append("-p");
+        }
+        return etag.append('"').toString();
+    }
+
+    /**
+     * Check to see if an If-None-Match header matches the ETag, using weak comparison as
+     * If-None-Match requires
+     */
+    private static boolean matchesEntityTag(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -0,0 +1,91 @@
+package com.se310.store.servlet;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * ContentLengthOutputStream class implementation for response bodies of unknown size
+ *
+ * Bytes are held in a fixed buffer until the body is closed. A body that fits is sent with an exact
+ * Content-Length; a larger one flushes the buffer once and streams the rest to the response chunked,
+ * so the whole payload is never held in heap.
+ *
+ * @author  Sergey L. Sundukovskiy
+ * @version 1.0
+ * @since   2025-11-20
+ */
+class ContentLengthOutputStream extends OutputStream {
+
+    private final HttpServletResponse response;
+    private final byte[] buffer;
+    private int count;
+    private OutputStream out;
+    private boolean closed;
+
+    /**
+     * Constructor for the ContentLengthOutputStream class
+     * @param response
+     * @param bufferSize largest body sent with a Content-Length
+     */
+    ContentLengthOutputStream(HttpServletResponse response, int bufferSize) {
+        this.response = response;
+        this.buffer = new byte[Math.max(1, bufferSize)];
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if (out == null && count == buffer.length) {
+            streaming();
+        }
+        if (out != null) {
+            out.write(b);
+        } else {
+            buffer[count++] = (byte) b;
+        }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (out == null && len > buffer.length - count) {
+            streaming();
+        }
+        if (out != null) {
+            out.write(b, off, len);
+        } else {
+            System.arraycopy(b, off, buffer, count, len);
+            count += len;
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        //Flushing a buffered body would commit the response before its length is known
+        if (out != null) {
+            out.flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (out == null) {
+            response.setContentLength(count);
+            out = response.getOutputStream();
+            out.write(buffer, 0, count);
+        }
+        out.flush();
+    }
+
+    /**
+     * Switch to streaming: the buffered bytes go out first and the response is sent without a length
+     */
+    private void streaming() throws IOException {
+        out = response.getOutputStream();
+        out.write(buffer, 0, count);
+    }
+}
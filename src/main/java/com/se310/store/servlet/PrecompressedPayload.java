@@ -0,0 +1,133 @@
+package com.se310.store.servlet;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * PrecompressedPayload class implementation for static responses that never change while the server runs
+ *
+ * The payload is read and gzip compressed once, at the highest configured level, and every request is
+ * answered from the cached bytes. Responses that already carry a Content-Encoding are left alone by the
+ * connector's own compression, so nothing is compressed per request.
+ *
+ * @author  Sergey L. Sundukovskiy
+ * @version 1.0
+ * @since   2025-11-20
+ */
+final class PrecompressedPayload {
+
+    private final String contentType;
+    private final byte[] identity;
+    // Null when compression would not make the payload smaller
+    private final byte[] gzip;
+
+    private PrecompressedPayload(String contentType, byte[] identity, byte[] gzip) {
+        this.contentType = contentType;
+        this.identity = identity;
+        this.gzip = gzip;
+    }
+
+    /**
+     * Load a classpath resource and compress it
+     * @param resource
+     * @param contentType
+     * @param level deflate level, 1 (fastest) to 9 (smallest)
+     * @return payload, null if the resource does not exist
+     * @throws IOException
+     */
+    static PrecompressedPayload fromResource(String resource, String contentType, int level) throws IOException {
+        try (InputStream in = PrecompressedPayload.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                return null;
+            }
+            byte[] identity = in.readAllBytes();
+            byte[] gzip = compress(identity, level);
+            return new PrecompressedPayload(contentType, identity, gzip.length < identity.length ? gzip : null);
+        }
+    }
+
+    /**
+     * Write the payload, compressed if the client accepts gzip
+     * @param request
+     * @param response
+     * @throws IOException
+     */
+    void write(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        byte[] body = identity;
+        if (gzip != null) {
+            response.setHeader("Vary", "Accept-Encoding");
+            if (acceptsGzip(request.getHeader("Accept-Encoding"))) {
+                response.setHeader("Content-Encoding", "gzip");
+                body = gzip;
+            }
+        }
+        response.setContentType(contentType);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    int getIdentityLength() {
+        return identity.length;
+    }
+
+    /**
+     * Getter method for the compressed size
+     * @return compressed size, the identity size if the payload is not compressed
+     */
+    int getCompressedLength() {
+        return gzip != null ? gzip.length : identity.length;
+    }
+
+    /**
+     * Check to see if an Accept-Encoding header allows gzip, honoring q=0 exclusions
+     * @param acceptEncoding
+     * @return
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        boolean wildcard = false;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            String name = parts[0].trim().toLowerCase(Locale.ROOT);
+            boolean excluded = false;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim().toLowerCase(Locale.ROOT);
+                if (parameter.startsWith("q=")) {
+                    try {
+                        excluded = Double.parseDouble(parameter.substring(2)) <= 0;
+                    } catch (NumberFormatException e) {
+                        excluded = true;
+                    }
+                }
+            }
+            if (name.equals("gzip") || name.equals("x-gzip")) {
+                return !excluded;
+            }
+            if (name.equals("*")) {
+                wildcard = !excluded;
+            }
+        }
+        return wildcard;
+    }
+
+    private static byte[] compress(byte[] bytes, int level) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer) {
+            {
+                def.setLevel(Math.max(Deflater.BEST_SPEED, Math.min(Deflater.BEST_COMPRESSION, level)));
+            }
+        }) {
+            out.write(bytes);
+        }
+        return buffer.toByteArray();
+    }
+}
@@ -1,6 +1,8 @@
 package com.se310.store.servlet;
 
+import com.se310.store.config.ConfigLoader;
 import com.se310.store.model.User;
+import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -27,6 +29,22 @@ import java.nio.charset.StandardCharsets;
  */
 public class SwaggerServlet extends HttpServlet {
 
+    // openapi.yaml with its gzip form, loaded once by init(); null if the file is missing
+    private PrecompressedPayload openApiSpec;
+
+    /**
+     * Read and compress openapi.yaml once, so requests are answered from the cached bytes
+     */
+    @Override
+    public void init() throws ServletException {
+        try {
+            openApiSpec = PrecompressedPayload.fromResource("api/openapi.yaml", "application/x-yaml; charset=UTF-8",
+                    ConfigLoader.getCompressionLevel());
+        } catch (IOException e) {
+            throw new ServletException("Failed to load OpenAPI specification", e);
+        }
+    }
+
     @Override
     protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
         String requestURI = request.getRequestURI();
@@ -37,7 +55,7 @@ public class SwaggerServlet extends HttpServlet {
 
         // Handle /api-docs endpoint - serve raw YAML for Swagger UI
         if (requestURI.endsWith("/api-docs") || (pathInfo != null && pathInfo.equals("/api-docs"))) {
-            serveRawOpenAPISpec(response);
+            serveRawOpenAPISpec(request, response);
             return;
         }
 
@@ -215,10 +233,12 @@ public class SwaggerServlet extends HttpServlet {
 
     /**
      * Serves the raw OpenAPI specification in YAML format for Swagger UI consumption.
+     * The specification is read and compressed once and then served from memory.
      */
-    private void serveRawOpenAPISpec(HttpServletResponse response) throws IOException {
-        try (InputStream is = getClass().getClassLoader().getResourceAsStream("api/openapi.yaml")) {
-            if (is == null) {
+    private void serveRawOpenAPISpec(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        try {
+            PrecompressedPayload spec = openApiSpec;
+            if (spec == null) {
                 response.setStatus(HttpServletResponse.SC_NOT_FOUND);
                 response.setContentType("application/json");
                 response.getWriter().write("{\"error\": \"OpenAPI specification not found\"}");
@@ -226,15 +246,7 @@ public class SwaggerServlet extends HttpServlet {
             }
 
             // Serve as YAML (Swagger UI can consume YAML directly)
-            response.setContentType("application/x-yaml; charset=UTF-8");
-            response.setCharacterEncoding("UTF-8");
-
-            // Copy YAML content to response
-            byte[] buffer = new byte[8192];
-            int bytesRead;
-            while ((bytesRead = is.read(buffer)) != -1) {
-                response.getOutputStream().write(buffer, 0, bytesRead);
-            }
+            spec.write(request, response);
         } catch (Exception e) {
             response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
             response.setContentType("application/json");
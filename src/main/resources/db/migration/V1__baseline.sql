@@ -0,0 +1,68 @@
+-- Baseline schema: tables as originally created by DataManager.createTables()
+
+CREATE TABLE IF NOT EXISTS users (
+    email VARCHAR(255) PRIMARY KEY,
+    password VARCHAR(255) NOT NULL,
+    name VARCHAR(255) NOT NULL,
+    role VARCHAR(50) DEFAULT 'USER'
+);
+
+CREATE TABLE IF NOT EXISTS stores (
+    id VARCHAR(255) PRIMARY KEY,
+    address VARCHAR(500),
+    description VARCHAR(1000)
+);
+
+CREATE TABLE IF NOT EXISTS products (
+    id VARCHAR(255) PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    description VARCHAR(1000),
+    size VARCHAR(100),
+    category VARCHAR(100),
+    price DOUBLE,
+    temperature VARCHAR(50)
+);
+
+CREATE TABLE IF NOT EXISTS customers (
+    id VARCHAR(255) PRIMARY KEY,
+    first_name VARCHAR(255),
+    last_name VARCHAR(255),
+    customer_type VARCHAR(50),
+    email VARCHAR(255),
+    account_address VARCHAR(500),
+    store_id VARCHAR(255),
+    aisle_number VARCHAR(50),
+    last_seen TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS baskets (
+    id VARCHAR(255) PRIMARY KEY,
+    customer_id VARCHAR(255),
+    store_id VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS basket_items (
+    basket_id VARCHAR(255),
+    product_id VARCHAR(255),
+    count INT,
+    PRIMARY KEY (basket_id, product_id)
+);
+
+CREATE TABLE IF NOT EXISTS inventory (
+    id VARCHAR(255) PRIMARY KEY,
+    store_id VARCHAR(255),
+    aisle_number VARCHAR(50),
+    shelf_id VARCHAR(50),
+    capacity INT,
+    count INT,
+    product_id VARCHAR(255),
+    inventory_type VARCHAR(50)
+);
+
+CREATE TABLE IF NOT EXISTS devices (
+    id VARCHAR(255) PRIMARY KEY,
+    name VARCHAR(255),
+    device_type VARCHAR(100),
+    store_id VARCHAR(255),
+    aisle_number VARCHAR(50)
+);
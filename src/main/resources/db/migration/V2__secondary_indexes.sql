@@ -0,0 +1,10 @@
+-- Secondary indexes on the foreign-key-like columns used by per-store, per-customer and per-product lookups.
+-- Each index is built in its own statement so the table lock is held for one index at a time.
+
+CREATE INDEX IF NOT EXISTS idx_customers_store_id ON customers (store_id);
+CREATE INDEX IF NOT EXISTS idx_baskets_customer_id ON baskets (customer_id);
+CREATE INDEX IF NOT EXISTS idx_baskets_store_id ON baskets (store_id);
+CREATE INDEX IF NOT EXISTS idx_basket_items_product_id ON basket_items (product_id);
+CREATE INDEX IF NOT EXISTS idx_inventory_store_id ON inventory (store_id);
+CREATE INDEX IF NOT EXISTS idx_inventory_product_id ON inventory (product_id);
+CREATE INDEX IF NOT EXISTS idx_devices_store_id ON devices (store_id);
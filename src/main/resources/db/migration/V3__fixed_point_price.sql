@@ -0,0 +1,15 @@
+-- Store product prices as fixed-point DECIMAL instead of DOUBLE.
+-- The new column is backfilled in chunks so each transaction only locks a bounded number of rows.
+-- DDL commits on its own, so every step can be re-run after a failure part way through the script.
+
+ALTER TABLE products ADD COLUMN IF NOT EXISTS price_fixed DECIMAL(12, 2);
+
+-- The old column is gone if an earlier run failed after dropping it
+-- @if-column-exists products.price
+-- @chunked
+UPDATE products SET price_fixed = price
+    WHERE price_fixed IS NULL AND price IS NOT NULL
+    FETCH FIRST ? ROWS ONLY;
+
+ALTER TABLE products DROP COLUMN IF EXISTS price;
+ALTER TABLE products ALTER COLUMN IF EXISTS price_fixed RENAME TO price;
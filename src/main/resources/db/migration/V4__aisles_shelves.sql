@@ -0,0 +1,24 @@
+-- Persist the physical store layout so the Store / Aisle / Shelf hierarchy survives a restart.
+-- Primary keys lead with store_id, so per-store reads and the ordered warm-up scan use them directly.
+
+CREATE TABLE IF NOT EXISTS aisles (
+    store_id VARCHAR(255),
+    aisle_number VARCHAR(50),
+    name VARCHAR(255),
+    description VARCHAR(1000),
+    aisle_location VARCHAR(50),
+    PRIMARY KEY (store_id, aisle_number)
+);
+
+CREATE TABLE IF NOT EXISTS shelves (
+    store_id VARCHAR(255),
+    aisle_number VARCHAR(50),
+    shelf_id VARCHAR(50),
+    name VARCHAR(255),
+    shelf_level VARCHAR(50),
+    description VARCHAR(1000),
+    temperature VARCHAR(50),
+    PRIMARY KEY (store_id, aisle_number, shelf_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_inventory_shelf ON inventory (store_id, aisle_number, shelf_id);
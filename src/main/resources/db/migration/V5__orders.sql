@@ -0,0 +1,21 @@
+-- Orders created by checkout and their lines
+
+CREATE TABLE IF NOT EXISTS orders (
+    id VARCHAR(255) PRIMARY KEY,
+    basket_id VARCHAR(255),
+    customer_id VARCHAR(255),
+    store_id VARCHAR(255),
+    created_at TIMESTAMP,
+    total DECIMAL(12, 2)
+);
+
+CREATE TABLE IF NOT EXISTS order_lines (
+    order_id VARCHAR(255),
+    product_id VARCHAR(255),
+    quantity INT,
+    unit_price DECIMAL(12, 2),
+    PRIMARY KEY (order_id, product_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_orders_customer_id ON orders (customer_id);
+CREATE INDEX IF NOT EXISTS idx_orders_store_id ON orders (store_id);
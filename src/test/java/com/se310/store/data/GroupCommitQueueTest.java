@@ -0,0 +1,260 @@
+package com.se310.store.data;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for group commit of orders against an in-memory H2 database migrated to the current schema
+ *
+ * @author  Sergey L. Sundukovskiy
+ * @version 1.0
+ * @since   2025-11-20
+ */
+public class GroupCommitQueueTest {
+
+    private static final String URL = "jdbc:h2:mem:group_commit_test;DB_CLOSE_DELAY=-1";
+
+    private Connection conn;
+    private GroupCommitQueue<String> queue;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        conn = DriverManager.getConnection(URL, "sa", "");
+        new SchemaMigrator(SchemaMigrator.defaultMigrations(), 100).migrate(conn);
+    }
+
+    @AfterEach
+    public void tearDown() throws SQLException {
+        if (queue != null) {
+            queue.close();
+        }
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP ALL OBJECTS");
+        }
+        conn.close();
+    }
+
+    @Test
+    public void testConcurrentCommitsShareTransactions() throws Exception {
+        int callers = 16;
+        //Long wait so the group only closes once every caller has joined it
+        queue = newQueue(callers, 5000, 10_000, null);
+
+        List<Future<?>> futures = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            for (int i = 0; i < callers; i++) {
+                String id = "ORD-" + i;
+                futures.add(executor.submit(() -> {
+                    queue.commit(id);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(callers, queue.getCommitted());
+        assertEquals(1, queue.getTransactions());
+        assertEquals(callers, countOrders());
+    }
+
+    @Test
+    public void testFailingItemIsRetriedAloneAndFailsOnlyItsCaller() throws Exception {
+        insertOrder("ORD-DUP");
+        queue = newQueue(3, 5000, 10_000, null);
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            Future<?> first = executor.submit(() -> {
+                queue.commit("ORD-A");
+                return null;
+            });
+            Future<?> duplicate = executor.submit(() -> {
+                queue.commit("ORD-DUP");
+                return null;
+            });
+            Future<?> second = executor.submit(() -> {
+                queue.commit("ORD-B");
+                return null;
+            });
+
+            first.get(30, TimeUnit.SECONDS);
+            second.get(30, TimeUnit.SECONDS);
+            Exception e = assertThrows(Exception.class, () -> duplicate.get(30, TimeUnit.SECONDS));
+            assertTrue(e.getCause() instanceof SQLException, "Duplicate order should fail with its SQL error");
+        } finally {
+            executor.shutdownNow();
+        }
+
+        //The group rolled back as a whole, then each order was written in its own transaction
+        assertEquals(2, queue.getCommitted());
+        assertEquals(1, queue.getFailed());
+        assertEquals(2, queue.getTransactions());
+        assertEquals(3, countOrders());
+    }
+
+    @Test
+    public void testTimedOutItemIsNeverWritten() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        //The first group blocks the committer, so the next item is still pending when its caller gives up
+        queue = newQueue(1, 0, 100, items -> {
+            if (items.contains("ORD-SLOW")) {
+                writing.countDown();
+                release.await();
+            }
+        });
+
+        List<SQLException> slowErrors = new ArrayList<>();
+        Thread slow = new Thread(() -> {
+            try {
+                queue.commit("ORD-SLOW");
+            } catch (SQLException e) {
+                slowErrors.add(e);
+            }
+        });
+        slow.start();
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+
+        SQLException e = assertThrows(SQLException.class, () -> queue.commit("ORD-LATE"));
+        assertEquals("Timed out waiting for commit", e.getMessage());
+
+        //The slow caller's item was already being written, so it waits one more timeout and gives up
+        //with the outcome unknown instead of waiting for the stuck write
+        slow.join(5000);
+        assertFalse(slow.isAlive());
+        assertEquals(1, slowErrors.size());
+        assertEquals("Timed out waiting for commit, outcome unknown", slowErrors.get(0).getMessage());
+
+        release.countDown();
+        queue.close();
+
+        assertTrue(orderExists("ORD-SLOW"));
+        assertFalse(orderExists("ORD-LATE"), "A timed out order must not be written afterwards");
+    }
+
+    @Test
+    public void testCommitterErrorFailsCallersInsteadOfHanging() throws Exception {
+        //Long timeout, so a caller left waiting for the dead committer would hang the test
+        queue = newQueue(1, 0, 60_000, items -> {
+            throw new Error("Committer crashed");
+        });
+
+        long start = System.nanoTime();
+        SQLException e = assertThrows(SQLException.class, () -> queue.commit("ORD-LOST"));
+        assertEquals("Commit aborted by the group commit queue", e.getMessage());
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(30));
+
+        //The committer is gone, so new items are refused rather than queued forever
+        e = assertThrows(SQLException.class, () -> queue.commit("ORD-NEXT"));
+        assertEquals("Group commit queue is closed", e.getMessage());
+        assertEquals(0, countOrders());
+    }
+
+    @Test
+    public void testCloseCommitsPendingItems() throws Exception {
+        //The committer would wait a long time for a second item, close must not wait for it
+        queue = newQueue(2, 60_000, 60_000, null);
+        List<Exception> errors = new ArrayList<>();
+        Thread caller = new Thread(() -> {
+            try {
+                queue.commit("ORD-PENDING");
+            } catch (SQLException e) {
+                errors.add(e);
+            }
+        });
+        caller.start();
+        while (caller.getState() != Thread.State.TIMED_WAITING) {
+            Thread.sleep(1);
+        }
+
+        queue.close();
+        caller.join(5000);
+
+        assertFalse(caller.isAlive());
+        assertTrue(errors.isEmpty());
+        assertTrue(orderExists("ORD-PENDING"));
+        assertThrows(SQLException.class, () -> queue.commit("ORD-CLOSED"));
+    }
+
+    /**
+     * Queue writing order ids, optionally running a hook before each group is written
+     */
+    private GroupCommitQueue<String> newQueue(int maxBatch, long maxWaitMillis, long timeoutMillis, WriteHook hook) {
+        return new GroupCommitQueue<>("group-commit-test", this::connect, (connection, items) -> {
+            if (hook != null) {
+                try {
+                    hook.beforeWrite(items);
+                } catch (InterruptedException e) {
+                    throw new SQLException(e);
+                }
+            }
+            try (PreparedStatement stmt = connection.prepareStatement(
+                    "INSERT INTO orders (id, created_at) VALUES (?, CURRENT_TIMESTAMP)")) {
+                for (String id : items) {
+                    stmt.setString(1, id);
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+            }
+        }, maxBatch, maxWaitMillis, timeoutMillis);
+    }
+
+    private Connection connect() {
+        try {
+            return DriverManager.getConnection(URL, "sa", "");
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void insertOrder(String id) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("INSERT INTO orders (id) VALUES (?)")) {
+            stmt.setString(1, id);
+            stmt.executeUpdate();
+        }
+    }
+
+    private int countOrders() throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM orders")) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    private boolean orderExists(String id) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT 1 FROM orders WHERE id = ?")) {
+            stmt.setString(1, id);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface WriteHook {
+        void beforeWrite(List<String> items) throws InterruptedException;
+    }
+}
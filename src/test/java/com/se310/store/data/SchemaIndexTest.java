@@ -0,0 +1,83 @@
+package com.se310.store.data;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Query plan checks for the secondary indexes created by the schema migrations
+ *
+ * @author  Sergey L. Sundukovskiy
+ * @version 1.0
+ * @since   2025-11-20
+ */
+public class SchemaIndexTest {
+
+    private Connection conn;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        conn = DriverManager.getConnection("jdbc:h2:mem:schema_index_test;DB_CLOSE_DELAY=-1", "sa", "");
+        new SchemaMigrator(SchemaMigrator.defaultMigrations(), 100).migrate(conn);
+    }
+
+    @AfterEach
+    public void tearDown() throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP ALL OBJECTS");
+        }
+        conn.close();
+    }
+
+    @Test
+    public void testCustomersByStoreUsesIndex() throws SQLException {
+        assertUsesIndex("SELECT id FROM customers WHERE store_id = 'S1'", "IDX_CUSTOMERS_STORE_ID");
+    }
+
+    @Test
+    public void testBasketsByCustomerUsesIndex() throws SQLException {
+        assertUsesIndex("SELECT id FROM baskets WHERE customer_id = 'C1'", "IDX_BASKETS_CUSTOMER_ID");
+    }
+
+    @Test
+    public void testBasketsByStoreUsesIndex() throws SQLException {
+        assertUsesIndex("SELECT id FROM baskets WHERE store_id = 'S1'", "IDX_BASKETS_STORE_ID");
+    }
+
+    @Test
+    public void testBasketItemsByProductUsesIndex() throws SQLException {
+        assertUsesIndex("SELECT basket_id FROM basket_items WHERE product_id = 'P1'", "IDX_BASKET_ITEMS_PRODUCT_ID");
+    }
+
+    @Test
+    public void testInventoryByStoreUsesIndex() throws SQLException {
+        assertUsesIndex("SELECT id FROM inventory WHERE store_id = 'S1'", "IDX_INVENTORY_STORE_ID");
+    }
+
+    @Test
+    public void testInventoryByProductUsesIndex() throws SQLException {
+        assertUsesIndex("SELECT id FROM inventory WHERE product_id = 'P1'", "IDX_INVENTORY_PRODUCT_ID");
+    }
+
+    @Test
+    public void testDevicesByStoreUsesIndex() throws SQLException {
+        assertUsesIndex("SELECT id FROM devices WHERE store_id = 'S1'", "IDX_DEVICES_STORE_ID");
+    }
+
+    private void assertUsesIndex(String query, String indexName) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("EXPLAIN " + query)) {
+            assertTrue(rs.next(), "EXPLAIN should return a plan");
+            String plan = rs.getString(1).toUpperCase();
+            assertTrue(plan.contains(indexName), "Expected " + indexName + " in plan: " + plan);
+        }
+    }
+}
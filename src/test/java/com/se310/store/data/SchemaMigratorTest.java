@@ -0,0 +1,103 @@
+package com.se310.store.data;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the versioned schema migrations
+ *
+ * @author  Sergey L. Sundukovskiy
+ * @version 1.0
+ * @since   2025-11-20
+ */
+public class SchemaMigratorTest {
+
+    private Connection conn;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        conn = DriverManager.getConnection("jdbc:h2:mem:schema_migrator_test;DB_CLOSE_DELAY=-1", "sa", "");
+    }
+
+    @AfterEach
+    public void tearDown() throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP ALL OBJECTS");
+        }
+        conn.close();
+    }
+
+    @Test
+    public void testMigrationsAreAppliedOnce() throws SQLException {
+        List<Migration> migrations = SchemaMigrator.defaultMigrations();
+        SchemaMigrator migrator = new SchemaMigrator(migrations, 100);
+
+        assertEquals(migrations.size(), migrator.migrate(conn));
+        assertEquals(migrations.get(migrations.size() - 1).getVersion(), migrator.currentVersion(conn));
+        assertEquals(0, migrator.migrate(conn), "Second run should not apply anything");
+    }
+
+    @Test
+    public void testChunkedBackfillConvertsExistingRows() throws SQLException {
+        List<Migration> migrations = SchemaMigrator.defaultMigrations();
+        new SchemaMigrator(migrations.subList(0, 2), 100).migrate(conn);
+
+        try (Statement stmt = conn.createStatement()) {
+            for (int i = 0; i < 250; i++) {
+                stmt.execute("INSERT INTO products (id, name, price) VALUES ('P" + i + "', 'Product', 1.5)");
+            }
+        }
+
+        //Chunk size smaller than the table so the backfill takes several transactions
+        new SchemaMigrator(migrations, 100).migrate(conn);
+
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*), MIN(price), MAX(price) FROM products")) {
+            assertTrue(rs.next());
+            assertEquals(250, rs.getInt(1));
+            assertEquals(0, new BigDecimal("1.50").compareTo(rs.getBigDecimal(2)));
+            assertEquals(0, new BigDecimal("1.50").compareTo(rs.getBigDecimal(3)));
+        }
+    }
+
+    @Test
+    public void testPriceMigrationResumesAfterColumnWasDropped() throws SQLException {
+        List<Migration> migrations = SchemaMigrator.defaultMigrations();
+        new SchemaMigrator(migrations.subList(0, 2), 100).migrate(conn);
+
+        //State left by a run of V3 that failed between dropping the old column and renaming the new one
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("ALTER TABLE products ADD COLUMN price_fixed DECIMAL(12, 2)");
+            stmt.execute("INSERT INTO products (id, name, price, price_fixed) VALUES ('P1', 'Product', 2.5, 2.5)");
+            stmt.execute("ALTER TABLE products DROP COLUMN price");
+        }
+
+        new SchemaMigrator(migrations, 100).migrate(conn);
+
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT price FROM products WHERE id = 'P1'")) {
+            assertTrue(rs.next());
+            assertEquals(0, new BigDecimal("2.50").compareTo(rs.getBigDecimal(1)));
+        }
+    }
+
+    @Test
+    public void testModifiedMigrationIsRejected() throws SQLException {
+        new SchemaMigrator(List.of(new Migration(1, "test", "CREATE TABLE t1 (id INT);")), 100).migrate(conn);
+
+        SchemaMigrator modified = new SchemaMigrator(
+                List.of(new Migration(1, "test", "CREATE TABLE t1 (id BIGINT);")), 100);
+        assertThrows(SQLException.class, () -> modified.migrate(conn));
+    }
+}
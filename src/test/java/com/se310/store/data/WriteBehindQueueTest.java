@@ -0,0 +1,90 @@
+package com.se310.store.data;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the metrics of the write-behind queue
+ *
+ * @author  Sergey L. Sundukovskiy
+ * @version 1.0
+ * @since   2025-11-20
+ */
+public class WriteBehindQueueTest {
+
+    @Test
+    public void testDurabilityLagIncludesWritesInFlight() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        WriteBehindQueue queue = new WriteBehindQueue(() -> blockingConnection(writing, release), 10, 1, 1, 1000);
+        try {
+            queue.submit("stores:S1", "MERGE INTO stores (id) KEY (id) VALUES (?)", "S1");
+            assertTrue(writing.await(5, TimeUnit.SECONDS));
+
+            //The write has left the pending map but is not durable until its transaction commits
+            Thread.sleep(20);
+            WriteBehindQueue.Stats stats = queue.getStats();
+            assertEquals(0, stats.getPending());
+            assertTrue(stats.getDurabilityLagMillis() >= 20, stats.toString());
+        } finally {
+            release.countDown();
+            queue.close();
+        }
+
+        WriteBehindQueue.Stats stats = queue.getStats();
+        assertEquals(1, stats.getWritten());
+        assertEquals(0, stats.getDurabilityLagMillis());
+    }
+
+    @Test
+    public void testAwaitWrittenWithPrefixWaitsForMatchingWritesOnly() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        WriteBehindQueue queue = new WriteBehindQueue(() -> blockingConnection(writing, release), 10, 1, 1, 1000);
+        try {
+            queue.submit("aisles:S1:A1", "MERGE INTO aisles (store_id) KEY (store_id) VALUES (?)", "S1");
+            assertTrue(writing.await(5, TimeUnit.SECONDS));
+
+            //Nothing is queued for another store, so this returns while the S1 aisle is still in flight
+            queue.awaitWrittenWithPrefix("aisles:S2:");
+
+            Thread waiter = new Thread(() -> queue.awaitWrittenWithPrefix("aisles:S1:"));
+            waiter.start();
+            waiter.join(50);
+            assertTrue(waiter.isAlive());
+
+            release.countDown();
+            waiter.join(5000);
+            assertFalse(waiter.isAlive());
+        } finally {
+            release.countDown();
+            queue.close();
+        }
+    }
+
+    /**
+     * Connection whose batches block until released
+     */
+    private Connection blockingConnection(CountDownLatch writing, CountDownLatch release) {
+        PreparedStatement statement = (PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(), new Class<?>[]{PreparedStatement.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("executeBatch")) {
+                        writing.countDown();
+                        release.await();
+                        return new int[]{1};
+                    }
+                    return null;
+                });
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) ->
+                        method.getName().equals("prepareStatement") ? statement : null);
+    }
+}
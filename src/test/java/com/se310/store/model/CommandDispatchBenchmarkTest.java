@@ -0,0 +1,60 @@
+package com.se310.store.model;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Benchmark tokenizing and dispatching a one-million-line script cycled from the sample script,
+ * without executing the commands.
+ * Timing depends on the machine, so it is left out of the unit suite; run it with mvn test -Pload.
+ *
+ * @author  Sergey L. Sundukovskiy
+ * @version 1.0
+ * @since   2025-11-20
+ */
+@Tag("load")
+public class CommandDispatchBenchmarkTest {
+
+    private static final int LINES = 1_000_000;
+    private static final int RUNS = 3;
+
+    @Test
+    public void testDispatchThroughputOnMillionLineScript() throws Exception {
+        Path path = Path.of(Objects.requireNonNull(getClass().getResource("/store.script")).toURI());
+        List<String> commands = Files.readAllLines(path).stream()
+                .map(String::trim)
+                .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                .filter(line -> !line.equals("Product Commands") && !line.equals("Appliance Commands"))
+                .toList();
+        CommandProcessor processor = new CommandProcessor();
+
+        //Best of several runs, after the first run has warmed up the JIT
+        long best = Long.MAX_VALUE;
+        for (int run = 0; run <= RUNS; run++) {
+            int resolved = 0;
+            long start = System.nanoTime();
+            for (int i = 0; i < LINES; i++) {
+                if (processor.resolve(CommandTokenizer.tokenize(commands.get(i % commands.size()))) != null) {
+                    resolved++;
+                }
+            }
+            long elapsed = System.nanoTime() - start;
+
+            assertEquals(LINES, resolved);
+            if (run > 0) {
+                best = Math.min(best, elapsed);
+            }
+        }
+
+        System.out.println("Dispatched " + LINES + " lines in " + TimeUnit.NANOSECONDS.toMillis(best)
+                + " ms (" + (LINES * 1_000_000_000L / Math.max(1, best)) + " lines/s)");
+    }
+}
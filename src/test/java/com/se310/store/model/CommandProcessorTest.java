@@ -0,0 +1,183 @@
+package com.se310.store.model;
+
+import com.se310.store.data.DataManager;
+import com.se310.store.service.StoreService;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for tokenizing and dispatching DSL commands and for running command scripts
+ *
+ * @author  Sergey L. Sundukovskiy
+ * @version 1.0
+ * @since   2025-11-20
+ */
+public class CommandProcessorTest {
+
+    @Test
+    public void testTokenizerHandlesQuotedTokens() {
+        List<String> tokens = CommandTokenizer.tokenize(
+                "  define  store store_123 name \"Seattle Store\"  address \"1 Main St\"  ");
+
+        assertEquals(List.of("define", "store", "store_123", "name", "Seattle Store", "address", "1 Main St"), tokens);
+        assertTrue(CommandTokenizer.tokenize("   ").isEmpty());
+    }
+
+    @Test
+    public void testDispatchMatchesWholeVerbs() {
+        CommandProcessor processor = new CommandProcessor();
+
+        assertNotNull(processor.resolve(CommandTokenizer.tokenize("Show basket_items b1")));
+        assertNotNull(processor.resolve(CommandTokenizer.tokenize("add_basket_item b1 product p1 item_count 2")));
+        //Verbs appearing inside arguments must not be matched
+        assertNull(processor.resolve(CommandTokenizer.tokenize("describe customer \"show store\"")));
+        assertNull(processor.resolve(CommandTokenizer.tokenize("showstore s1")));
+
+        CommandException e = assertThrows(CommandException.class, () -> processor.processCommand("unknown verb"));
+        assertEquals("Unrecognized Command", e.getReason());
+    }
+
+    @Test
+    public void testScriptResumesFromLine() throws Exception {
+        Path script = Files.createTempFile("resume", ".script");
+        try {
+            Files.write(script, List.of("# comment", "bogus one", "bogus two", "", "bogus three"));
+            CommandProcessor processor = new CommandProcessor();
+
+            ScriptProgress progress = processor.processCommandFile(script.toString(), 3);
+
+            assertTrue(progress.isComplete());
+            assertEquals(2, progress.getFailed(), "Lines before the start line must be skipped");
+            assertEquals(5, progress.getLastLine());
+            assertEquals(6, progress.getResumeLine());
+        } finally {
+            Files.deleteIfExists(script);
+        }
+    }
+
+    @Test
+    public void testRuntimeErrorFailsOnlyItsLine() throws Exception {
+        Path script = Files.createTempFile("runtime-error", ".script");
+        try {
+            Files.write(script, List.of("show store s1", "bogus one", "show store s2"));
+            CommandProcessor processor = new CommandProcessor();
+            processor.storeService = new StoreService() {
+                @Override
+                public Store showStore(String storeId, String token) {
+                    throw new IllegalStateException("Store registry unavailable");
+                }
+            };
+
+            ScriptProgress progress = processor.processCommandFile(script.toString(), 1);
+
+            assertTrue(progress.isComplete());
+            assertEquals(3, progress.getFailed());
+            assertEquals(3, progress.getLastLine());
+        } finally {
+            Files.deleteIfExists(script);
+        }
+    }
+
+    @Test
+    public void testLanesFollowStoreOfCommand() {
+        CommandProcessor processor = new CommandProcessor();
+
+        assertEquals("s1", processor.laneOf(CommandTokenizer.tokenize("define store s1 name S address A")));
+        assertEquals("s1", processor.laneOf(CommandTokenizer.tokenize("define shelf s1:a1:sh1 name N level high")));
+        assertEquals("s1", processor.laneOf(CommandTokenizer.tokenize("define inventory i1 location s1:a1:sh1")));
+        //Commands not tied to a Store are barriers
+        assertNull(processor.laneOf(CommandTokenizer.tokenize("define product p1 name P")));
+        assertNull(processor.laneOf(CommandTokenizer.tokenize("define customer c1 first_name F")));
+        assertNull(processor.laneOf(CommandTokenizer.tokenize("update customer c1 location s1:a1")));
+    }
+
+    @Test
+    public void testParallelSeedingOfManyStores() throws Exception {
+        int stores = 50;
+        //Both runs seed the same in-memory database, so each uses its own ids
+        String sequentialPrefix = "seq_";
+        String parallelPrefix = "par_";
+        Path sequentialScript = Files.createTempFile("seed-sequential", ".script");
+        Path parallelScript = Files.createTempFile("seed-parallel", ".script");
+        try {
+            Files.write(sequentialScript, seedingScript(sequentialPrefix, stores));
+            Files.write(parallelScript, seedingScript(parallelPrefix, stores));
+            DataManager.getInstance().clearAllTables();
+            StoreService.clearAllMaps();
+            CommandProcessor processor = new CommandProcessor();
+
+            ScriptProgress sequential = processor.processCommandFile(sequentialScript.toString(), 1);
+            ScriptProgress parallel = processor.processCommandFileParallel(parallelScript.toString(), 1,
+                    Runtime.getRuntime().availableProcessors());
+
+            assertEquals(0, sequential.getFailed());
+            assertTrue(parallel.isComplete());
+            assertEquals(0, parallel.getFailed());
+            assertEquals(sequential.getExecuted(), parallel.getExecuted());
+            for (int store = 0; store < stores; store++) {
+                String storeId = parallelPrefix + "store_" + store;
+                assertEquals(1, processor.storeService.showShelf(storeId, "aisle_4", "shelf_4", null)
+                        .getInventoryMap().size());
+            }
+        } finally {
+            Files.deleteIfExists(sequentialScript);
+            Files.deleteIfExists(parallelScript);
+        }
+    }
+
+    /**
+     * Script defining products once, then stores with aisles, shelves and inventory
+     */
+    private List<String> seedingScript(String prefix, int stores) {
+        List<String> lines = new ArrayList<>();
+        lines.add("# Generated seeding script");
+        for (int product = 0; product < 5; product++) {
+            lines.add("define product " + prefix + "prod_" + product + " name P description P size 1 category Food"
+                    + " unit_price 1 temperature ambient");
+        }
+        for (int store = 0; store < stores; store++) {
+            String storeId = prefix + "store_" + store;
+            lines.add("define store " + storeId + " name Store address \"1 Main St\"");
+            for (int aisle = 0; aisle < 5; aisle++) {
+                String aisleId = storeId + ":aisle_" + aisle;
+                lines.add("define aisle " + aisleId + " name A description A location floor");
+                for (int shelf = 0; shelf < 5; shelf++) {
+                    String shelfId = aisleId + ":shelf_" + shelf;
+                    lines.add("define shelf " + shelfId + " name S level high description S temperature ambient");
+                    lines.add("define inventory " + prefix + "inv_" + store + "_" + aisle + "_" + shelf
+                            + " location " + shelfId + " capacity 100 count 50 type standard product "
+                            + prefix + "prod_" + shelf);
+                }
+            }
+        }
+        return lines;
+    }
+
+    @Test
+    public void testEverySampleScriptCommandResolves() throws Exception {
+        Path path = Path.of(Objects.requireNonNull(getClass().getResource("/store.script")).toURI());
+        List<String> commands = Files.readAllLines(path).stream()
+                .map(String::trim)
+                .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                .toList();
+        CommandProcessor processor = new CommandProcessor();
+
+        //Tokenize and resolve every line of the sample script without executing it
+        List<String> unresolved = new ArrayList<>();
+        for (String command : commands) {
+            if (processor.resolve(CommandTokenizer.tokenize(command)) == null) {
+                unresolved.add(command);
+            }
+        }
+
+        //Only the section titles of the script are not commands
+        assertEquals(List.of("Product Commands", "Appliance Commands"), unresolved);
+    }
+}
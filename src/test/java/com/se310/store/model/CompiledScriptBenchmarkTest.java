@@ -0,0 +1,132 @@
+package com.se310.store.model;
+
+import com.se310.store.service.StoreService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedWriter;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Benchmark replaying the same script as text with processCommandFile and in compiled form with
+ * processCompiledScript. The Store Service is replaced by one that does no work, and the script only
+ * defines Stores, Aisles and Shelves, so the comparison covers reading, parsing and dispatch rather than the
+ * database or printing command results.
+ * Timing depends on the machine, so it is left out of the unit suite; run it with mvn test -Pload.
+ *
+ * @author  Sergey L. Sundukovskiy
+ * @version 1.0
+ * @since   2025-11-20
+ */
+@Tag("load")
+public class CompiledScriptBenchmarkTest {
+
+    private static final int LINES = 1_000_000;
+    private static final int RUNS = 3;
+    private static final List<String> SCRIPT = List.of(
+            "# Store Commands",
+            "define  store  store_123 name Chapman address \"One University Drive, Orange, CA 92866\"",
+            "define  aisle  store_123:aisle_A1  name  AISLE_A1  description  AISLE_A1_desc location  store_room",
+            "define  shelf  store_123:aisle_A1:shelf_q1  name  Shelf_Q1  level  high   description  \"lasanaga\" temperature  frozen");
+
+    private Path source;
+    private Path compiled;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        source = Files.createTempFile("benchmark", ".script");
+        compiled = Files.createTempFile("benchmark", ".bin");
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        Files.deleteIfExists(source);
+        Files.deleteIfExists(compiled);
+    }
+
+    @Test
+    public void testCompiledReplayIsFasterThanTextReplay() throws Exception {
+        try (BufferedWriter writer = Files.newBufferedWriter(source)) {
+            for (int i = 0; i < LINES; i++) {
+                writer.write(SCRIPT.get(i % SCRIPT.size()));
+                writer.newLine();
+            }
+        }
+        CompiledScript.compile(source, compiled);
+        CommandProcessor processor = new CommandProcessor();
+        processor.storeService = new IdleStoreService();
+
+        //Best of several runs, after the first run of each has warmed up the JIT
+        long textNanos = Long.MAX_VALUE;
+        long compiledNanos = Long.MAX_VALUE;
+        PrintStream out = System.out;
+        try {
+            //The text path echoes every line
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            for (int run = 0; run <= RUNS; run++) {
+                long start = System.nanoTime();
+                ScriptProgress text = processor.processCommandFile(source.toString(), 1);
+                long textRun = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                ScriptProgress binary = processor.processCompiledScript(compiled.toString());
+                long compiledRun = System.nanoTime() - start;
+
+                assertEquals(LINES / SCRIPT.size() * 3, text.getExecuted());
+                assertEquals(text.getExecuted(), binary.getExecuted());
+                assertEquals(0, text.getFailed() + binary.getFailed());
+                if (run > 0) {
+                    textNanos = Math.min(textNanos, textRun);
+                    compiledNanos = Math.min(compiledNanos, compiledRun);
+                }
+            }
+        } finally {
+            System.setOut(out);
+        }
+
+        System.out.println(LINES + " lines as text in " + TimeUnit.NANOSECONDS.toMillis(textNanos)
+                + " ms, compiled in " + TimeUnit.NANOSECONDS.toMillis(compiledNanos) + " ms");
+        assertTrue(compiledNanos * 10 <= textNanos, "Compiled replay should be an order of magnitude faster");
+    }
+
+    /**
+     * Store Service that accepts every command without doing any work
+     */
+    private static class IdleStoreService extends StoreService {
+        private final Store store = new Store("store_123", "Address", "Chapman");
+
+        @Override
+        public void beginBulkLoad() {
+        }
+
+        @Override
+        public void endBulkLoad() {
+        }
+
+        @Override
+        public Store provisionStore(String storeId, String name, String address, String token) {
+            return store;
+        }
+
+        @Override
+        public Aisle provisionAisle(String storeId, String aisleNumber, String name, String description,
+                                    AisleLocation location, String token) {
+            return null;
+        }
+
+        @Override
+        public Shelf provisionShelf(String storeId, String aisleNumber, String shelfId, String name,
+                                    ShelfLevel level, String description, Temperature temperature, String token) {
+            return null;
+        }
+    }
+}
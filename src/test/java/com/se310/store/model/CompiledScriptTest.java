@@ -0,0 +1,145 @@
+package com.se310.store.model;
+
+import com.se310.store.data.DataManager;
+import com.se310.store.service.StoreService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for compiling DSL scripts to their binary form and replaying them
+ *
+ * @author  Sergey L. Sundukovskiy
+ * @version 1.0
+ * @since   2025-11-20
+ */
+public class CompiledScriptTest {
+
+    private static final List<String> SCRIPT = List.of(
+            "# Store Commands",
+            "define  store  store_123 name Chapman address \"One University Drive, Orange, CA 92866\"",
+            "",
+            "define  aisle  store_123:aisle_A1  name  AISLE_A1  description  AISLE_A1_desc location  store_room",
+            "define  shelf  store_123:aisle_A1:shelf_q1  name  Shelf_Q1  level  high   description  \"lasanaga\" temperature  frozen",
+            "show  store  store_123");
+
+    private Path source;
+    private Path compiled;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        source = Files.createTempFile("compiled", ".script");
+        compiled = Files.createTempFile("compiled", ".bin");
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        Files.deleteIfExists(source);
+        Files.deleteIfExists(compiled);
+    }
+
+    @Test
+    public void testReplayReturnsTokensAndSourceLines() throws Exception {
+        Files.write(source, SCRIPT);
+
+        assertEquals(4, CompiledScript.compile(source, compiled));
+
+        List<String> replayed = new ArrayList<>();
+        CompiledScript.replay(compiled, (opcode, lineNumber, tokens) ->
+                replayed.add(CompiledScript.VERBS.get(opcode) + "@" + lineNumber + "=" + tokens));
+
+        assertEquals(List.of(
+                "define store@2=" + CommandTokenizer.tokenize(SCRIPT.get(1)),
+                "define aisle@4=" + CommandTokenizer.tokenize(SCRIPT.get(3)),
+                "define shelf@5=" + CommandTokenizer.tokenize(SCRIPT.get(4)),
+                "show store@6=" + CommandTokenizer.tokenize(SCRIPT.get(5))), replayed);
+    }
+
+    @Test
+    public void testCorruptScriptIsRejectedBeforeReplay() throws Exception {
+        Files.write(source, SCRIPT);
+        CompiledScript.compile(source, compiled);
+
+        byte[] bytes = Files.readAllBytes(compiled);
+        bytes[bytes.length / 2] ^= 1;
+        Files.write(compiled, bytes);
+
+        List<Integer> replayed = new ArrayList<>();
+        CommandException e = assertThrows(CommandException.class,
+                () -> CompiledScript.replay(compiled, (opcode, lineNumber, tokens) -> replayed.add(opcode)));
+        assertEquals("Compiled Script Checksum Mismatch", e.getReason());
+        assertTrue(replayed.isEmpty());
+
+        Files.write(compiled, SCRIPT);
+        e = assertThrows(CommandException.class, () -> CompiledScript.replay(compiled, (opcode, lineNumber, tokens) -> { }));
+        assertEquals("Not A Compiled Script", e.getReason());
+    }
+
+    @Test
+    public void testCompileRejectsUnknownCommand() throws Exception {
+        Files.write(source, List.of("define store s1 name S address A", "# comment", "describe store s1"));
+
+        CommandException e = assertThrows(CommandException.class, () -> CompiledScript.compile(source, compiled));
+        assertEquals(3, e.getLineNumber());
+    }
+
+    @Test
+    public void testProcessCompiledScriptExecutesCommands() throws Exception {
+        Files.write(source, SCRIPT);
+        CompiledScript.compile(source, compiled);
+        DataManager.getInstance().clearAllTables();
+        StoreService.clearAllMaps();
+        CommandProcessor processor = new CommandProcessor();
+
+        ScriptProgress progress = processor.processCompiledScript(compiled.toString());
+
+        assertTrue(progress.isComplete());
+        assertEquals(4, progress.getExecuted());
+        assertEquals(0, progress.getFailed());
+        assertEquals(6, progress.getLastLine());
+        Shelf shelf = processor.storeService.showShelf("store_123", "aisle_A1", "shelf_q1", null);
+        assertEquals("Shelf_Q1", shelf.getName());
+        assertEquals(Temperature.frozen, shelf.getTemperature());
+    }
+
+    @Test
+    public void testLargeScriptReplaysEveryParsedCommand() throws Exception {
+        int lines = 100_000;
+        try (BufferedWriter writer = Files.newBufferedWriter(source)) {
+            for (int i = 0; i < lines; i++) {
+                String line = SCRIPT.get(1 + (i % 5));
+                writer.write(line.isEmpty() ? "# blank" : line);
+                writer.newLine();
+            }
+        }
+        CompiledScript.compile(source, compiled);
+
+        //Text path: read, tokenize and resolve every line
+        int parsed = 0;
+        try (BufferedReader reader = Files.newBufferedReader(source)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.startsWith("#") && CompiledScript.opcodeOf(CommandTokenizer.tokenize(line)) >= 0) {
+                    parsed++;
+                }
+            }
+        }
+
+        //Binary path: verify and decode every command
+        int[] replayed = new int[1];
+        CompiledScript.replay(compiled, (opcode, lineNumber, tokens) -> replayed[0]++);
+
+        assertEquals(lines / 5 * 4, parsed);
+        assertEquals(parsed, replayed[0]);
+        assertTrue(Files.size(compiled) < Files.size(source), "Compiled script should be smaller than its source");
+    }
+}
@@ -0,0 +1,63 @@
+package com.se310.store.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the version counters that back conditional requests
+ *
+ * @author  Sergey L. Sundukovskiy
+ * @version 1.0
+ * @since   2025-11-20
+ */
+public class EntityVersionTest {
+
+    @Test
+    public void testStoreVersionGrowsOnlyOnChange() throws Exception {
+        Store store = new Store("S1", "Address", "Store");
+        assertEquals(0, store.getVersion());
+
+        store.setAddress("New Address");
+        store.setDescription("New Store");
+        assertEquals(2, store.getVersion());
+    }
+
+    @Test
+    public void testStoreVersionIgnoresCollectionsNotInItsRepresentation() throws Exception {
+        Store store = new Store("S1", "Address", "Store");
+        Customer customer = new Customer("C1", "F", "L", CustomerType.registered, "e", "a");
+
+        //Customers moving in and out of a busy Store must not change its ETag
+        store.addAisle("A1", "Aisle", "Aisle", AisleLocation.floor);
+        store.addCustomer(customer);
+        store.removeCustomer(customer);
+        store.addBasket(new Basket("B1"));
+        store.addInventory(new Inventory("I1", new InventoryLocation("S1", "A1", "SH1"), 10, 5, "P1",
+                InventoryType.standard));
+        assertEquals(0, store.getVersion());
+    }
+
+    @Test
+    public void testInventoryVersionFollowsSuccessfulReservations() {
+        Inventory inventory = new Inventory("I1", new InventoryLocation("S1", "A1", "SH1"), 10, 5, "P1",
+                InventoryType.standard);
+
+        assertTrue(inventory.tryReserve(2));
+        assertFalse(inventory.tryReserve(10));
+        assertFalse(inventory.tryRelease(10));
+        assertEquals(1, inventory.getVersion());
+    }
+
+    @Test
+    public void testCustomerAndDeviceVersionsGrowOnSetters() {
+        Customer customer = new Customer("C1", "F", "L", CustomerType.registered, "e", "a");
+        customer.setStoreLocation(new StoreLocation("S1", "A1"));
+        customer.assignBasket(new Basket("B1"));
+        assertEquals(2, customer.getVersion());
+
+        Device device = new Sensor("D1", "Camera", new StoreLocation("S1", "A1"), "camera");
+        device.setName("Entrance Camera");
+        assertEquals(1, device.getVersion());
+    }
+}
@@ -0,0 +1,128 @@
+package com.se310.store.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Contention tests for the compare-and-set reservation API of Inventory
+ *
+ * @author  Sergey L. Sundukovskiy
+ * @version 1.0
+ * @since   2025-11-20
+ */
+public class InventoryReservationTest {
+
+    private static final int THREADS = Math.max(4, Runtime.getRuntime().availableProcessors());
+
+    private Inventory newInventory(int capacity, int count) {
+        return new Inventory("I1", new InventoryLocation("S1", "A1", "SH1"), capacity, count, "P1",
+                InventoryType.standard);
+    }
+
+    @Test
+    public void testReserveAndReleaseRespectBounds() {
+        Inventory inventory = newInventory(10, 5);
+
+        assertTrue(inventory.tryReserve(5));
+        assertFalse(inventory.tryReserve(1));
+        assertEquals(0, inventory.getCount());
+
+        assertTrue(inventory.tryRelease(10));
+        assertFalse(inventory.tryRelease(1));
+        assertEquals(10, inventory.getCount());
+
+        assertFalse(inventory.tryReserve(-1));
+        assertFalse(inventory.tryRelease(-1));
+    }
+
+    @Test
+    public void testConcurrentReservationsNeverOversell() throws Exception {
+        int stock = 10_000;
+        Inventory inventory = newInventory(stock, stock);
+        AtomicInteger reserved = new AtomicInteger();
+
+        //Every thread keeps reserving until the shelf is empty
+        runConcurrently(() -> {
+            while (inventory.tryReserve(1)) {
+                reserved.incrementAndGet();
+            }
+        });
+
+        assertEquals(stock, reserved.get(), "Every unit should be reserved exactly once");
+        assertEquals(0, inventory.getCount());
+    }
+
+    @Test
+    public void testConcurrentReserveAndReleaseStayWithinCapacity() throws Exception {
+        int capacity = 100;
+        int rounds = 10_000;
+        Inventory inventory = newInventory(capacity, capacity / 2);
+
+        //Each thread takes a unit and puts it back, so the count must end where it started
+        runConcurrently(() -> {
+            for (int i = 0; i < rounds; i++) {
+                if (inventory.tryReserve(1)) {
+                    assertTrue(inventory.tryRelease(1));
+                }
+                int count = inventory.getCount();
+                assertTrue(count >= 0 && count <= capacity, "Count out of bounds: " + count);
+            }
+        });
+
+        assertEquals(capacity / 2, inventory.getCount());
+    }
+
+    @Test
+    public void testUnassignedBasketReservesNothing() {
+        Basket basket = new Basket("B1");
+
+        StoreException e = assertThrows(StoreException.class, () -> basket.addProduct("P1", 1));
+        assertEquals("Basket Has Not Being Assigned", e.getReason());
+        assertEquals(0, basket.getReservedUnits());
+    }
+
+    @Test
+    public void testClearedBasketRejectsFurtherChanges() throws Exception {
+        Customer customer = new Customer("C1", "F", "L", CustomerType.registered, "e", "a");
+        Basket basket = new Basket("B1");
+        basket.setCustomer(customer);
+        customer.assignBasket(basket);
+        basket.clearBasket();
+
+        //A caller that looked the Basket up before it was cleared gets a StoreException, not a NullPointerException
+        StoreException e = assertThrows(StoreException.class, basket::clearBasket);
+        assertEquals("Basket Has Not Being Assigned", e.getReason());
+        e = assertThrows(StoreException.class, () -> basket.removeProduct("P1", 1));
+        assertEquals("Basket Has Not Being Assigned", e.getReason());
+    }
+
+    /**
+     * Run the task on THREADS threads that all start at the same time
+     */
+    private void runConcurrently(Runnable task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    task.run();
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
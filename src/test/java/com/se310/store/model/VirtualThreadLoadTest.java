@@ -0,0 +1,86 @@
+package com.se310.store.model;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Load test comparing platform and virtual request threads on a workload that blocks like the
+ * request path does: a database read, then a checkout that waits for the order commit while holding
+ * the Basket lock.
+ * Timing depends on the machine, so it is left out of the unit suite; run it with mvn test -Pload.
+ * VirtualThreadPinningTest checks the same path for pinning deterministically.
+ *
+ * @author  Sergey L. Sundukovskiy
+ * @version 1.0
+ * @since   2025-11-20
+ */
+@Tag("load")
+public class VirtualThreadLoadTest {
+
+    private static final int REQUESTS = 2_000;
+    // Default maxThreads of the Tomcat connector
+    private static final int PLATFORM_THREADS = 200;
+    private static final long QUERY_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final long COMMIT_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    @Test
+    public void testVirtualThreadsKeepUpWithPlatformPool() throws Exception {
+        long platformNanos;
+        try (ExecutorService executor = Executors.newFixedThreadPool(PLATFORM_THREADS)) {
+            platformNanos = run(executor, "platform");
+        }
+        long virtualNanos;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            virtualNanos = run(executor, "virtual");
+        }
+
+        System.out.println(REQUESTS + " checkouts on " + PLATFORM_THREADS + " platform threads in "
+                + TimeUnit.NANOSECONDS.toMillis(platformNanos) + " ms, on virtual threads in "
+                + TimeUnit.NANOSECONDS.toMillis(virtualNanos) + " ms");
+        //A checkout pinning its carrier would limit virtual threads to one checkout per core at a time
+        assertTrue(virtualNanos < platformNanos * 2, "Virtual threads must not fall behind the platform pool");
+    }
+
+    /**
+     * Run every request on the executor and wait for all of them
+     */
+    private long run(ExecutorService executor, String name) throws Exception {
+        long start = System.nanoTime();
+        List<Future<String>> results = new ArrayList<>(REQUESTS);
+        for (int i = 0; i < REQUESTS; i++) {
+            String basketId = name + "-B" + i;
+            results.add(executor.submit(() -> request(basketId)));
+        }
+        for (int i = 0; i < REQUESTS; i++) {
+            assertEquals(name + "-B" + i, results.get(i).get());
+        }
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * One request: read from the database, then check out a Basket whose order commit blocks
+     */
+    private String request(String basketId) throws StoreException {
+        LockSupport.parkNanos(QUERY_NANOS);
+
+        Customer customer = new Customer("C-" + basketId, "F", "L", CustomerType.registered, "e", "a");
+        Basket basket = new Basket(basketId);
+        basket.setCustomer(customer);
+        customer.assignBasket(basket);
+
+        return basket.checkout((lines, reserved, inventory) -> {
+            LockSupport.parkNanos(COMMIT_NANOS);
+            return basketId;
+        });
+    }
+}
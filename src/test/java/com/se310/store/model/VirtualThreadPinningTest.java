@@ -0,0 +1,122 @@
+package com.se310.store.model;
+
+import com.se310.store.data.DataManager;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.Test;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that virtual request threads are not pinned to their carrier on the request path: a database
+ * read, then a checkout that waits for the order commit while holding the Basket lock.
+ * Pinning is detected with the JFR jdk.VirtualThreadPinned event rather than by timing the requests;
+ * VirtualThreadLoadTest compares the timings in the load profile.
+ *
+ * @author  Sergey L. Sundukovskiy
+ * @version 1.0
+ * @since   2025-11-20
+ */
+public class VirtualThreadPinningTest {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int REQUESTS = 200;
+    private static final long COMMIT_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    public void testCheckoutDoesNotPinVirtualThreads() throws Exception {
+        DataManager dataManager = DataManager.getInstance();
+
+        List<String> pinned = recordPinning(() -> {
+            List<Future<String>> results = new ArrayList<>(REQUESTS);
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < REQUESTS; i++) {
+                    String basketId = "B" + i;
+                    results.add(executor.submit(() -> request(dataManager, basketId)));
+                }
+                for (int i = 0; i < REQUESTS; i++) {
+                    assertEquals("B" + i, results.get(i).get());
+                }
+            }
+        });
+
+        assertEquals(List.of(), pinned, "Virtual threads must not be pinned while checking out");
+    }
+
+    @Test
+    public void testPinnedThreadIsRecorded() throws Exception {
+        Object monitor = new Object();
+
+        //Parking inside synchronized pins the carrier, so the check above is not passing vacuously
+        List<String> pinned = recordPinning(() -> {
+            Thread thread = Thread.ofVirtual().start(() -> {
+                synchronized (monitor) {
+                    LockSupport.parkNanos(COMMIT_NANOS);
+                }
+            });
+            thread.join();
+        });
+
+        assertEquals(1, pinned.size());
+    }
+
+    /**
+     * Run the workload while recording every pinned virtual thread park, and return where each one parked
+     */
+    private List<String> recordPinning(Workload workload) throws Exception {
+        List<String> pinned = new CopyOnWriteArrayList<>();
+        try (RecordingStream recording = new RecordingStream()) {
+            recording.enable(PINNED_EVENT).withThreshold(Duration.ZERO).withStackTrace();
+            recording.onEvent(PINNED_EVENT, event -> pinned.add(String.valueOf(event.getStackTrace())));
+            recording.startAsync();
+            workload.run();
+            //Stopping delivers every event recorded so far before returning
+            recording.stop();
+        }
+        return pinned;
+    }
+
+    /**
+     * One request: read from the database, then check out a Basket whose order commit blocks
+     */
+    private String request(DataManager dataManager, String basketId) throws StoreException, SQLException {
+        query(dataManager);
+
+        Customer customer = new Customer("C-" + basketId, "F", "L", CustomerType.registered, "e", "a");
+        Basket basket = new Basket(basketId);
+        basket.setCustomer(customer);
+        customer.assignBasket(basket);
+
+        return basket.checkout((lines, reserved, inventory) -> {
+            try {
+                query(dataManager);
+            } catch (SQLException e) {
+                throw new StoreException("Checkout", e.getMessage());
+            }
+            LockSupport.parkNanos(COMMIT_NANOS);
+            return basketId;
+        });
+    }
+
+    private void query(DataManager dataManager) throws SQLException {
+        try (ResultSet rs = dataManager.executeQuery("SELECT 1")) {
+            assertTrue(rs.next());
+        }
+    }
+
+    @FunctionalInterface
+    private interface Workload {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,155 @@
+package com.se310.store.service;
+
+import com.se310.store.model.Aisle;
+import com.se310.store.model.AisleLocation;
+import com.se310.store.model.Store;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the batched Customer location ingestion path and its per-Store position tables
+ *
+ * @author  Sergey L. Sundukovskiy
+ * @version 1.0
+ * @since   2025-11-20
+ */
+public class CustomerLocationIngestorTest {
+
+    private final Map<String, Store> stores = new HashMap<>();
+    private final List<List<CustomerLocationIngestor.Position>> snapshots = new ArrayList<>();
+    private CustomerLocationIngestor ingestor;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        for (String storeId : new String[] {"S1", "S2"}) {
+            Store store = new Store(storeId, "Address", "Store");
+            store.addAisle(new Aisle("A1", "Aisle", "Aisle", AisleLocation.floor));
+            store.addAisle(new Aisle("A2", "Aisle", "Aisle", AisleLocation.floor));
+            stores.put(storeId, store);
+        }
+        //Snapshots are taken explicitly by the tests
+        ingestor = new CustomerLocationIngestor(stores::get, customerId -> customerId.startsWith("C"),
+                snapshots::add, 3_600_000, 16);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ingestor.close();
+    }
+
+    @Test
+    public void testLastWriteWinsWithinStore() {
+        LocationBatch batch = new LocationBatch(8);
+        batch.add("C1", "S1", "A1", 200);
+        batch.add("C1", "S1", "A2", 100);
+        batch.add("X1", "S1", "A1", 300);
+        batch.add("C2", "S1", "A9", 300);
+
+        assertEquals(1, ingestor.ingest(batch));
+        assertEquals(1, ingestor.getStale());
+        assertEquals(2, ingestor.getRejected());
+        assertEquals("A1", ingestor.getPosition("S1", "C1").getAisleNumber());
+        assertEquals(200, ingestor.getPosition("S1", "C1").getSeenAt());
+    }
+
+    @Test
+    public void testSnapshotWritesOnlyChangedPositions() {
+        LocationBatch batch = new LocationBatch(8);
+        batch.add("C1", "S1", "A1", 100);
+        batch.add("C2", "S1", "A2", 100);
+        ingestor.ingest(batch);
+
+        assertEquals(2, ingestor.snapshot());
+        assertEquals(0, ingestor.snapshot(), "Nothing changed since the previous snapshot");
+
+        //The same batch object is reused for the next round of updates
+        batch.clear();
+        batch.add("C2", "S1", "A1", 200);
+        ingestor.ingest(batch);
+
+        assertEquals(1, ingestor.snapshot());
+        CustomerLocationIngestor.Position position = snapshots.get(1).get(0);
+        assertEquals("C2", position.getCustomerId());
+        assertEquals("A1", position.getAisleNumber());
+    }
+
+    @Test
+    public void testSnapshotKeepsLatestStoreOfMovingCustomer() {
+        LocationBatch batch = new LocationBatch(8);
+        batch.add("C1", "S1", "A1", 100);
+        batch.add("C1", "S2", "A2", 200);
+        ingestor.ingest(batch);
+
+        assertEquals(1, ingestor.snapshot());
+        assertEquals("S2", snapshots.get(0).get(0).getStoreId());
+        assertNull(ingestor.getPosition("S1", "C1"), "Customer should be forgotten by the Store he left");
+        assertNotNull(ingestor.getPosition("S2", "C1"));
+    }
+
+    @Test
+    public void testFailedSnapshotIsWrittenAgain() {
+        List<Integer> attempts = new ArrayList<>();
+        CustomerLocationIngestor failingOnce = new CustomerLocationIngestor(stores::get,
+                customerId -> customerId.startsWith("C"), positions -> {
+                    attempts.add(positions.size());
+                    if (attempts.size() == 1) {
+                        throw new SQLException("Database unavailable");
+                    }
+                    snapshots.add(positions);
+                }, 3_600_000, 16);
+        try {
+            LocationBatch batch = new LocationBatch(8);
+            batch.add("C1", "S1", "A1", 100);
+            batch.add("C1", "S2", "A2", 200);
+            failingOnce.ingest(batch);
+
+            assertEquals(0, failingOnce.snapshot());
+            //Nothing is pruned until the move has been written
+            assertNotNull(failingOnce.getPosition("S1", "C1"));
+
+            assertEquals(1, failingOnce.snapshot());
+            assertEquals(List.of(1, 1), attempts);
+            assertEquals("S2", snapshots.get(0).get(0).getStoreId());
+            assertNull(failingOnce.getPosition("S1", "C1"));
+            assertEquals(1, failingOnce.getSnapshots());
+        } finally {
+            failingOnce.close();
+        }
+    }
+
+    @Test
+    public void testPositionTableGrowsAndRemoves() {
+        CustomerPositionTable table = new CustomerPositionTable("S1", 8);
+        int customers = 1000;
+        for (int i = 0; i < customers; i++) {
+            assertTrue(table.put("C" + i, "A" + (i % 3), i));
+        }
+        assertEquals(customers, table.size());
+
+        //Remove every other Customer; the rest must stay reachable
+        for (int i = 0; i < customers; i += 2) {
+            assertTrue(table.remove("C" + i, Long.MAX_VALUE));
+        }
+        assertEquals(customers / 2, table.size());
+        for (int i = 0; i < customers; i++) {
+            if (i % 2 == 0) {
+                assertNull(table.getAisleNumber("C" + i));
+            } else {
+                assertEquals("A" + (i % 3), table.getAisleNumber("C" + i));
+                assertEquals(i, table.getSeenAt("C" + i));
+            }
+        }
+
+        assertFalse(table.remove("C1", 0), "A newer position must not be removed");
+        assertEquals(customers, table.drainDirty((storeId, customerId, aisleNumber, seenAt) -> { }) * 2);
+    }
+}
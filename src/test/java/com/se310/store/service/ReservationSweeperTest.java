@@ -0,0 +1,125 @@
+package com.se310.store.service;
+
+import com.se310.store.model.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for expiry of Basket reservations by the timer wheel sweeper
+ *
+ * @author  Sergey L. Sundukovskiy
+ * @version 1.0
+ * @since   2025-11-20
+ */
+public class ReservationSweeperTest {
+
+    private static final long TTL_MILLIS = 200;
+    private static final long TICK_MILLIS = 20;
+
+    private Store store;
+    private Inventory inventory;
+    private Customer customer;
+    private Basket basket;
+    private ReservationSweeper sweeper;
+    private AtomicLong clock;
+
+    @BeforeEach
+    public void setUp() throws StoreException {
+        store = new Store("S1", "Address", "Store");
+        Aisle aisle = store.addAisle("A1", "Aisle", "Aisle", AisleLocation.floor);
+        Shelf shelf = aisle.addShelf("SH1", "Shelf", ShelfLevel.high, "Shelf", Temperature.ambient);
+        inventory = shelf.addInventory("I1", "S1", "A1", "SH1", 10, 10, "P1", InventoryType.standard);
+        store.addInventory(inventory);
+
+        customer = new Customer("C1", "First", "Last", CustomerType.registered, "customer@store.com", "Address");
+        customer.setStoreLocation(new StoreLocation("S1", "A1"));
+        basket = new Basket("B1");
+        basket.setCustomer(customer);
+        basket.setStore(store);
+        customer.assignBasket(basket);
+        store.addBasket(basket);
+
+        //Small wheel so that deadlines wrap around it; sweeps are run directly against a manual clock
+        clock = new AtomicLong(System.currentTimeMillis());
+        sweeper = new ReservationSweeper(Map.of("B1", basket)::get, TTL_MILLIS, TICK_MILLIS, 4, clock::get);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        sweeper.close();
+    }
+
+    @Test
+    public void testAbandonedReservationIsReturnedToShelf() throws Exception {
+        basket.addProduct("P1", 4);
+        sweeper.track(basket);
+        assertEquals(6, inventory.getCount());
+        assertEquals(4, store.getReservedUnits());
+
+        advance(TTL_MILLIS - TICK_MILLIS);
+        assertEquals(6, inventory.getCount(), "Reservation must not expire before its ttl");
+        advance(TTL_MILLIS * 2);
+
+        assertEquals(10, inventory.getCount());
+        assertEquals(0, store.getReservedUnits());
+        assertEquals(10, store.getOnShelfUnits());
+        assertEquals(1, sweeper.getExpiredBaskets());
+        assertEquals(4, sweeper.getReleasedUnits());
+        assertSame(basket, customer.getBasket(), "Customer keeps the emptied basket");
+    }
+
+    @Test
+    public void testSeenCustomerKeepsReservation() throws Exception {
+        basket.addProduct("P1", 4);
+        sweeper.track(basket);
+
+        //Customer keeps being seen, so the reservation is moved forward instead of expiring
+        for (int i = 0; i < 6; i++) {
+            advance(TTL_MILLIS / 2);
+            customer.setLastSeen(new Date(clock.get()));
+        }
+
+        assertEquals(6, inventory.getCount());
+        assertEquals(0, sweeper.getExpiredBaskets());
+    }
+
+    @Test
+    public void testUnitsThatDoNotFitBackStayInBasket() throws Exception {
+        basket.addProduct("P1", 4);
+        sweeper.track(basket);
+        //Shelf was restocked meanwhile, so the reserved units no longer fit back on it
+        assertTrue(inventory.tryRelease(4));
+
+        advance(TTL_MILLIS * 2);
+
+        assertEquals(10, inventory.getCount());
+        assertEquals(4, basket.getReservedUnits(), "Units that could not be returned must not be lost");
+        assertEquals(0, sweeper.getReleasedUnits());
+
+        //Once there is room again they are returned by the retry a ttl later
+        assertTrue(inventory.tryReserve(4));
+        advance(TTL_MILLIS + TICK_MILLIS * 2);
+
+        assertEquals(10, inventory.getCount());
+        assertEquals(0, basket.getReservedUnits());
+        assertEquals(4, sweeper.getReleasedUnits());
+        assertEquals(1, sweeper.getExpiredBaskets());
+    }
+
+    /**
+     * Move the clock forward one tick at a time, sweeping after every tick like the background thread does
+     */
+    private void advance(long millis) {
+        for (long step = 0; step < millis; step += TICK_MILLIS) {
+            clock.addAndGet(TICK_MILLIS);
+            sweeper.sweep();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.se310.store.service;
+
+import com.se310.store.data.DataManager;
+import com.se310.store.model.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for checking out Baskets against the in-memory test database
+ *
+ * @author  Sergey L. Sundukovskiy
+ * @version 1.0
+ * @since   2025-11-20
+ */
+public class StoreServiceCheckoutTest {
+
+    private static final int INITIAL_COUNT = 10;
+
+    private StoreService storeService;
+    private DataManager dataManager;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        dataManager = DataManager.getInstance();
+        dataManager.clearAllTables();
+        StoreService.clearAllMaps();
+        storeService = new StoreService();
+
+        storeService.provisionStore("S1", "Store", "Address", null);
+        storeService.provisionAisle("S1", "A1", "Aisle", "Aisle", AisleLocation.floor, null);
+        storeService.provisionShelf("S1", "A1", "SH1", "Shelf", ShelfLevel.high, "Shelf", Temperature.ambient, null);
+        storeService.provisionProduct("P1", "Product", "Product", "1", "Food", 2.5, Temperature.ambient, null);
+        storeService.provisionInventory("I1", "S1", "A1", "SH1", INITIAL_COUNT, INITIAL_COUNT, "P1",
+                InventoryType.standard, null);
+        storeService.provisionCustomer("C1", "First", "Last", CustomerType.registered, "customer@store.com",
+                "Address", null);
+        storeService.updateCustomer("C1", "S1", "A1", null);
+        storeService.provisionBasket("B1", null);
+        storeService.assignCustomerBasket("C1", "B1", null);
+    }
+
+    @Test
+    public void testCheckoutPersistsOrderAndConsumedInventory() throws Exception {
+        storeService.addBasketProduct("B1", "P1", 3, null);
+
+        Order order = storeService.checkout("B1", null);
+
+        assertEquals(1, order.getLines().size());
+        assertEquals(0, new BigDecimal("7.5").compareTo(order.getTotal()));
+        try (ResultSet rs = dataManager.findOrderById(order.getId())) {
+            assertTrue(rs.next(), "Order should be committed");
+            assertEquals("C1", rs.getString("customer_id"));
+        }
+        try (ResultSet rs = dataManager.findOrderLines(order.getId())) {
+            assertTrue(rs.next());
+            assertEquals(3, rs.getInt("quantity"));
+        }
+        assertEquals(INITIAL_COUNT - 3, storedInventoryCount("I1"), "Consumed units must be persisted with the order");
+
+        Basket basket = storeService.showBasket("B1", null);
+        assertNull(basket.getCustomer());
+        assertEquals(0, basket.getReservedUnits());
+    }
+
+    @Test
+    public void testEmptyBasketIsRejectedAndLeftUnchanged() throws Exception {
+        StoreException e = assertThrows(StoreException.class, () -> storeService.checkout("B1", null));
+
+        assertEquals("Basket Is Empty", e.getReason());
+        assertNotNull(storeService.showBasket("B1", null).getCustomer());
+        assertEquals(0, countOrders());
+    }
+
+    @Test
+    public void testUnreservedLineIsRejectedAndLeftUnchanged() throws Exception {
+        storeService.addBasketProduct("B1", "P1", 3, null);
+        //Shelf now holds another Product, so the units in the Basket are no longer reserved for P1
+        storeService.provisionProduct("P2", "Product", "Product", "1", "Food", 1.0, Temperature.ambient, null);
+        storeService.showInventory("I1", null).setProductId("P2");
+
+        StoreException e = assertThrows(StoreException.class, () -> storeService.checkout("B1", null));
+
+        assertEquals("Inventory Not Reserved for Product: P1", e.getReason());
+        Basket basket = storeService.showBasket("B1", null);
+        assertNotNull(basket.getCustomer());
+        assertEquals(3, basket.getReservedUnits());
+        assertEquals(INITIAL_COUNT - 3, storeService.showInventory("I1", null).getCount());
+        assertEquals(INITIAL_COUNT, storedInventoryCount("I1"));
+        assertEquals(0, countOrders());
+    }
+
+    private int storedInventoryCount(String inventoryId) throws SQLException {
+        try (ResultSet rs = dataManager.findInventoryById(inventoryId)) {
+            assertTrue(rs.next());
+            return rs.getInt("count");
+        }
+    }
+
+    private int countOrders() throws SQLException {
+        try (ResultSet rs = dataManager.executeQuery("SELECT COUNT(*) FROM orders")) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.se310.store.service;
+
+import com.se310.store.data.DataManager;
+import com.se310.store.model.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Multi-threaded stress tests for the in-memory registries of the Store Service
+ *
+ * @author  Sergey L. Sundukovskiy
+ * @version 1.0
+ * @since   2025-11-20
+ */
+public class StoreServiceConcurrencyTest {
+
+    private static final int THREADS = 8;
+
+    private StoreService storeService;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        //Tests share the in-memory database and the static registries, so start every test empty
+        DataManager.getInstance().clearAllTables();
+        StoreService.clearAllMaps();
+        storeService = new StoreService();
+    }
+
+    @Test
+    public void testConcurrentProvisioningOfDistinctStores() throws Exception {
+        int storesPerThread = 25;
+
+        runConcurrently(thread -> {
+            for (int i = 0; i < storesPerThread; i++) {
+                String storeId = "S" + thread + "-" + i;
+                storeService.provisionStore(storeId, "Store", "Address", null);
+                storeService.provisionAisle(storeId, "A1", "Aisle", "Aisle", AisleLocation.floor, null);
+                storeService.provisionShelf(storeId, "A1", "SH1", "Shelf", ShelfLevel.high, "Shelf",
+                        Temperature.ambient, null);
+            }
+        });
+
+        for (int thread = 0; thread < THREADS; thread++) {
+            for (int i = 0; i < storesPerThread; i++) {
+                String storeId = "S" + thread + "-" + i;
+                assertNotNull(storeService.showShelf(storeId, "A1", "SH1", null));
+            }
+        }
+    }
+
+    @Test
+    public void testStorePagesWalkConcurrentlyProvisionedStoresInOrder() throws Exception {
+        int storesPerThread = 10;
+
+        runConcurrently(thread -> {
+            for (int i = 0; i < storesPerThread; i++) {
+                storeService.provisionStore("P" + thread + "-" + i, "Store", "Address", null);
+            }
+        });
+
+        List<String> seen = new ArrayList<>();
+        String after = null;
+        do {
+            Page<Store> page = storeService.getStoresPage(after, 7);
+            assertTrue(page.getItems().size() <= 7);
+            for (Store store : page.getItems()) {
+                seen.add(store.getId());
+            }
+            after = Page.decodeCursor(page.getNextCursor());
+        } while (after != null);
+
+        assertEquals(THREADS * storesPerThread, seen.size());
+        List<String> sorted = new ArrayList<>(seen);
+        sorted.sort(null);
+        assertEquals(sorted, seen, "Pages must follow id order without gaps or repeats");
+    }
+
+    @Test
+    public void testConcurrentProvisioningOfSameStoreHasSingleWinner() throws Exception {
+        String storeId = "SAME";
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        runConcurrently(thread -> {
+            try {
+                storeService.provisionStore(storeId, "Store", "Address", null);
+                created.incrementAndGet();
+            } catch (StoreException e) {
+                rejected.incrementAndGet();
+            }
+        });
+
+        assertEquals(1, created.get());
+        assertEquals(THREADS - 1, rejected.get());
+    }
+
+    @Test
+    public void testConcurrentBasketUpdatesKeepInventoryConsistent() throws Exception {
+        int addsPerThread = 100;
+        String storeId = "BASKET";
+        String productId = "P1";
+        String inventoryId = "I1";
+        int initialCount = THREADS * addsPerThread * 2;
+
+        storeService.provisionStore(storeId, "Store", "Address", null);
+        storeService.provisionAisle(storeId, "A1", "Aisle", "Aisle", AisleLocation.floor, null);
+        storeService.provisionShelf(storeId, "A1", "SH1", "Shelf", ShelfLevel.high, "Shelf",
+                Temperature.ambient, null);
+        storeService.provisionProduct(productId, "Product", "Product", "1", "Food", 1.0,
+                Temperature.ambient, null);
+        storeService.provisionInventory(inventoryId, storeId, "A1", "SH1", initialCount, initialCount,
+                productId, InventoryType.standard, null);
+
+        for (int thread = 0; thread < THREADS; thread++) {
+            String customerId = "C" + thread;
+            String basketId = "B" + thread;
+            storeService.provisionCustomer(customerId, "First", "Last", CustomerType.registered,
+                    "customer@store.com", "Address", null);
+            storeService.updateCustomer(customerId, storeId, "A1", null);
+            storeService.provisionBasket(basketId, null);
+            storeService.assignCustomerBasket(customerId, basketId, null);
+        }
+
+        runConcurrently(thread -> {
+            String basketId = "B" + thread;
+            for (int i = 0; i < addsPerThread; i++) {
+                storeService.addBasketProduct(basketId, productId, 1, null);
+            }
+        });
+
+        assertEquals(initialCount - THREADS * addsPerThread,
+                storeService.showInventory(inventoryId, null).getCount());
+    }
+
+    @Test
+    public void testConcurrentCustomerMovesKeepSingleStoreMembership() throws Exception {
+        int movesPerThread = 50;
+        String[] storeIds = {"MOVE-A", "MOVE-B"};
+
+        for (String storeId : storeIds) {
+            storeService.provisionStore(storeId, "Store", "Address", null);
+            storeService.provisionAisle(storeId, "A1", "Aisle", "Aisle", AisleLocation.floor, null);
+        }
+        for (int thread = 0; thread < THREADS; thread++) {
+            storeService.provisionCustomer("M" + thread, "First", "Last", CustomerType.registered,
+                    "customer@store.com", "Address", null);
+        }
+
+        //Every thread moves its own Customer back and forth while the others do the same
+        runConcurrently(thread -> {
+            String customerId = "M" + thread;
+            for (int i = 0; i < movesPerThread; i++) {
+                storeService.updateCustomer(customerId, storeIds[i % 2], "A1", null);
+            }
+        });
+
+        for (int thread = 0; thread < THREADS; thread++) {
+            String customerId = "M" + thread;
+            String currentStoreId = storeService.showCustomer(customerId, null).getStoreLocation().getStoreId();
+            for (String storeId : storeIds) {
+                Customer registered = storeService.showStore(storeId, null).getCustomer(customerId);
+                if (storeId.equals(currentStoreId)) {
+                    assertNotNull(registered, "Customer should be registered in its current Store");
+                } else {
+                    assertNull(registered, "Customer should have been removed from its previous Store");
+                }
+            }
+        }
+    }
+
+    /**
+     * Run the task on THREADS threads that all start at the same time and fail on the first error
+     */
+    private void runConcurrently(ThreadTask task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                int index = thread;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    task.run(index);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<Void> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @FunctionalInterface
+    private interface ThreadTask {
+        void run(int thread) throws Exception;
+    }
+}
@@ -0,0 +1,160 @@
+package com.se310.store.servlet;
+
+import com.google.gson.JsonParser;
+import com.se310.store.model.Versioned;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the JSON responses and conditional requests handled by BaseServlet, against a recording response
+ *
+ * @author  Sergey L. Sundukovskiy
+ * @version 1.0
+ * @since   2025-11-20
+ */
+public class BaseServletTest {
+
+    // server.json.buffer.bytes of the test configuration
+    private static final int BUFFER_BYTES = 8192;
+
+    private final BaseServlet servlet = new BaseServlet() { };
+
+    @Test
+    public void testBufferedBodyIsSentWithExactContentLength() throws IOException {
+        ServletFakes.RecordedResponse response = new ServletFakes.RecordedResponse();
+
+        servlet.sendJsonResponse(null, response.get(), Map.of("name", "Store"), 201);
+
+        assertEquals(201, response.getStatus());
+        assertEquals("{\"name\":\"Store\"}", response.getBodyText());
+        assertEquals(response.getBody().length, response.getContentLength());
+    }
+
+    @Test
+    public void testBodyLargerThanBufferIsStreamedWithoutContentLength() throws IOException {
+        List<String> items = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            items.add("item-" + "x".repeat(20) + "-" + i);
+        }
+        ServletFakes.RecordedResponse response = new ServletFakes.RecordedResponse();
+
+        servlet.sendJsonResponse(null, response.get(), items, 200);
+
+        assertTrue(response.getBody().length > BUFFER_BYTES);
+        assertEquals(-1, response.getContentLength());
+        assertEquals(items.size(), JsonParser.parseString(response.getBodyText()).getAsJsonArray().size());
+    }
+
+    @Test
+    public void testSwitchToStreamingHappensJustPastBufferSize() throws IOException {
+        byte[] payload = "0123456789abcdefg".getBytes(StandardCharsets.UTF_8);
+
+        //Exactly the buffer size still fits
+        ServletFakes.RecordedResponse fits = new ServletFakes.RecordedResponse();
+        try (ContentLengthOutputStream out = new ContentLengthOutputStream(fits.get(), 16)) {
+            out.write(payload, 0, 16);
+        }
+        assertEquals(16, fits.getContentLength());
+        assertEquals(16, fits.getBody().length);
+
+        //One more byte, written a byte at a time, goes out chunked with nothing lost
+        ServletFakes.RecordedResponse streamed = new ServletFakes.RecordedResponse();
+        try (ContentLengthOutputStream out = new ContentLengthOutputStream(streamed.get(), 16)) {
+            for (byte b : payload) {
+                out.write(b);
+            }
+        }
+        assertEquals(-1, streamed.getContentLength());
+        assertArrayEquals(payload, streamed.getBody());
+    }
+
+    @Test
+    public void testPrettyParameterIndentsOutput() throws IOException {
+        ServletFakes.RecordedResponse compact = new ServletFakes.RecordedResponse();
+        servlet.sendJsonResponse(request(Map.of()), compact.get(), Map.of("name", "Store"), 200);
+
+        ServletFakes.RecordedResponse pretty = new ServletFakes.RecordedResponse();
+        servlet.sendJsonResponse(request(Map.of("pretty", "true")), pretty.get(), Map.of("name", "Store"), 200);
+
+        assertEquals("{\"name\":\"Store\"}", compact.getBodyText());
+        assertEquals("{\n  \"name\": \"Store\"\n}", pretty.getBodyText());
+        assertEquals(pretty.getBody().length, pretty.getContentLength());
+    }
+
+    @Test
+    public void testErrorResponseHonorsPrettyParameter() throws IOException {
+        ServletFakes.RecordedResponse response = new ServletFakes.RecordedResponse();
+
+        servlet.sendErrorResponse(request(Map.of("pretty", "true")), response.get(), 404, "Store Does Not Exist");
+
+        assertEquals(404, response.getStatus());
+        assertTrue(response.getBodyText().contains("\n  \"message\": \"Store Does Not Exist\""),
+                response.getBodyText());
+        assertEquals(response.getBody().length, response.getContentLength());
+    }
+
+    @Test
+    public void testNotModifiedMatchesCurrentEntityTag() {
+        Versioned entity = () -> 7;
+        String etag = currentEntityTag(entity, Map.of());
+
+        ServletFakes.RecordedResponse response = new ServletFakes.RecordedResponse();
+        assertTrue(servlet.notModified(conditional(etag), response.get(), entity));
+        assertEquals(304, response.getStatus());
+        assertEquals(etag, response.getHeader("ETag"));
+        assertEquals("no-cache", response.getHeader("Cache-Control"));
+    }
+
+    @Test
+    public void testNotModifiedAcceptsWeakTagsListsAndWildcard() {
+        Versioned entity = () -> 7;
+        String etag = currentEntityTag(entity, Map.of());
+
+        assertTrue(isNotModified(entity, "W/" + etag));
+        assertTrue(isNotModified(entity, "\"other\", " + etag + " ,\"another\""));
+        assertTrue(isNotModified(entity, "\"other\",W/" + etag));
+        assertTrue(isNotModified(entity, "*"));
+        assertFalse(isNotModified(entity, "\"other\", W/\"another\""));
+        assertFalse(isNotModified(entity, null));
+    }
+
+    @Test
+    public void testNewVersionOrFormattingChangesEntityTag() {
+        String etag = currentEntityTag(() -> 7, Map.of());
+
+        assertNotEquals(etag, currentEntityTag(() -> 8, Map.of()));
+        assertNotEquals(etag, currentEntityTag(() -> 7, Map.of("pretty", "true")));
+        assertNotEquals(etag, currentEntityTag(() -> 7, Map.of("fields", "id,name")));
+        assertFalse(isNotModified(() -> 8, etag), "A stale tag must not match the new version");
+    }
+
+    private String currentEntityTag(Versioned entity, Map<String, String> parameters) {
+        ServletFakes.RecordedResponse response = new ServletFakes.RecordedResponse();
+        assertFalse(servlet.notModified(ServletFakes.request(parameters, Map.of()), response.get(), entity));
+        assertEquals(200, response.getStatus());
+        return response.getHeader("ETag");
+    }
+
+    private boolean isNotModified(Versioned entity, String ifNoneMatch) {
+        return servlet.notModified(conditional(ifNoneMatch), new ServletFakes.RecordedResponse().get(), entity);
+    }
+
+    private static HttpServletRequest conditional(String ifNoneMatch) {
+        Map<String, String> headers = new HashMap<>();
+        headers.put("If-None-Match", ifNoneMatch);
+        return ServletFakes.request(Map.of(), headers);
+    }
+
+    private static HttpServletRequest request(Map<String, String> parameters) {
+        return ServletFakes.request(parameters, Map.of());
+    }
+}
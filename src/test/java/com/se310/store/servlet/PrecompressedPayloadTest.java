@@ -0,0 +1,69 @@
+package com.se310.store.servlet;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for Accept-Encoding negotiation and the cached gzip form of static payloads
+ *
+ * @author  Sergey L. Sundukovskiy
+ * @version 1.0
+ * @since   2025-11-20
+ */
+public class PrecompressedPayloadTest {
+
+    @Test
+    public void testAcceptsGzipHonorsQualityValues() {
+        assertTrue(PrecompressedPayload.acceptsGzip("gzip"));
+        assertTrue(PrecompressedPayload.acceptsGzip("deflate, GZIP;q=0.5"));
+        assertTrue(PrecompressedPayload.acceptsGzip("x-gzip"));
+        assertFalse(PrecompressedPayload.acceptsGzip(null));
+        assertFalse(PrecompressedPayload.acceptsGzip("identity"));
+        assertFalse(PrecompressedPayload.acceptsGzip("gzip;q=0"));
+        assertFalse(PrecompressedPayload.acceptsGzip("gzip; q=0.0, deflate"));
+        assertFalse(PrecompressedPayload.acceptsGzip("gzip;q=invalid"));
+    }
+
+    @Test
+    public void testAcceptsGzipThroughWildcardUnlessExcluded() {
+        assertTrue(PrecompressedPayload.acceptsGzip("*"));
+        assertTrue(PrecompressedPayload.acceptsGzip("br, *;q=0.1"));
+        assertFalse(PrecompressedPayload.acceptsGzip("*;q=0"));
+        //An explicit exclusion of gzip wins over the wildcard, in either order
+        assertFalse(PrecompressedPayload.acceptsGzip("gzip;q=0, *"));
+        assertFalse(PrecompressedPayload.acceptsGzip("*, gzip;q=0"));
+    }
+
+    @Test
+    public void testPayloadIsServedCompressedOnlyWhenAccepted() throws IOException {
+        PrecompressedPayload payload = PrecompressedPayload.fromResource("api/openapi.yaml", "application/x-yaml", 9);
+        assertNotNull(payload);
+        assertTrue(payload.getCompressedLength() < payload.getIdentityLength());
+
+        ServletFakes.RecordedResponse plain = new ServletFakes.RecordedResponse();
+        payload.write(ServletFakes.request(Map.of(), Map.of()), plain.get());
+        assertNull(plain.getHeader("Content-Encoding"));
+        assertEquals("Accept-Encoding", plain.getHeader("Vary"));
+        assertEquals(payload.getIdentityLength(), plain.getBody().length);
+        assertEquals(plain.getBody().length, plain.getContentLength());
+
+        ServletFakes.RecordedResponse compressed = new ServletFakes.RecordedResponse();
+        payload.write(ServletFakes.request(Map.of(), Map.of("Accept-Encoding", "gzip, deflate")), compressed.get());
+        assertEquals("gzip", compressed.getHeader("Content-Encoding"));
+        assertEquals(payload.getCompressedLength(), compressed.getContentLength());
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed.getBody()))) {
+            assertArrayEquals(plain.getBody(), in.readAllBytes());
+        }
+    }
+
+    @Test
+    public void testMissingResourceHasNoPayload() throws IOException {
+        assertNull(PrecompressedPayload.fromResource("api/missing.yaml", "application/x-yaml", 9));
+    }
+}
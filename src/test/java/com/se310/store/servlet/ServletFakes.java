@@ -0,0 +1,138 @@
+package com.se310.store.servlet;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Minimal servlet request and response doubles for testing servlets without a container
+ *
+ * @author  Sergey L. Sundukovskiy
+ * @version 1.0
+ * @since   2025-11-20
+ */
+final class ServletFakes {
+
+    private ServletFakes() {
+    }
+
+    /**
+     * Request answering only query parameters and headers
+     */
+    static HttpServletRequest request(Map<String, String> parameters, Map<String, String> headers) {
+        return (HttpServletRequest) Proxy.newProxyInstance(HttpServletRequest.class.getClassLoader(),
+                new Class<?>[]{HttpServletRequest.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "getParameter" -> parameters.get((String) args[0]);
+                    case "getHeader" -> headers.get((String) args[0]);
+                    default -> defaultValue(method.getReturnType());
+                });
+    }
+
+    /**
+     * Response recording its status, headers, Content-Length and body
+     */
+    static final class RecordedResponse {
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        private final Map<String, String> headers = new HashMap<>();
+        private int status = HttpServletResponse.SC_OK;
+        private long contentLength = -1;
+        private boolean bodyStarted;
+
+        private final HttpServletResponse response = (HttpServletResponse) Proxy.newProxyInstance(
+                HttpServletResponse.class.getClassLoader(), new Class<?>[]{HttpServletResponse.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "setStatus" -> status = (Integer) args[0];
+                        case "setContentLength" -> setContentLength((Integer) args[0]);
+                        case "setContentLengthLong" -> setContentLength((Long) args[0]);
+                        case "setHeader", "addHeader" -> headers.put((String) args[0], (String) args[1]);
+                        case "getOutputStream" -> {
+                            return outputStream();
+                        }
+                        default -> {
+                            return defaultValue(method.getReturnType());
+                        }
+                    }
+                    return null;
+                });
+
+        HttpServletResponse get() {
+            return response;
+        }
+
+        int getStatus() {
+            return status;
+        }
+
+        String getHeader(String name) {
+            return headers.get(name);
+        }
+
+        /**
+         * @return Content-Length set before the body was written, -1 if the body was sent without one
+         */
+        long getContentLength() {
+            return contentLength;
+        }
+
+        byte[] getBody() {
+            return body.toByteArray();
+        }
+
+        String getBodyText() {
+            return body.toString(StandardCharsets.UTF_8);
+        }
+
+        private void setContentLength(long length) {
+            //Once body bytes are out a container can no longer send the length
+            if (!bodyStarted) {
+                contentLength = length;
+            }
+        }
+
+        private ServletOutputStream outputStream() {
+            return new ServletOutputStream() {
+                @Override
+                public void write(int b) {
+                    bodyStarted = true;
+                    body.write(b);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) {
+                    bodyStarted = true;
+                    body.write(b, off, len);
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setWriteListener(WriteListener listener) {
+                }
+            };
+        }
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == int.class) {
+            return 0;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        return null;
+    }
+}